@@ -0,0 +1,63 @@
+package kaptainwutax.tungsten.bench;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import kaptainwutax.tungsten.TungstenMod;
+import kaptainwutax.tungsten.path.blockSpaceSearchAssist.BlockNode;
+import kaptainwutax.tungsten.path.blockSpaceSearchAssist.BlockSpacePathfinder;
+import kaptainwutax.tungsten.path.blockSpaceSearchAssist.Goal;
+import net.minecraft.util.math.BlockPos;
+
+/**
+ * Runs the block-space A* on each course of {@code src/jmh/resources/courses}.
+ * <p>
+ * The score is the time of one full search, run with the {@code gc} profiler for the allocation rate.
+ * The setup only checks that each course has a path, so a broken course fails the trial instead of timing a miss.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BlockSearchBenchmark {
+
+    @Param({"parkour", "ladders", "water", "slabs", "neo"})
+    public String course;
+
+    @Param({"false", "true"})
+    public boolean edgeValidityCache;
+
+    private Course loaded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Headless.bootstrap();
+        TungstenMod.edgeValidityCache = this.edgeValidityCache;
+        this.loaded = Course.load(this.course);
+
+        this.search().orElseThrow(() -> new IllegalStateException("No block path through course " + this.course));
+    }
+
+    @Benchmark
+    public Optional<List<BlockNode>> search() {
+        TungstenMod.PATHFINDER.stop.set(false);
+        BlockNode start = new BlockNode(this.loaded.world(), this.loaded.start(), new Goal(BlockPos.ofFloored(this.loaded.goal())));
+        return BlockSpacePathfinder.search(this.loaded.world(), start, this.loaded.goal());
+    }
+}
@@ -0,0 +1,103 @@
+package kaptainwutax.tungsten.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import kaptainwutax.tungsten.simulation.SimulatedBlockCollisions;
+import net.minecraft.block.ShapeContext;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.util.shape.VoxelShape;
+
+/**
+ * Times the block collision query a simulated player runs every tick, over the {@code flat} and
+ * {@code corridor} courses.
+ * <p>
+ * Setup walks a player sized box from the start to the goal of the course at sprinting speed and
+ * keeps the box of every tick, stretched by that tick's movement the way the entity move code does.
+ * One operation is one of those queries drained to the end, so the score reads as ns per tick and
+ * the {@code gc} profiler's {@code gc.alloc.rate.norm} as bytes per tick. The vanilla collision
+ * iterator runs over the same boxes as a baseline.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CollisionBenchmark {
+
+    private static final double PLAYER_WIDTH = 0.6;
+    private static final double PLAYER_HEIGHT = 1.8;
+    private static final double SPRINT_SPEED = 0.28;
+    /** Vertical movement of a grounded player, gravity applied once and cancelled by the floor */
+    private static final double GROUNDED_FALL = -0.0784;
+
+    @Param({"flat", "corridor"})
+    public String course;
+
+    private Course loaded;
+    private Box[] boxes;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Headless.bootstrap();
+        this.loaded = Course.load(this.course);
+
+        Vec3d from = Vec3d.ofBottomCenter(this.loaded.start());
+        Vec3d to = this.loaded.goal();
+        Vec3d step = to.subtract(from).normalize().multiply(SPRINT_SPEED).add(0, GROUNDED_FALL, 0);
+        int ticks = Math.max(1, (int) Math.ceil(from.distanceTo(to) / SPRINT_SPEED));
+
+        List<Box> sweep = new ArrayList<>(ticks);
+        Vec3d pos = from;
+        for (int i = 0; i < ticks; i++) {
+            Box box = new Box(pos.x - PLAYER_WIDTH / 2, pos.y, pos.z - PLAYER_WIDTH / 2,
+                    pos.x + PLAYER_WIDTH / 2, pos.y + PLAYER_HEIGHT, pos.z + PLAYER_WIDTH / 2);
+            sweep.add(box.stretch(step));
+            pos = pos.add(step.x, 0, step.z);
+        }
+        this.boxes = sweep.toArray(Box[]::new);
+    }
+
+    @Benchmark
+    public void simulatedCollisions(Blackhole blackhole) {
+        SimulatedBlockCollisions collisions = this.simulated(this.nextBox());
+        while (collisions.hasNext()) {
+            blackhole.consume(collisions.next());
+        }
+    }
+
+    @Benchmark
+    public void vanillaCollisions(Blackhole blackhole) {
+        for (VoxelShape shape : this.loaded.world().getBlockCollisions(null, this.nextBox())) {
+            blackhole.consume(shape);
+        }
+    }
+
+    private SimulatedBlockCollisions simulated(Box box) {
+        return new SimulatedBlockCollisions(this.loaded.world(), ShapeContext.absent(), box, false);
+    }
+
+    private Box nextBox() {
+        Box box = this.boxes[this.cursor];
+        this.cursor = this.cursor + 1 == this.boxes.length ? 0 : this.cursor + 1;
+        return box;
+    }
+}
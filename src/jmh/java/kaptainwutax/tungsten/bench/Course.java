@@ -0,0 +1,130 @@
+package kaptainwutax.tungsten.bench;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.block.SlabBlock;
+import net.minecraft.block.enums.SlabType;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Vec3d;
+
+/**
+ * A benchmark course, a {@link SyntheticWorld} with a start and a goal, read from a text description.
+ * <p>
+ * The description is a list of directives, {@code ;} starts a comment:
+ * <pre>
+ * start 1 1 1          block the player stands in
+ * goal 14 1 1          block to reach
+ * layer 0              the rows below are at y = 0
+ * layer 1-6            the rows below repeat from y = 1 to y = 6
+ * </pre>
+ * Each row under a layer is one z, starting at 0, and each character one x, starting at 0:
+ * <pre>
+ * .  air        #  stone      _  bottom stone slab
+ * ~  water      H  ladder facing north, against the block at z + 1
+ * F  oak fence  P  glass pane
+ * </pre>
+ */
+public record Course(String name, SyntheticWorld world, BlockPos start, Vec3d goal) {
+
+    /** Room left under the lowest layer so short drops off the course stay inside the world */
+    private static final int FLOOR_MARGIN = 4;
+    private static final int HEAD_ROOM = 8;
+
+    /**
+     * Loads {@code /courses/<name>.course} from the benchmark resources.
+     */
+    public static Course load(String name) {
+        String resource = "/courses/" + name + ".course";
+        try (InputStream in = Course.class.getResourceAsStream(resource)) {
+            if (in == null) throw new IllegalArgumentException("No course " + resource);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            return parse(name, reader.lines().toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static Course parse(String name, List<String> lines) {
+        record Layer(int fromY, int toY, List<String> rows) {}
+
+        List<Layer> layers = new ArrayList<>();
+        BlockPos start = null;
+        BlockPos goal = null;
+        Layer current = null;
+
+        for (String raw : lines) {
+            int comment = raw.indexOf(';');
+            String line = (comment >= 0 ? raw.substring(0, comment) : raw).strip();
+            if (line.isEmpty()) continue;
+
+            String[] parts = line.split("\\s+");
+            switch (parts[0]) {
+                case "start" -> start = parsePos(parts);
+                case "goal" -> goal = parsePos(parts);
+                case "layer" -> {
+                    String[] range = parts[1].split("(?<=\\d)-");
+                    int fromY = Integer.parseInt(range[0]);
+                    int toY = range.length > 1 ? Integer.parseInt(range[1]) : fromY;
+                    current = new Layer(fromY, toY, new ArrayList<>());
+                    layers.add(current);
+                }
+                default -> {
+                    if (current == null) throw new IllegalArgumentException(name + ": row outside of a layer: " + line);
+                    current.rows().add(line);
+                }
+            }
+        }
+        if (start == null || goal == null || layers.isEmpty()) {
+            throw new IllegalArgumentException(name + ": a course needs a start, a goal and at least one layer");
+        }
+
+        int minY = Integer.MAX_VALUE, maxY = Integer.MIN_VALUE, sizeX = 0, sizeZ = 0;
+        for (Layer layer : layers) {
+            minY = Math.min(minY, layer.fromY());
+            maxY = Math.max(maxY, layer.toY());
+            sizeZ = Math.max(sizeZ, layer.rows().size());
+            for (String row : layer.rows()) sizeX = Math.max(sizeX, row.length());
+        }
+        minY = Math.min(minY, Math.min(start.getY(), goal.getY())) - FLOOR_MARGIN;
+        maxY = Math.max(maxY, Math.max(start.getY(), goal.getY())) + HEAD_ROOM;
+
+        SyntheticWorld world = new SyntheticWorld(0, minY, 0, sizeX, maxY - minY + 1, sizeZ);
+        for (Layer layer : layers) {
+            for (int y = layer.fromY(); y <= layer.toY(); y++) {
+                for (int z = 0; z < layer.rows().size(); z++) {
+                    String row = layer.rows().get(z);
+                    for (int x = 0; x < row.length(); x++) {
+                        world.setBlockState(x, y, z, stateFor(name, row.charAt(x)));
+                    }
+                }
+            }
+        }
+        return new Course(name, world, start, new Vec3d(goal.getX() + 0.5, goal.getY(), goal.getZ() + 0.5));
+    }
+
+    private static BlockPos parsePos(String[] parts) {
+        return new BlockPos(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]), Integer.parseInt(parts[3]));
+    }
+
+    private static BlockState stateFor(String name, char c) {
+        return switch (c) {
+            case '.' -> Blocks.AIR.getDefaultState();
+            case '#' -> Blocks.STONE.getDefaultState();
+            case '_' -> Blocks.STONE_SLAB.getDefaultState().with(SlabBlock.TYPE, SlabType.BOTTOM);
+            case '~' -> Blocks.WATER.getDefaultState();
+            case 'H' -> Blocks.LADDER.getDefaultState();
+            case 'F' -> Blocks.OAK_FENCE.getDefaultState();
+            case 'P' -> Blocks.GLASS_PANE.getDefaultState();
+            default -> throw new IllegalArgumentException(name + ": unknown block '" + c + "'");
+        };
+    }
+}
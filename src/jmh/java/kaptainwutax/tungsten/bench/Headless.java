@@ -0,0 +1,23 @@
+package kaptainwutax.tungsten.bench;
+
+import kaptainwutax.tungsten.helpers.BlockStatePropertyTable;
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+
+/**
+ * Registers blocks and builds the lookup tables the searches need, without starting a client.
+ */
+public final class Headless {
+
+    private static boolean bootstrapped;
+
+    private Headless() {}
+
+    public static synchronized void bootstrap() {
+        if (bootstrapped) return;
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+        BlockStatePropertyTable.build();
+        bootstrapped = true;
+    }
+}
@@ -0,0 +1,186 @@
+package kaptainwutax.tungsten.bench;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import kaptainwutax.tungsten.simulation.DeepCopy;
+import kaptainwutax.tungsten.simulation.SimMetadata;
+import kaptainwutax.tungsten.simulation.SimulatedStateCodec;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityDimensions;
+import net.minecraft.entity.EntityPose;
+import net.minecraft.entity.EntityType;
+import net.minecraft.entity.data.DataTracked;
+import net.minecraft.entity.data.DataTracker;
+import net.minecraft.entity.data.TrackedData;
+import net.minecraft.entity.data.TrackedDataHandler;
+import net.minecraft.entity.data.TrackedDataHandlerRegistry;
+import net.minecraft.entity.player.PlayerAbilities;
+import net.minecraft.util.PlayerInput;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.Vec2f;
+import net.minecraft.util.math.Vec3d;
+
+/**
+ * Times the per node copy of a generated simulated player, the flat {@link SimulatedStateCodec}
+ * path against the {@link DeepCopy} fallback.
+ * <p>
+ * There is no client player to copy from without a running game, so the source is a blank instance
+ * of the generated class whose whitelisted reference fields are filled with fixture values: position,
+ * velocity, bounding box, a data tracker with the player's entries, abilities and empty collections.
+ * Fields of a type without a fixture stay null, their nested copies are not part of the score.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StateCopyBenchmark {
+
+    private static final String METADATA_RESOURCE = "/tungsten/simulated-metadata.json";
+    private static final String PLAYER_CLASS = "net.minecraft.client.network.ClientPlayerEntity";
+
+    private Class<?> simClass;
+    private DeepCopy copier;
+    private SimulatedStateCodec codec;
+    private Object source;
+    private Object pooled;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, ReflectiveOperationException {
+        Headless.bootstrap();
+        SimMetadata metadata = SimMetadata.loadResource(METADATA_RESOURCE);
+        String simClassName = metadata.classMap.get(PLAYER_CLASS);
+        if (simClassName == null) {
+            throw new IllegalStateException("No simulated class mapping for " + PLAYER_CLASS + ", run generateSimulatedClasses first");
+        }
+
+        this.simClass = Class.forName(simClassName);
+        this.copier = new DeepCopy(metadata);
+        this.codec = new SimulatedStateCodec(metadata, this.copier, this.simClass);
+        this.source = this.codec.allocate();
+        this.pooled = this.codec.allocate();
+        fillReferences(metadata, this.source);
+    }
+
+    /**
+     * Sets every whitelisted reference field of {@code entity} that has a fixture for its type.
+     */
+    private static void fillReferences(SimMetadata metadata, Object entity) throws ReflectiveOperationException {
+        for (Class<?> current = entity.getClass(); current != null && current != Object.class; current = current.getSuperclass()) {
+            Set<String> allowed = metadata.whitelistedFields.get(current.getName());
+            if (allowed == null) continue;
+            for (Field field : current.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || field.getType().isPrimitive() || !allowed.contains(field.getName())) {
+                    continue;
+                }
+                field.setAccessible(true);
+                if (field.get(entity) != null) continue;
+                Object value = fixture(field, entity);
+                if (value != null) field.set(entity, value);
+            }
+        }
+    }
+
+    private static Object fixture(Field field, Object entity) throws ReflectiveOperationException {
+        Class<?> type = field.getType();
+        if (type == Vec3d.class) {
+            return field.getName().equals("velocity") ? new Vec3d(0.12, -0.0784, 0.05) : new Vec3d(12.5, 64.0, -3.5);
+        }
+        if (type == BlockPos.class) return new BlockPos(12, 64, -4);
+        if (type == ChunkPos.class) return new ChunkPos(0, -1);
+        if (type == Box.class) return new Box(12.2, 64.0, -3.8, 12.8, 65.8, -3.2);
+        if (type == Vec2f.class) return Vec2f.ZERO;
+        if (type == EntityDimensions.class) return EntityType.PLAYER.getDimensions();
+        if (type == PlayerInput.class) return PlayerInput.DEFAULT;
+        if (type == PlayerAbilities.class) return new PlayerAbilities();
+        if (type == DataTracker.class) return buildDataTracker(entity);
+        if (type == Optional.class) return Optional.empty();
+        if (type.isEnum()) return type.getEnumConstants()[0];
+        if (type == List.class) return new ArrayList<>();
+        if (type == Set.class) return new HashSet<>();
+        if (type == Map.class) return new HashMap<>();
+        if (!type.isInterface() && !Modifier.isAbstract(type.getModifiers())) {
+            try {
+                return type.getConstructor().newInstance();
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Registers the tracked data of the whole player hierarchy, the way the entity constructor would.
+     */
+    @SuppressWarnings("unchecked")
+    private static DataTracker buildDataTracker(Object entity) throws ReflectiveOperationException {
+        DataTracker.Builder builder = new DataTracker.Builder((DataTracked) entity);
+        // Entity adds its own entries in the constructor, before initDataTracker
+        for (Field field : Entity.class.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers()) || field.getType() != TrackedData.class) continue;
+            field.setAccessible(true);
+            TrackedData<Object> data = (TrackedData<Object>) field.get(null);
+            builder.add(data, defaultValue(data.dataType()));
+        }
+        Method init = Entity.class.getDeclaredMethod("initDataTracker", DataTracker.Builder.class);
+        init.setAccessible(true);
+        init.invoke(entity, builder);
+        return builder.build();
+    }
+
+    private static Object defaultValue(TrackedDataHandler<?> handler) {
+        if (handler == TrackedDataHandlerRegistry.BYTE) return (byte) 0;
+        if (handler == TrackedDataHandlerRegistry.INTEGER) return 0;
+        if (handler == TrackedDataHandlerRegistry.FLOAT) return 0.0F;
+        if (handler == TrackedDataHandlerRegistry.BOOLEAN) return false;
+        if (handler == TrackedDataHandlerRegistry.OPTIONAL_TEXT_COMPONENT) return Optional.empty();
+        if (handler == TrackedDataHandlerRegistry.ENTITY_POSE) return EntityPose.STANDING;
+        throw new IllegalStateException("No default for tracked data handler " + handler);
+    }
+
+    /** Copy into an instance taken from the pool, the common case once a search is running */
+    @Benchmark
+    public Object codecCopyPooled() {
+        this.codec.copy(this.source, this.pooled);
+        return this.pooled;
+    }
+
+    /** Copy into a freshly allocated instance, what a pool miss costs */
+    @Benchmark
+    public Object codecCopyAllocated() throws InstantiationException {
+        Object target = this.codec.allocate();
+        this.codec.copy(this.source, target);
+        return target;
+    }
+
+    @Benchmark
+    public Object deepCopy() {
+        return this.copier.copyToSimulated(this.source, this.simClass);
+    }
+}
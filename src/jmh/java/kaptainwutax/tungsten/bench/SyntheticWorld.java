@@ -0,0 +1,187 @@
+package kaptainwutax.tungsten.bench;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.entity.Entity;
+import net.minecraft.fluid.FluidState;
+import net.minecraft.registry.DynamicRegistryManager;
+import net.minecraft.registry.entry.RegistryEntry;
+import net.minecraft.resource.featuretoggle.FeatureFlags;
+import net.minecraft.resource.featuretoggle.FeatureSet;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.Direction;
+import net.minecraft.util.shape.VoxelShape;
+import net.minecraft.world.BlockView;
+import net.minecraft.world.Heightmap;
+import net.minecraft.world.WorldView;
+import net.minecraft.world.biome.Biome;
+import net.minecraft.world.biome.source.BiomeAccess;
+import net.minecraft.world.border.WorldBorder;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.ChunkStatus;
+import net.minecraft.world.chunk.light.LightingProvider;
+import net.minecraft.world.dimension.DimensionType;
+
+/**
+ * Fixed block box standing in for a client world, so searches can run without a {@code MinecraftClient}.
+ * <p>
+ * Everything outside the box is air, below the box it is void air. There are no entities, no block
+ * entities and no lighting, only what the block-space search and the validators read.
+ */
+public class SyntheticWorld implements WorldView {
+
+    private final int minX, minY, minZ;
+    private final int sizeX, sizeY, sizeZ;
+    private final BlockState[] states;
+    private final WorldBorder border = new WorldBorder();
+
+    public SyntheticWorld(int minX, int minY, int minZ, int sizeX, int sizeY, int sizeZ) {
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.sizeX = sizeX;
+        this.sizeY = sizeY;
+        this.sizeZ = sizeZ;
+        this.states = new BlockState[sizeX * sizeY * sizeZ];
+        Arrays.fill(this.states, Blocks.AIR.getDefaultState());
+    }
+
+    public void setBlockState(int x, int y, int z, BlockState state) {
+        int index = this.index(x, y, z);
+        if (index < 0) {
+            throw new IllegalArgumentException("Block " + x + ", " + y + ", " + z + " is outside the synthetic world");
+        }
+        this.states[index] = state;
+    }
+
+    @Override
+    public BlockState getBlockState(BlockPos pos) {
+        int index = this.index(pos.getX(), pos.getY(), pos.getZ());
+        if (index >= 0) return this.states[index];
+        return pos.getY() < this.minY ? Blocks.VOID_AIR.getDefaultState() : Blocks.AIR.getDefaultState();
+    }
+
+    @Override
+    public FluidState getFluidState(BlockPos pos) {
+        return this.getBlockState(pos).getFluidState();
+    }
+
+    @Override
+    public BlockView getChunkAsView(int chunkX, int chunkZ) {
+        return this;
+    }
+
+    @Override
+    public boolean isChunkLoaded(int chunkX, int chunkZ) {
+        return true;
+    }
+
+    @Override
+    public List<VoxelShape> getEntityCollisions(@Nullable Entity entity, Box box) {
+        return List.of();
+    }
+
+    @Override
+    public int getBottomY() {
+        return this.minY;
+    }
+
+    @Override
+    public int getHeight() {
+        return this.sizeY;
+    }
+
+    @Override
+    public int getTopY(Heightmap.Type heightmap, int x, int z) {
+        BlockPos.Mutable pos = new BlockPos.Mutable(x, this.minY + this.sizeY - 1, z);
+        while (pos.getY() >= this.minY && this.getBlockState(pos).isAir()) {
+            pos.move(Direction.DOWN);
+        }
+        return pos.getY() + 1;
+    }
+
+    //========================================================================================================//
+
+    @Nullable
+    @Override
+    public Chunk getChunk(int chunkX, int chunkZ, ChunkStatus leastStatus, boolean create) {
+        return null;
+    }
+
+    @Override
+    public int getAmbientDarkness() {
+        return 0;
+    }
+
+    @Override
+    public BiomeAccess getBiomeAccess() {
+        throw new UnsupportedOperationException("Synthetic worlds have no biomes");
+    }
+
+    @Override
+    public RegistryEntry<Biome> getGeneratorStoredBiome(int biomeX, int biomeY, int biomeZ) {
+        throw new UnsupportedOperationException("Synthetic worlds have no biomes");
+    }
+
+    @Override
+    public boolean isClient() {
+        return true;
+    }
+
+    @Override
+    public int getSeaLevel() {
+        return this.minY;
+    }
+
+    @Override
+    public DimensionType getDimension() {
+        throw new UnsupportedOperationException("Synthetic worlds have no dimension type");
+    }
+
+    @Override
+    public float getBrightness(Direction direction, boolean shaded) {
+        return 1.0F;
+    }
+
+    @Override
+    public LightingProvider getLightingProvider() {
+        throw new UnsupportedOperationException("Synthetic worlds have no lighting");
+    }
+
+    @Override
+    public WorldBorder getWorldBorder() {
+        return this.border;
+    }
+
+    @Nullable
+    @Override
+    public BlockEntity getBlockEntity(BlockPos pos) {
+        return null;
+    }
+
+    @Override
+    public DynamicRegistryManager getRegistryManager() {
+        return DynamicRegistryManager.EMPTY;
+    }
+
+    @Override
+    public FeatureSet getEnabledFeatures() {
+        return FeatureFlags.DEFAULT_ENABLED_FEATURES;
+    }
+
+    private int index(int x, int y, int z) {
+        int dx = x - this.minX;
+        int dy = y - this.minY;
+        int dz = z - this.minZ;
+        if (dx < 0 || dy < 0 || dz < 0 || dx >= this.sizeX || dy >= this.sizeY || dz >= this.sizeZ) return -1;
+        return (dy * this.sizeZ + dz) * this.sizeX + dx;
+    }
+
+}
@@ -1,9 +1,12 @@
 package kaptainwutax.tungsten;
 
 import kaptainwutax.tungsten.commandsystem.CommandExecutor;
+import kaptainwutax.tungsten.helpers.BlockStatePropertyTable;
 import kaptainwutax.tungsten.path.PathExecutor;
 import kaptainwutax.tungsten.path.Pathfinder;
 import kaptainwutax.tungsten.render.Renderer;
+import kaptainwutax.tungsten.simulation.TickMemo;
+import kaptainwutax.tungsten.world.BlockChangeNotifier;
 import kaptainwutax.tungsten.world.VoxelWorld;
 import net.fabricmc.api.ClientModInitializer;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
@@ -17,10 +20,12 @@ import net.minecraft.util.ActionResult;
 import net.minecraft.util.hit.BlockHitResult;
 import net.minecraft.util.hit.HitResult;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.util.math.Direction;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.util.shape.VoxelShape;
 import net.minecraft.world.RaycastContext;
+import net.minecraft.world.WorldView;
 import org.lwjgl.glfw.GLFW;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -49,14 +54,47 @@ public class TungstenMod implements ClientModInitializer {
     public static ClickModeEnum clickMode = ClickModeEnum.OFF;
     public static PathExecutor EXECUTOR = new PathExecutor();
     public static Pathfinder PATHFINDER = new Pathfinder();
-    public static VoxelWorld WORLD;
+    public static volatile VoxelWorld WORLD;
+    public static final BlockChangeNotifier BLOCK_CHANGES = new BlockChangeNotifier();
     public static KeyBinding pauseKeyBinding;
     public static KeyBinding runKeyBinding;
     public static KeyBinding runBlockSearchKeyBinding;
     public static KeyBinding createGoalKeyBinding;
     public static boolean renderPositonBoxes = true;
     public static boolean ignoreFallDamage = true;
+    /** Simulate the children of a physics node on the shared pathfinding pool instead of the PathFinder thread */
+    public static boolean parallelExpansion = false;
+    /** Drop the simulated entity of physics nodes off the active branch and rebuild it on demand */
+    public static boolean compactNodes = false;
+    /** Cap the block-space open set and prune its highest-cost frontier instead of letting it grow */
+    public static boolean blockSpaceBeamSearch = false;
+    /** Return a quick high-weight block path first and refine it at lower weights in the background */
+    public static boolean anytimeBlockSearch = false;
+    /** Keep the block-space search graph and repair it with D* Lite when blocks near the route change */
+    public static boolean incrementalBlockReplan = false;
+    /** Search the block graph from both ends at once, the backward half on the pathfinding pool */
+    public static boolean bidirectionalBlockSearch = false;
+    /** Search chunk-level portals first and refine the block path a few chunks at a time */
+    public static boolean hierarchicalBlockSearch = false;
+    /** Run searches on a pinned copy-on-write snapshot of the world instead of the live client world */
+    public static boolean snapshotWorld = false;
+    /** Remember block-space edge validity across searches, invalidated per chunk section on block changes */
+    public static boolean edgeValidityCache = false;
+    /** Record phase timings, search counters and validator rejections for the metrics command */
+    public static boolean searchMetrics = false;
+    /** Search physics nodes best-first with weighted A* instead of the greedy descent with backtracking */
+    public static boolean weightedPhysicsSearch = false;
+    /** Simulate the children of a greedy physics node one at a time, as they are tried, instead of all up front */
+    public static boolean lazyChildren = false;
+    /** Let physics children hold one input for several ticks in open space, expanded back to single ticks for execution */
+    public static boolean macroActions = false;
+    /** Remember the states of compacted nodes that get rebuilt, so rebuilding them again skips the ticks */
+    public static boolean tickMemo = false;
+    /** Advance simulated players through open air in closed form, running the full ticks only for states that get expanded */
+    public static boolean airborneFastPath = false;
     private static CommandExecutor commandExecutor;
+    /** World the block state property table was last built for */
+    private static WorldView propertyTableWorld;
 
     static {
         // MOD_META = FabricLoader.getInstance().getModContainer(MOD_ID).orElseThrow().getMetadata();
@@ -74,6 +112,39 @@ public class TungstenMod implements ClientModInitializer {
         return commandExecutor;
     }
 
+    /**
+     * Returns the block snapshot of the given client world, starting a new one when the client
+     * switched worlds or {@link #snapshotWorld} was turned on, and {@code null} while it is off.
+     * Chunk packets can arrive before the first tick in a new world, so both the tick and the
+     * chunk loader go through here.
+     */
+    public static synchronized VoxelWorld trackWorld(WorldView world) {
+        if (world != propertyTableWorld) {
+            propertyTableWorld = world;
+            TickMemo.clear();
+            if (world != null) BlockStatePropertyTable.build();
+        }
+
+        VoxelWorld current = WORLD;
+        if (world == null || !snapshotWorld) {
+            if (current != null) BLOCK_CHANGES.removeListener(current);
+            WORLD = null;
+            return null;
+        }
+        if (current == null || current.parent != world) {
+            if (current != null) BLOCK_CHANGES.removeListener(current);
+            current = new VoxelWorld(world);
+            BLOCK_CHANGES.addListener(current);
+            // Chunks received before the snapshot started are not copied by the chunk loader
+            if (mc.player != null) {
+                ChunkPos center = mc.player.getChunkPos();
+                current.loadChunks(center.x, center.z, mc.options.getClampedViewDistance() + 3);
+            }
+            WORLD = current;
+        }
+        return current;
+    }
+
     @Override
     public void onInitializeClient() {
         pauseKeyBinding = KeyBindingHelper.registerKeyBinding(new KeyBinding(
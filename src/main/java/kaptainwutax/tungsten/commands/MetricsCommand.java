@@ -0,0 +1,54 @@
+package kaptainwutax.tungsten.commands;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+
+import kaptainwutax.tungsten.Debug;
+import kaptainwutax.tungsten.TungstenMod;
+import kaptainwutax.tungsten.commands.arguments.EnumArgumentType;
+import kaptainwutax.tungsten.commandsystem.Command;
+import kaptainwutax.tungsten.metrics.DumpFormat;
+import kaptainwutax.tungsten.metrics.Metrics;
+import kaptainwutax.tungsten.metrics.MetricsReport;
+import net.minecraft.command.CommandSource;
+
+public class MetricsCommand extends Command {
+
+	public MetricsCommand(TungstenMod mod) {
+		super("metrics", "Shows, dumps or resets the search metrics", mod);
+	}
+
+	@Override
+	public void build(LiteralArgumentBuilder<CommandSource> builder) {
+		
+		builder.executes(context -> {
+			if (!Metrics.isEnabled()) {
+				Debug.logMessage("Metrics are off, turn them on with " + TungstenMod.getCommandPrefix() + "settings searchMetrics true");
+			}
+			MetricsReport.summaryLines().forEach(Debug::logMessage);
+			
+			return SINGLE_SUCCESS;
+		});
+
+		builder.then(literal("reset").executes(context -> {
+			Metrics.reset();
+			Debug.logMessage("Metrics reset.");
+			
+			return SINGLE_SUCCESS;
+		}));
+
+		builder.then(literal("dump").then(argument("format", EnumArgumentType.of(DumpFormat.class)).executes(context -> {
+			try {
+				for (Path file : MetricsReport.dump(context.getArgument("format", DumpFormat.class))) {
+					Debug.logMessage("Wrote " + file.toAbsolutePath());
+				}
+			} catch (IOException e) {
+				Debug.logWarning("Could not write metrics: " + e.getMessage());
+			}
+			
+			return SINGLE_SUCCESS;
+		})));
+	}
+}
@@ -21,5 +21,86 @@ public class SettingsCommand extends Command {
 			
 			return SINGLE_SUCCESS;
 		}));
+
+		builder.then(literal("parallelExpansion").then(argument("enabled", BoolArgumentType.bool()).executes(context -> {
+	        TungstenMod.parallelExpansion = BoolArgumentType.getBool(context, "enabled");
+
+			return SINGLE_SUCCESS;
+		})));
+
+		builder.then(literal("compactNodes").then(argument("enabled", BoolArgumentType.bool()).executes(context -> {
+	        TungstenMod.compactNodes = BoolArgumentType.getBool(context, "enabled");
+
+			return SINGLE_SUCCESS;
+		})));
+
+		builder.then(literal("blockSpaceBeamSearch").then(argument("enabled", BoolArgumentType.bool()).executes(context -> {
+	        TungstenMod.blockSpaceBeamSearch = BoolArgumentType.getBool(context, "enabled");
+
+			return SINGLE_SUCCESS;
+		})));
+
+		builder.then(literal("anytimeBlockSearch").then(argument("enabled", BoolArgumentType.bool()).executes(context -> {
+	        TungstenMod.anytimeBlockSearch = BoolArgumentType.getBool(context, "enabled");
+
+			return SINGLE_SUCCESS;
+		})));
+
+		builder.then(literal("incrementalBlockReplan").then(argument("enabled", BoolArgumentType.bool()).executes(context -> {
+	        TungstenMod.incrementalBlockReplan = BoolArgumentType.getBool(context, "enabled");
+
+			return SINGLE_SUCCESS;
+		})));
+
+		builder.then(literal("bidirectionalBlockSearch").then(argument("enabled", BoolArgumentType.bool()).executes(context -> {
+	        TungstenMod.bidirectionalBlockSearch = BoolArgumentType.getBool(context, "enabled");
+
+			return SINGLE_SUCCESS;
+		})));
+		builder.then(literal("hierarchicalBlockSearch").then(argument("enabled", BoolArgumentType.bool()).executes(context -> {
+	        TungstenMod.hierarchicalBlockSearch = BoolArgumentType.getBool(context, "enabled");
+
+			return SINGLE_SUCCESS;
+		})));
+		builder.then(literal("snapshotWorld").then(argument("enabled", BoolArgumentType.bool()).executes(context -> {
+	        TungstenMod.snapshotWorld = BoolArgumentType.getBool(context, "enabled");
+
+			return SINGLE_SUCCESS;
+		})));
+		builder.then(literal("edgeValidityCache").then(argument("enabled", BoolArgumentType.bool()).executes(context -> {
+	        TungstenMod.edgeValidityCache = BoolArgumentType.getBool(context, "enabled");
+
+			return SINGLE_SUCCESS;
+		})));
+		builder.then(literal("searchMetrics").then(argument("enabled", BoolArgumentType.bool()).executes(context -> {
+	        TungstenMod.searchMetrics = BoolArgumentType.getBool(context, "enabled");
+
+			return SINGLE_SUCCESS;
+		})));
+		builder.then(literal("weightedPhysicsSearch").then(argument("enabled", BoolArgumentType.bool()).executes(context -> {
+	        TungstenMod.weightedPhysicsSearch = BoolArgumentType.getBool(context, "enabled");
+
+			return SINGLE_SUCCESS;
+		})));
+		builder.then(literal("lazyChildren").then(argument("enabled", BoolArgumentType.bool()).executes(context -> {
+	        TungstenMod.lazyChildren = BoolArgumentType.getBool(context, "enabled");
+
+			return SINGLE_SUCCESS;
+		})));
+		builder.then(literal("macroActions").then(argument("enabled", BoolArgumentType.bool()).executes(context -> {
+	        TungstenMod.macroActions = BoolArgumentType.getBool(context, "enabled");
+
+			return SINGLE_SUCCESS;
+		})));
+		builder.then(literal("tickMemo").then(argument("enabled", BoolArgumentType.bool()).executes(context -> {
+	        TungstenMod.tickMemo = BoolArgumentType.getBool(context, "enabled");
+
+			return SINGLE_SUCCESS;
+		})));
+		builder.then(literal("airborneFastPath").then(argument("enabled", BoolArgumentType.bool()).executes(context -> {
+	        TungstenMod.airborneFastPath = BoolArgumentType.getBool(context, "enabled");
+
+			return SINGLE_SUCCESS;
+		})));
 	}
 }
@@ -69,17 +69,25 @@ public class PathfindingExecutor {
      * @return Future representing the task result
      */
     public <T> Future<T> submitTask(Callable<T> task, long timeoutMs) {
-        CompletableFuture<T> future = CompletableFuture.supplyAsync(() -> {
+        // Apply timeout
+        return submitTask(task).orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .exceptionally(ex -> null);
+    }
+
+    /**
+     * Submit a single task without a timeout
+     *
+     * @param task The callable task to execute
+     * @return Future completing once the task has run, exceptionally if it threw
+     */
+    public <T> CompletableFuture<T> submitTask(Callable<T> task) {
+        return CompletableFuture.supplyAsync(() -> {
             try {
                 return task.call();
             } catch (Exception e) {
                 throw new CompletionException(e);
             }
         }, executor);
-
-        // Apply timeout
-        return future.orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
-                .exceptionally(ex -> null);
     }
 
     /**
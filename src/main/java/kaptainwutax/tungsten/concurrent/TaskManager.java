@@ -101,6 +101,41 @@ public class TaskManager {
         activeTasks.removeAll(futures);
     }
 
+    /**
+     * Process a batch in parallel and wait for every task, however long it takes.
+     * Unlike {@link #processNodeFilteringBatch} no task is abandoned, so none keeps running
+     * after this returns. Tasks that have not started when a stop is signalled return
+     * without running.
+     *
+     * @param tasks Tasks to execute
+     * @param results Non-null results, in the order of {@code tasks}
+     * @param stopSignal AtomicBoolean to check for early termination
+     */
+    public <T> void processBatchToCompletion(
+            List<Callable<T>> tasks,
+            List<T> results,
+            AtomicBoolean stopSignal) {
+
+        List<CompletableFuture<T>> futures = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            futures.add(executor.submitTask(() -> cancelled.get() || stopSignal.get() ? null : task.call()));
+        }
+
+        for (CompletableFuture<T> future : futures) {
+            try {
+                T result = future.join();
+                if (result != null) {
+                    results.add(result);
+                }
+            } catch (CompletionException e) {
+                // Task failed, log if needed but continue
+                if (Debug.isDebugEnabled()) {
+                    Debug.logWarning("Task failed: " + e.getCause().getMessage());
+                }
+            }
+        }
+    }
+
     /**
      * Process node update tasks in parallel (for openSet updates)
      * This replaces the second executor in PathFinder.java (lines 715-750)
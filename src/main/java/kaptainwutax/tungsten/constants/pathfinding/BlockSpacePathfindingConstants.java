@@ -1,5 +1,8 @@
 package kaptainwutax.tungsten.constants.pathfinding;
 
+import kaptainwutax.tungsten.constants.physics.GravityConstants;
+import kaptainwutax.tungsten.constants.physics.MovementConstants;
+
 public final class BlockSpacePathfindingConstants {
     private BlockSpacePathfindingConstants() {
     }
@@ -20,6 +23,180 @@ public final class BlockSpacePathfindingConstants {
      */
     public static final double MIN_PATH_LENGTH = 5.0;
 
+    /**
+     * Extent of the moves {@code BlockNodeGenerator} generates, the change radii below are derived from it.
+     */
+    public static final class Generation {
+        private Generation() {}
+
+        /**
+         * Horizontal radius of the candidate rings, the outermost ring at each height is one block further
+         */
+        public static final int RADIUS = 5;
+
+        /**
+         * Highest candidate above the parent without a slime bounce
+         */
+        public static final int MAX_RISE = 2;
+
+        /**
+         * Highest candidate above the parent in a deep expansion
+         */
+        public static final int DEEP_RISE = 4;
+
+        /**
+         * Lowest candidate below the parent in a regular expansion
+         */
+        public static final int SHALLOW_DROP = 4;
+
+        /**
+         * Lowest candidate below the parent in a deep expansion
+         */
+        public static final int DEEP_DROP = 64;
+
+        /**
+         * Blocks outside the candidate box the validators still read, e.g. head room and the block below
+         */
+        public static final int VALIDATION_MARGIN = 2;
+
+        /**
+         * Horizontal distance from a parent to the farthest block a regular expansion reads
+         */
+        public static final int SHALLOW_REACH = RADIUS + 1 + VALIDATION_MARGIN;
+
+        /**
+         * Horizontal distance from a parent to the farthest block a deep expansion reads,
+         * the distance a sprinting player covers while falling {@link #DEEP_DROP} blocks
+         */
+        public static final int DEEP_REACH = (int) Math.ceil(MovementConstants.Speed.SPRINT_VELOCITY
+                * Math.sqrt(2.0 * DEEP_DROP / GravityConstants.Gravity.GRAVITY_ACCELERATION)) + VALIDATION_MARGIN;
+    }
+
+    /**
+     * Memory-bounded beam mode, see {@code TungstenMod.blockSpaceBeamSearch}.
+     */
+    public static final class Beam {
+        private Beam() {}
+
+        /**
+         * Open set size that triggers pruning of the highest-cost frontier
+         */
+        public static final int MAX_OPEN_SET_SIZE = 20_000;
+
+        /**
+         * Open set size kept after pruning, lower than the cap so trims do not run on every insert
+         */
+        public static final int TRIMMED_OPEN_SET_SIZE = 15_000;
+
+        /**
+         * Maximum number of pruned nodes remembered for re-expansion, the worst ones are forgotten beyond this
+         */
+        public static final int MAX_PRUNED_SIZE = 40_000;
+    }
+
+    /**
+     * Anytime Weighted A* mode, see {@code TungstenMod.anytimeBlockSearch}.
+     */
+    public static final class Anytime {
+        private Anytime() {}
+
+        /**
+         * Heuristic weights tried in order, the first pass returns immediately and the rest refine in the background
+         */
+        public static final double[] WEIGHT_SCHEDULE = {5.0, 3.0, 2.0, 1.5, 1.0};
+
+        /**
+         * Time the background refinement passes may spend after the first path was returned, in milliseconds
+         */
+        public static final long REFINEMENT_BUDGET_MS = 1800L;
+    }
+
+    /**
+     * Incremental D* Lite replanning, see {@code TungstenMod.incrementalBlockReplan}.
+     */
+    public static final class Incremental {
+        private Incremental() {}
+
+        /**
+         * Horizontal distance from a changed block within which cached edges are regenerated,
+         * the planner only generates regular expansions
+         */
+        public static final int CHANGE_RADIUS = Generation.SHALLOW_REACH;
+
+        /**
+         * Vertical distance from a changed block within which cached edges are regenerated
+         */
+        public static final int CHANGE_Y_RADIUS = Math.max(Generation.SHALLOW_DROP, Generation.MAX_RISE) + Generation.VALIDATION_MARGIN;
+
+        /**
+         * Maximum number of vertices kept in the search graph before a search gives up
+         */
+        public static final int MAX_VERTICES = 250_000;
+
+        /**
+         * Time a repair may take before the current route is kept as it is, in milliseconds
+         */
+        public static final long REPLAN_TIMEOUT_MS = 500L;
+    }
+
+    public static final class Hierarchical {
+        private Hierarchical() {}
+
+        /**
+         * Number of blocks below the motion blocking surface scanned for portals on a chunk border
+         */
+        public static final int SCAN_DEPTH = 24;
+
+        /**
+         * Largest drop the intra-chunk walk takes when estimating costs between portals
+         */
+        public static final int MAX_DROP = 3;
+
+        /**
+         * Maximum number of portals expanded by the abstract search
+         */
+        public static final int MAX_ABSTRACT_EXPANSIONS = 20_000;
+
+        /**
+         * Number of abstract waypoints the block-space search refines towards at once
+         */
+        public static final int SEGMENTS_PER_REFINEMENT = 2;
+    }
+
+    public static final class EdgeCache {
+        private EdgeCache() {}
+
+        /**
+         * Number of sets in the edge validity cache, a power of two
+         */
+        public static final int SETS = 1 << 14;
+
+        /**
+         * Entries per set, evicted with a clock hand
+         */
+        public static final int WAYS = 8;
+
+        /**
+         * Number of hashed section version counters, a power of two
+         */
+        public static final int VERSION_SLOTS = 1 << 16;
+
+        /**
+         * Horizontal distance from a parent to the farthest block its edges read, deep falls included
+         */
+        public static final int HORIZONTAL_REACH = Generation.DEEP_REACH;
+
+        /**
+         * Distance above a changed block at which parents can still have edges reading it, deep falls included
+         */
+        public static final int ABOVE_REACH = Generation.DEEP_DROP + Generation.VALIDATION_MARGIN;
+
+        /**
+         * Distance below a changed block at which parents can still have edges reading it
+         */
+        public static final int BELOW_REACH = Generation.DEEP_RISE + Generation.VALIDATION_MARGIN;
+    }
+
     public static final class Heuristics {
         private Heuristics() {}
 
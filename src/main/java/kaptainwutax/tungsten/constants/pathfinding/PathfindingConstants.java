@@ -55,8 +55,8 @@ public final class PathfindingConstants {
      * explore more greedily and find "good enough" paths quickly.
      * <p>
      * The pathfinder tracks the best path found at each weight level via {@code bestSoFar},
-     * enabling it to return a usable path on timeout while continuing to search for
-     * better solutions at lower weights.
+     * enabling it to return a usable path on timeout. The weights the search itself runs
+     * with are {@code BlockSpacePathfindingConstants.Anytime.WEIGHT_SCHEDULE}.
      */
     public static final class Coefficients {
         private Coefficients() {}
@@ -92,6 +92,71 @@ public final class PathfindingConstants {
         public static final int MAX_BACKTRACKS = 100_000;
     }
 
+    /**
+     * Weighted A* physics search, the best-first alternative to the greedy search.
+     */
+    public static final class WeightedSearch {
+        private WeightedSearch() {}
+
+        /** Heuristic weight, 1 for plain A*, higher trades path cost for fewer expansions */
+        public static final double HEURISTIC_WEIGHT = 1.5;
+
+        /** Wall clock budget of one search in milliseconds */
+        public static final long TIME_BUDGET_MS = 30_000L;
+
+        /** Maximum number of nodes to expand before declaring failure */
+        public static final int MAX_EXPANSIONS = 50_000;
+    }
+
+    /**
+     * Macro actions, physics children that hold one input for several ticks.
+     */
+    public static final class MacroActions {
+        private MacroActions() {}
+
+        /** Longest walk held as one child, in ticks */
+        public static final int WALK_TICKS = 5;
+
+        /** Longest jump held as one child, enough for a full sprint-jump arc on flat ground */
+        public static final int JUMP_ARC_TICKS = 12;
+
+        /** Inputs are held only while the player is farther than this from the next waypoint, in blocks */
+        public static final double WAYPOINT_CLEARANCE = 3.0;
+    }
+
+    /**
+     * Memo of re-simulated node states.
+     */
+    public static final class TickMemo {
+        private TickMemo() {}
+
+        /** States kept before the least recently hit ones are evicted */
+        public static final int CAPACITY = 4096;
+    }
+
+    /**
+     * Closed-form airborne ticks of simulated players.
+     */
+    public static final class AirborneFastPath {
+        private AirborneFastPath() {}
+
+        /** Blocks around the swept player box that have to be air for a tick to skip the entity */
+        public static final double NEIGHBOURHOOD_MARGIN = 1.0;
+
+        /** Largest difference to the full ticks, in blocks or blocks per tick, before the search falls back to full ticks */
+        public static final double FIDELITY_TOLERANCE = 1.0E-9;
+    }
+
+    /**
+     * Compact node mode, where nodes off the active branch drop their simulated entity.
+     */
+    public static final class CompactNodes {
+        private CompactNodes() {}
+
+        /** Every Nth node along a branch keeps its full entity so rebuilds replay at most this many nodes */
+        public static final int CHECKPOINT_INTERVAL = 32;
+    }
+
     /**
      * Proximity thresholds for advancing the block-path waypoint index.
      * Used in updateNextClosestBlockNodeIDX to determine when the agent is close
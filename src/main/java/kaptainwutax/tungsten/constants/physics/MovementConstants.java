@@ -44,6 +44,16 @@ public final class MovementConstants {
         public static final float STRAFE_SPEED_SPRINT_BONUS = 0.006f;
         /** Flying strafing speed (creative mode) */
         public static final float FLYING_STRAFE_SPEED = 0.025999999f;
+        /** Strafing speed in air while sprinting */
+        public static final float SPRINT_STRAFE_SPEED = 0.025999999f;
+        /** Horizontal velocity multiplier applied every tick in air */
+        public static final float HORIZONTAL_DRAG = 0.91f;
+        /** Vertical velocity multiplier applied every tick in air, after gravity */
+        public static final float VERTICAL_DRAG = 0.98f;
+        /** Squared horizontal speed below which a player's horizontal velocity is zeroed at the start of a tick */
+        public static final double MIN_HORIZONTAL_SPEED_SQUARED = 9.0E-6;
+        /** Vertical speed below which the vertical velocity is zeroed at the start of a tick */
+        public static final double MIN_VERTICAL_SPEED = 0.003;
     }
 
     /**
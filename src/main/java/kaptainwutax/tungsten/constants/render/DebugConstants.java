@@ -102,4 +102,18 @@ public final class DebugConstants {
         /** Maximum log entries before rotation */
         public static final int MAX_LOG_ENTRIES = 10000;
     }
+
+    /**
+     * Search metrics kept for the metrics command.
+     */
+    public static final class Metrics {
+        private Metrics() {}
+
+        /** Latency samples kept per phase, a power of two, older samples are overwritten */
+        public static final int SAMPLE_CAPACITY = 4096;
+        /** Finished gotos kept with their per-phase totals, a power of two */
+        public static final int SEARCH_CAPACITY = 512;
+        /** Directory under the game directory the metrics command dumps into */
+        public static final String DUMP_DIRECTORY = "tungsten/metrics";
+    }
 }
\ No newline at end of file
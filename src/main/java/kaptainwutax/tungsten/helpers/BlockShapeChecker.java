@@ -20,11 +20,18 @@ public class BlockShapeChecker {
      * @return the height of a block at given position.
      */
     public static double getBlockHeight(BlockPos pos) {
-        WorldView world = TungstenMod.mc.world;
-        BlockState state = world.getBlockState(pos);
-        VoxelShape shape = state.getCollisionShape(world, pos);
+        return getBlockHeight(TungstenMod.mc.world, pos);
+    }
 
-        return shape.getMax(Axis.Y);
+    /**
+     * Calculates the height of a block at given position.
+     *
+     * @param world World to read the block from
+     * @param pos Position of the block
+     * @return the height of a block at given position.
+     */
+    public static double getBlockHeight(WorldView world, BlockPos pos) {
+        return getBlockHeight(world, world.getBlockState(pos), pos);
     }
 
     /**
@@ -34,9 +41,18 @@ public class BlockShapeChecker {
      * @return the volume of a block at a given position.
      */
     public static double getShapeVolume(BlockPos pos) {
-        WorldView world = TungstenMod.mc.world;
-        BlockState state = world.getBlockState(pos);
-        return getShapeVolume(state, pos);
+        return getShapeVolume(TungstenMod.mc.world, pos);
+    }
+
+    /**
+     * Calculates the volume in X and Z axis of a block at a given position.
+     *
+     * @param world World to read the block from
+     * @param pos Position of the block
+     * @return the volume of a block at a given position.
+     */
+    public static double getShapeVolume(WorldView world, BlockPos pos) {
+        return getShapeVolume(world, world.getBlockState(pos), pos);
     }
 
     /**
@@ -46,7 +62,19 @@ public class BlockShapeChecker {
      * @return the volume of a block at given position.
      */
     public static double getShapeVolume(BlockState state, BlockPos pos) {
-        WorldView world = TungstenMod.mc.world;
+        return getShapeVolume(TungstenMod.mc.world, state, pos);
+    }
+
+    /**
+     * Calculates the volume in X and Z axis of a block at given position.
+     *
+     * @param world World the block is in, for position dependent shapes
+     * @param pos Position of the block
+     * @return the volume of a block at given position.
+     */
+    public static double getShapeVolume(WorldView world, BlockState state, BlockPos pos) {
+        double cached = BlockStatePropertyTable.getFootprint(state);
+        if (!Double.isNaN(cached)) return cached;
         VoxelShape shape = state.getCollisionShape(world, pos);
 
         return getShapeVolume(shape);
@@ -80,26 +108,57 @@ public class BlockShapeChecker {
     }
 
     public static double getBlockHeight(WorldView world, BlockState state, BlockPos pos) {
+        double cached = BlockStatePropertyTable.getHeight(state);
+        if (!Double.isNaN(cached)) return cached;
         VoxelShape blockShape = state.getCollisionShape(world, pos);
 
         return getBlockHeight(blockShape);
     }
 
+    /**
+     * Gets the collision shape of a block, from the {@link BlockStatePropertyTable} when it does not depend on the position.
+     */
+    public static VoxelShape getCollisionShape(WorldView world, BlockState state, BlockPos pos) {
+        VoxelShape cached = BlockStatePropertyTable.getCollisionShape(state);
+        return cached != null ? cached : state.getCollisionShape(world, pos);
+    }
+
+    /**
+     * Same as {@link BlockState#isFullCube}, read from the {@link BlockStatePropertyTable} when possible.
+     */
+    public static boolean isFullCube(WorldView world, BlockState state, BlockPos pos) {
+        int flags = BlockStatePropertyTable.getFlags(state);
+        if (BlockStatePropertyTable.isBuilt() && (flags & BlockStatePropertyTable.DYNAMIC_SHAPE) == 0) {
+            return (flags & BlockStatePropertyTable.FULL_CUBE) != 0;
+        }
+        return state.isFullCube(world, pos);
+    }
+
     public static boolean hasBiggerCollisionShapeThanAbove(WorldView world, BlockPos pos) {
         // Get the block states of the block at pos and the two blocks above it
         BlockState blockState = world.getBlockState(pos);
         if (blockState.getBlock() instanceof LadderBlock) return false;
 
         // Calculate the volume of the collision shapes
-        double blockVolume = BlockShapeChecker.getShapeVolume(pos);
-        double aboveBlockVolume1 = BlockShapeChecker.getShapeVolume(pos.up(1));
-        double aboveBlockVolume2 = BlockShapeChecker.getShapeVolume(pos.up(2));
+        double blockVolume = BlockShapeChecker.getShapeVolume(world, blockState, pos);
+        double aboveBlockVolume1 = BlockShapeChecker.getShapeVolume(world, pos.up(1));
+        double aboveBlockVolume2 = BlockShapeChecker.getShapeVolume(world, pos.up(2));
 
         // Compare the volumes
         return blockVolume > aboveBlockVolume1 && blockVolume > aboveBlockVolume2;
     }
 
     public static boolean isBlockNormalCube(BlockState state) {
+        if (BlockStatePropertyTable.isBuilt()) {
+            return BlockStatePropertyTable.hasFlag(state, BlockStatePropertyTable.NORMAL_CUBE);
+        }
+        return computeIsBlockNormalCube(state);
+    }
+
+    /**
+     * Uncached {@link #isBlockNormalCube}, used to fill the {@link BlockStatePropertyTable}.
+     */
+    public static boolean computeIsBlockNormalCube(BlockState state) {
         Block block = state.getBlock();
         if (block instanceof ScaffoldingBlock
                 || block instanceof ShulkerBoxBlock
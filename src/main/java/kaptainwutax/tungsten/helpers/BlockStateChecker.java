@@ -20,6 +20,14 @@ import static kaptainwutax.tungsten.path.blockSpaceSearchAssist.Ternary.YES;
 public class BlockStateChecker {
 
     public static Ternary fullyPassableBlockState(BlockState state) {
+        Ternary cached = BlockStatePropertyTable.getPassability(state);
+        return cached != null ? cached : computeFullyPassableBlockState(state);
+    }
+
+    /**
+     * Uncached {@link #fullyPassableBlockState}, used to fill the {@link BlockStatePropertyTable}.
+     */
+    public static Ternary computeFullyPassableBlockState(BlockState state) {
         Block block = state.getBlock();
         if (block instanceof AirBlock) { // early return for most common case
             return YES;
@@ -51,7 +59,17 @@ public class BlockStateChecker {
      * @return true if a block is connected to another of its type. Example: fence to fence
      */
     public static boolean isConnected(BlockPos pos) {
-        WorldView world = TungstenMod.mc.world;
+        return isConnected(TungstenMod.mc.world, pos);
+    }
+
+    /**
+     * Checks if a block is connected to another of its type.
+     *
+     * @param world World to read the block and its neighbours from
+     * @param pos   Position of the block
+     * @return true if a block is connected to another of its type. Example: fence to fence
+     */
+    public static boolean isConnected(WorldView world, BlockPos pos) {
         BlockState state = world.getBlockState(pos);
         Block block = state.getBlock();
 
@@ -174,6 +192,10 @@ public class BlockStateChecker {
 
     // Helper method to check if the block is water. Either flowing or source
     public static boolean isAnyWater(BlockState state) {
+        return BlockStatePropertyTable.hasFlag(state, BlockStatePropertyTable.WATER);
+    }
+
+    public static boolean computeIsAnyWater(BlockState state) {
         return isWater(state) || isFlowingWater(state);
     }
 
@@ -0,0 +1,155 @@
+package kaptainwutax.tungsten.helpers;
+
+import kaptainwutax.tungsten.Debug;
+import kaptainwutax.tungsten.path.blockSpaceSearchAssist.Ternary;
+import net.minecraft.block.*;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.shape.VoxelShape;
+import net.minecraft.world.EmptyBlockView;
+
+/**
+ * Traversal properties of every block state, indexed by raw state id.
+ * <p>
+ * Built once when the client joins a world, after which the shape and category helpers read
+ * from it instead of walking {@code instanceof} chains and collision shapes on every edge.
+ * States whose collision shape depends on the position (offset or dynamic bounds) are marked
+ * {@link #DYNAMIC_SHAPE} and their shape queries still go to the world.
+ */
+public final class BlockStatePropertyTable {
+
+    public static final int SLAB = 1;
+    public static final int STAIRS = 1 << 1;
+    public static final int LEAVES = 1 << 2;
+    public static final int FENCE = 1 << 3;
+    public static final int LADDER = 1 << 4;
+    public static final int WATER = 1 << 5;
+    public static final int LAVA = 1 << 6;
+    public static final int TRAPDOOR = 1 << 7;
+    /** The collision shape is a full cube, same as {@code BlockState.isFullCube} */
+    public static final int FULL_CUBE = 1 << 8;
+    /** {@link BlockShapeChecker#isBlockNormalCube} */
+    public static final int NORMAL_CUBE = 1 << 9;
+    /** The collision shape depends on the position, shape queries are not cached */
+    public static final int DYNAMIC_SHAPE = 1 << 10;
+
+    private static final Ternary[] TERNARIES = Ternary.values();
+
+    private record Table(VoxelShape[] shapes, double[] heights, double[] footprints, int[] flags,
+                         byte[] passable, byte[] walkable) {}
+
+    private static volatile Table table;
+
+    private BlockStatePropertyTable() {}
+
+    /**
+     * Computes the properties of every registered block state. Does nothing if the table already exists,
+     * block state ids do not change while the game runs.
+     */
+    public static synchronized void build() {
+        if (table != null) return;
+        long startTime = System.currentTimeMillis();
+        int size = Block.STATE_IDS.size();
+        Table built = new Table(new VoxelShape[size], new double[size], new double[size], new int[size],
+                new byte[size], new byte[size]);
+
+        for (BlockState state : Block.STATE_IDS) {
+            int id = Block.getRawIdFromState(state);
+            if (id < 0 || id >= size) continue;
+            int flags = computeCategories(state);
+
+            if (state.getBlock().hasDynamicBounds() || state.hasModelOffset()) {
+                flags |= DYNAMIC_SHAPE;
+            } else {
+                VoxelShape shape = state.getCollisionShape(EmptyBlockView.INSTANCE, BlockPos.ORIGIN);
+                built.shapes()[id] = shape;
+                built.heights()[id] = BlockShapeChecker.getBlockHeight(shape);
+                built.footprints()[id] = BlockShapeChecker.getShapeVolume(shape);
+                if (Block.isShapeFullCube(shape)) flags |= FULL_CUBE;
+            }
+            if (BlockShapeChecker.computeIsBlockNormalCube(state)) flags |= NORMAL_CUBE;
+
+            built.flags()[id] = flags;
+            built.passable()[id] = (byte) BlockStateChecker.computeFullyPassableBlockState(state).ordinal();
+            built.walkable()[id] = (byte) MovementHelper.computeCanWalkOnBlockState(state).ordinal();
+        }
+
+        table = built;
+        Debug.logInternal("Built block state property table for " + size + " states in "
+                + (System.currentTimeMillis() - startTime) + "ms");
+    }
+
+    public static boolean isBuilt() {
+        return table != null;
+    }
+
+    /**
+     * @return the category and shape flags of the state. Before the table is built only the category
+     *         bits are computed, the shape bits are left unset.
+     */
+    public static int getFlags(BlockState state) {
+        Table t = table;
+        return t != null ? t.flags()[Block.getRawIdFromState(state)] : computeCategories(state);
+    }
+
+    public static boolean hasFlag(BlockState state, int flag) {
+        return (getFlags(state) & flag) != 0;
+    }
+
+    /**
+     * @return the cached collision shape, or {@code null} if the table is not built or the shape depends on the position
+     */
+    public static VoxelShape getCollisionShape(BlockState state) {
+        Table t = table;
+        return t == null ? null : t.shapes()[Block.getRawIdFromState(state)];
+    }
+
+    /**
+     * @return the collision height, or {@code NaN} if the table is not built or the shape depends on the position
+     */
+    public static double getHeight(BlockState state) {
+        Table t = table;
+        if (t == null) return Double.NaN;
+        int id = Block.getRawIdFromState(state);
+        return (t.flags()[id] & DYNAMIC_SHAPE) != 0 ? Double.NaN : t.heights()[id];
+    }
+
+    /**
+     * @return the XZ footprint of the collision shape, or {@code NaN} if the table is not built or the shape depends on the position
+     */
+    public static double getFootprint(BlockState state) {
+        Table t = table;
+        if (t == null) return Double.NaN;
+        int id = Block.getRawIdFromState(state);
+        return (t.flags()[id] & DYNAMIC_SHAPE) != 0 ? Double.NaN : t.footprints()[id];
+    }
+
+    /**
+     * @return {@link BlockStateChecker#fullyPassableBlockState}, or {@code null} if the table is not built yet
+     */
+    public static Ternary getPassability(BlockState state) {
+        Table t = table;
+        return t == null ? null : TERNARIES[t.passable()[Block.getRawIdFromState(state)]];
+    }
+
+    /**
+     * @return {@link MovementHelper#canWalkOnBlockState}, or {@code null} if the table is not built yet
+     */
+    public static Ternary getWalkability(BlockState state) {
+        Table t = table;
+        return t == null ? null : TERNARIES[t.walkable()[Block.getRawIdFromState(state)]];
+    }
+
+    private static int computeCategories(BlockState state) {
+        Block block = state.getBlock();
+        int flags = 0;
+        if (block instanceof SlabBlock) flags |= SLAB;
+        if (block instanceof StairsBlock) flags |= STAIRS;
+        if (block instanceof LeavesBlock) flags |= LEAVES;
+        if (block instanceof FenceBlock) flags |= FENCE;
+        if (block instanceof LadderBlock) flags |= LADDER;
+        if (BlockStateChecker.computeIsAnyWater(state)) flags |= WATER;
+        if (block == Blocks.LAVA) flags |= LAVA;
+        if (block instanceof TrapdoorBlock) flags |= TRAPDOOR;
+        return flags;
+    }
+}
@@ -19,6 +19,14 @@ import static kaptainwutax.tungsten.path.blockSpaceSearchAssist.Ternary.YES;
 public class MovementHelper {
 
     public static Ternary canWalkOnBlockState(BlockState state) {
+        Ternary cached = BlockStatePropertyTable.getWalkability(state);
+        return cached != null ? cached : computeCanWalkOnBlockState(state);
+    }
+
+    /**
+     * Uncached {@link #canWalkOnBlockState}, used to fill the {@link BlockStatePropertyTable}.
+     */
+    public static Ternary computeCanWalkOnBlockState(BlockState state) {
         Block block = state.getBlock();
         if (BlockShapeChecker.isBlockNormalCube(state) && block != Blocks.MAGMA_BLOCK && block != Blocks.BUBBLE_COLUMN && block != Blocks.HONEY_BLOCK) {
             return YES;
@@ -679,24 +687,24 @@ public class MovementHelper {
         BlockState state = world.getBlockState(pos);
         BlockState aboveState = world.getBlockState(pos.up());
 
-        Block block = state.getBlock();
-        Block aboveBlock = aboveState.getBlock();
+        int flags = BlockStatePropertyTable.getFlags(state);
+        int aboveFlags = BlockStatePropertyTable.getFlags(aboveState);
 
-        boolean isFullCube = state.isFullCube(world, pos);
-        boolean isSlab = block instanceof SlabBlock;
-        boolean isLeaves = block instanceof LeavesBlock;
-        boolean isStairs = block instanceof StairsBlock;
-        boolean isLava = block == Blocks.LAVA;
+        boolean isFullCube = BlockShapeChecker.isFullCube(world, state, pos);
+        boolean isSlab = (flags & BlockStatePropertyTable.SLAB) != 0;
+        boolean isLeaves = (flags & BlockStatePropertyTable.LEAVES) != 0;
+        boolean isStairs = (flags & BlockStatePropertyTable.STAIRS) != 0;
+        boolean isLava = (flags & BlockStatePropertyTable.LAVA) != 0;
 
-        boolean isBlockConnected = BlockStateChecker.isConnected(pos);
+        boolean isBlockConnected = BlockStateChecker.isConnected(world, pos);
 
-        boolean isAboveFullCube = aboveState.isFullCube(world, pos.up());
-        boolean isAboveSlab = aboveBlock instanceof SlabBlock;
-        boolean isAboveLeaves = aboveBlock instanceof LeavesBlock;
-        boolean isAboveStairs = aboveBlock instanceof StairsBlock;
-        boolean isAboveBlockConnected = BlockStateChecker.isConnected(pos.up());
+        boolean isAboveFullCube = BlockShapeChecker.isFullCube(world, aboveState, pos.up());
+        boolean isAboveSlab = (aboveFlags & BlockStatePropertyTable.SLAB) != 0;
+        boolean isAboveLeaves = (aboveFlags & BlockStatePropertyTable.LEAVES) != 0;
+        boolean isAboveStairs = (aboveFlags & BlockStatePropertyTable.STAIRS) != 0;
+        boolean isAboveBlockConnected = BlockStateChecker.isConnected(world, pos.up());
 
-        boolean isAboveX2Leaves = world.getBlockState(pos.up(2)).getBlock() instanceof LeavesBlock;
+        boolean isAboveX2Leaves = BlockStatePropertyTable.hasFlag(world.getBlockState(pos.up(2)), BlockStatePropertyTable.LEAVES);
 
         if (isJumpingUp && !world.getBlockState(pos.up(2)).isAir()) return true;
 
@@ -18,7 +18,17 @@ public class BlockPosShifter {
      * @return node's position shifted closer to the ladder.
      */
 	public static Vec3d getPosOnLadder(BlockNode blockNode) {
-		WorldView world = TungstenMod.mc.world;
+		return getPosOnLadder(TungstenMod.mc.world, blockNode);
+	}
+
+	/**
+     * Returns the position shifted closer to the ladder.
+     * 
+     * @param world world to read the ladder from
+     * @param blockNode node to be shifted
+     * @return node's position shifted closer to the ladder.
+     */
+	public static Vec3d getPosOnLadder(WorldView world, BlockNode blockNode) {
 		BlockState blockState = world.getBlockState(blockNode.getBlockPos());
 		BlockState blockBelowState = world.getBlockState(blockNode.getBlockPos().down());
 		Vec3d currPos = blockNode.getPos().add(0.5, 0, 0.5);
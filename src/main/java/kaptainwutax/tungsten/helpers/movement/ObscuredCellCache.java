@@ -0,0 +1,50 @@
+package kaptainwutax.tungsten.helpers.movement;
+
+import it.unimi.dsi.fastutil.longs.Long2ByteOpenHashMap;
+import kaptainwutax.tungsten.helpers.MovementHelper;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.WorldView;
+
+/**
+ * Memoizes {@link MovementHelper#isObscured} for the cells walked by straight line checks.
+ * <p>
+ * Every cell packs the results of all four jump modes into one byte: the low nibble marks which
+ * modes were computed, the high nibble holds their results. Only valid while the world it was
+ * filled from does not change, so it is meant to live for one search over a pinned world or
+ * one pass of path post-processing.
+ * <p>
+ * Not thread safe.
+ */
+public class ObscuredCellCache {
+
+    private final Long2ByteOpenHashMap cells = new Long2ByteOpenHashMap();
+    private WorldView world;
+
+    /**
+     * @return whether the cell blocks a straight walk, computing it on first access
+     */
+    public boolean isObscured(WorldView world, BlockPos pos, boolean isJumpingUp, boolean isJumpingOneBlock) {
+        if (world != this.world) {
+            this.cells.clear();
+            this.world = world;
+        }
+
+        int known = 1 << ((isJumpingUp ? 2 : 0) | (isJumpingOneBlock ? 1 : 0));
+        long key = pos.asLong();
+        byte packed = this.cells.get(key);
+        if ((packed & known) != 0) return (packed & known << 4) != 0;
+
+        boolean obscured = MovementHelper.isObscured(world, pos, isJumpingUp, isJumpingOneBlock);
+        this.cells.put(key, (byte) (packed | known | (obscured ? known << 4 : 0)));
+        return obscured;
+    }
+
+    public void clear() {
+        this.cells.clear();
+        this.world = null;
+    }
+
+    public int size() {
+        return this.cells.size();
+    }
+}
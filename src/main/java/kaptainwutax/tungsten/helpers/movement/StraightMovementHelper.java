@@ -11,6 +11,14 @@ import net.minecraft.world.WorldView;
 public class StraightMovementHelper {
 
     public static boolean isPossible(WorldView world, BlockPos startPos, BlockPos endPos) {
+        return isPossible(world, startPos, endPos, null);
+    }
+
+    /**
+     * @param cells cache for the obscured checks along the line, shared between calls over the same world.
+     *              May be {@code null}
+     */
+    public static boolean isPossible(WorldView world, BlockPos startPos, BlockPos endPos, ObscuredCellCache cells) {
 
         boolean isJumpingUp = endPos.getY() - startPos.getY() == 1;
 
@@ -18,12 +26,12 @@ public class StraightMovementHelper {
         int dz = startPos.getZ() - endPos.getZ();
         double distance = Math.sqrt(dx * dx + dz * dz);
         boolean isJumpingOneBlock = distance == 1;
-        PathNavigator navigator = new PathNavigator(world, isJumpingUp, isJumpingOneBlock);
+        PathNavigator navigator = new PathNavigator(world, cells, isJumpingUp, isJumpingOneBlock);
 
         return navigator.traversePath(startPos, endPos);
     }
 
-    private record PathNavigator(WorldView world, boolean isJumpingUp, boolean isJumpingOneBlock) {
+    private record PathNavigator(WorldView world, ObscuredCellCache cells, boolean isJumpingUp, boolean isJumpingOneBlock) {
 
         public boolean traversePath(BlockPos startPos, BlockPos endPos) {
             int x = startPos.getX();
@@ -86,6 +94,7 @@ public class StraightMovementHelper {
         }
 
         private boolean processStep(BlockPos.Mutable position) {
+            if (cells != null) return !cells.isObscured(world, position, isJumpingUp, isJumpingOneBlock);
             return !MovementHelper.isObscured(world, position, isJumpingUp, isJumpingOneBlock);
         }
 
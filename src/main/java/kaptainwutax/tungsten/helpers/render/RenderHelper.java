@@ -46,9 +46,9 @@ public class RenderHelper {
 		if (TungstenMod.EXECUTOR == null || TungstenMod.EXECUTOR.getPath() == null || !TungstenMod.EXECUTOR.isRunning()) return;
 		Node n = TungstenMod.EXECUTOR.getPath().getLast();
 		while (n.parent != null) {
-			TungstenMod.RUNNING_PATH_RENDERER.add(new Line(n.agent.getPos(), n.parent.agent.getPos(), n.color));
+			TungstenMod.RUNNING_PATH_RENDERER.add(new Line(n.getPos(), n.parent.getPos(), n.color));
 			if (TungstenMod.renderPositonBoxes) {				
-				TungstenMod.RUNNING_PATH_RENDERER.add(new Cuboid(n.agent.getPos().subtract(0.05D, 0.05D, 0.05D), new Vec3d(0.1D, 0.1D, 0.1D), n.color));
+				TungstenMod.RUNNING_PATH_RENDERER.add(new Cuboid(n.getPos().subtract(0.05D, 0.05D, 0.05D), new Vec3d(0.1D, 0.1D, 0.1D), n.color));
 			}
 			n = n.parent;
 		}
@@ -65,14 +65,16 @@ public class RenderHelper {
 	
 	public static void renderPathSoFar(Node n) {
 		TungstenMod.RENDERERS.clear();
-		TungstenMod.RENDERERS.add(new Cuboid(n.agent.getPos().subtract(0.05D, 0.05D, 0.05D), new Vec3d(0.1D, 0.1D, 0.1D), Color.RED));
+		TungstenMod.RENDERERS.add(new Cuboid(n.getPos().subtract(0.05D, 0.05D, 0.05D), new Vec3d(0.1D, 0.1D, 0.1D), Color.RED));
 		while(n.parent != null) {
-			TungstenMod.RENDERERS.add(new Line(n.agent.getPos(), n.parent.agent.getPos(), n.color));
+			TungstenMod.RENDERERS.add(new Line(n.getPos(), n.parent.getPos(), n.color));
 			n = n.parent;
 		}
 	}
 
 	public static void renderExploredNode(BlockNode n) {
+		// Headless runs like the benchmarks have no client to render for
+		if (TungstenMod.mc == null) return;
 		TungstenMod.RENDERERS.add(new Cuboid(n.getPos(true).subtract(0.1, 0, 0.1), new Vec3d(0.2D, 0.2D, 0.2D), Color.RED));
 		if(n.previous != null) {
 			TungstenMod.RENDERERS.add(new Line(new Vec3d(n.previous.x + 0.5, n.previous.y + 0.1, n.previous.z + 0.5), new Vec3d(n.x + 0.5, n.y + 0.1, n.z + 0.5), Color.WHITE));
@@ -80,24 +82,24 @@ public class RenderHelper {
 	}
 
 	public static void renderExploredNode(Node n) {
-		TungstenMod.RENDERERS.add(new Cuboid(n.agent.getPos().subtract(0.05D, 0.05D, 0.05D), new Vec3d(0.1D, 0.1D, 0.1D), Color.RED));
+		TungstenMod.RENDERERS.add(new Cuboid(n.getPos().subtract(0.05D, 0.05D, 0.05D), new Vec3d(0.1D, 0.1D, 0.1D), Color.RED));
 		if(n.parent != null) {
-			TungstenMod.RENDERERS.add(new Line(n.agent.getPos(), n.parent.agent.getPos(), n.color));
+			TungstenMod.RENDERERS.add(new Line(n.getPos(), n.parent.getPos(), n.color));
 		}
 	}
 	
 	public static void renderNode(Node n) {
-		TungstenMod.RENDERERS.add(new Cuboid(n.agent.getPos().subtract(0.05D, 0.05D, 0.05D), new Vec3d(0.1D, 0.1D, 0.1D), n.color));
+		TungstenMod.RENDERERS.add(new Cuboid(n.getPos().subtract(0.05D, 0.05D, 0.05D), new Vec3d(0.1D, 0.1D, 0.1D), n.color));
 	}
 	
 	public static void renderNode(Node n, Collection<Renderer> renderer) {
-		renderer.add(new Cuboid(n.agent.getPos().subtract(0.05D, 0.05D, 0.05D), new Vec3d(0.1D, 0.1D, 0.1D), n.color));
+		renderer.add(new Cuboid(n.getPos().subtract(0.05D, 0.05D, 0.05D), new Vec3d(0.1D, 0.1D, 0.1D), n.color));
 	}
 	
 	public static void renderNodeConnection(Node child, Node parent) {
-	    TungstenMod.RUNNING_PATH_RENDERER.add(new Line(child.agent.getPos(), parent.agent.getPos(), child.color));
+	    TungstenMod.RUNNING_PATH_RENDERER.add(new Line(child.getPos(), parent.getPos(), child.color));
 	    if (TungstenMod.renderPositonBoxes) {
-	    	TungstenMod.RUNNING_PATH_RENDERER.add(new Cuboid(child.agent.getPos().subtract(0.05D, 0.05D, 0.05D), new Vec3d(0.1D, 0.1D, 0.1D), child.color));
+	    	TungstenMod.RUNNING_PATH_RENDERER.add(new Cuboid(child.getPos().subtract(0.05D, 0.05D, 0.05D), new Vec3d(0.1D, 0.1D, 0.1D), child.color));
 	    }
 	}
 	
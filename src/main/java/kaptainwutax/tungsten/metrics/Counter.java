@@ -0,0 +1,48 @@
+package kaptainwutax.tungsten.metrics;
+
+/**
+ * Event counts of the searches. Validator rejections are counted per validator, outside of this enum.
+ */
+public enum Counter {
+    /** Physics nodes the greedy search moved to */
+    EXPANSIONS("expansions"),
+    /** Block nodes taken off the block-space open set */
+    BLOCK_EXPANSIONS("blockExpansions"),
+    /** Movement ticks run on simulated players */
+    SIMULATED_TICKS("simulatedTicks"),
+    /** Re-simulated node states answered by the tick memo instead of being run */
+    MEMO_HITS("memoHits"),
+    /** Re-simulated node states the tick memo did not know yet */
+    MEMO_MISSES("memoMisses"),
+    /** Airborne ticks advanced in closed form instead of on the simulated entity */
+    FAST_PATH_TICKS("fastPathTicks"),
+    /** Closed-form airborne ticks that did not match the full ticks once replayed */
+    FAST_PATH_MISMATCHES("fastPathMismatches"),
+    /** Physics children dropped for landing in an already seen state */
+    DEDUP_HITS("dedupHits"),
+    /** Physics children skipped for landing in a state blacklisted by backtracking */
+    BLACKLIST_HITS("blacklistHits"),
+    /** Times the physics search went back to an earlier decision point */
+    BACKTRACKS("backtracks"),
+    /** Lookups in the closed sets, best-cost maps and blacklists of finished searches */
+    TABLE_LOOKUPS("tableLookups"),
+    /** Slots those lookups inspected, one per lookup that hit its home bucket */
+    TABLE_PROBES("tableProbes"),
+    /** Block-space edges answered by the edge validity cache */
+    EDGE_CACHE_HITS("edgeCacheHits"),
+    /** Block-space edges the edge validity cache did not know */
+    EDGE_CACHE_MISSES("edgeCacheMisses");
+
+    private final String key;
+
+    Counter(String key) {
+        this.key = key;
+    }
+
+    /**
+     * @return the name used in dumps and in chat
+     */
+    public String getKey() {
+        return key;
+    }
+}
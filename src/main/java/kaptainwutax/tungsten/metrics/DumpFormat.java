@@ -0,0 +1,9 @@
+package kaptainwutax.tungsten.metrics;
+
+/**
+ * File formats of {@link MetricsReport#dump}.
+ */
+public enum DumpFormat {
+    JSON,
+    CSV
+}
@@ -0,0 +1,34 @@
+package kaptainwutax.tungsten.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Distribution of the latency samples of one phase, in nanoseconds.
+ *
+ * @param count number of samples the summary was computed from
+ */
+public record LatencySummary(int count, long mean, long p50, long p90, long p99, long max) {
+
+    public static final LatencySummary EMPTY = new LatencySummary(0, 0, 0, 0, 0, 0);
+
+    public static LatencySummary of(long[] samples) {
+        if (samples.length == 0) return EMPTY;
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        long total = 0;
+        for (long sample : sorted) total += sample;
+        return new LatencySummary(sorted.length, total / sorted.length,
+                percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99), sorted[sorted.length - 1]);
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        int rank = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(rank, sorted.length - 1))];
+    }
+
+    @Override
+    public String toString() {
+        return String.format("n=%d, mean=%.2fms, p50=%.2fms, p90=%.2fms, p99=%.2fms, max=%.2fms",
+                count, mean / 1e6, p50 / 1e6, p90 / 1e6, p99 / 1e6, max / 1e6);
+    }
+}
@@ -0,0 +1,198 @@
+package kaptainwutax.tungsten.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import kaptainwutax.tungsten.TungstenMod;
+import kaptainwutax.tungsten.constants.render.DebugConstants;
+import kaptainwutax.tungsten.path.blockSpaceSearchAssist.validation.NodeValidator;
+import kaptainwutax.tungsten.path.common.ProbeStats;
+
+/**
+ * Phase timers, counters and per-goto records of the searches, collected while
+ * {@link TungstenMod#searchMetrics} is on.
+ * <p>
+ * Recording is safe from any thread and never blocks: totals are {@link LongAdder}s and latency
+ * samples go into one {@link SampleRing} per phase. The per-goto records are deltas of the totals
+ * between {@link #beginSearch} and {@link #endSearch}, so they also pick up work other threads did
+ * for that goto, like parallel expansion.
+ */
+public final class Metrics {
+
+    private static final LongAdder[] PHASE_NANOS = adders(Phase.values().length);
+    private static final SampleRing[] PHASE_SAMPLES = new SampleRing[Phase.values().length];
+    private static final LongAdder[] COUNTERS = adders(Counter.values().length);
+    private static final Map<String, LongAdder> REJECTIONS = new ConcurrentHashMap<>();
+    private static final LongAdder TOTAL_REJECTIONS = new LongAdder();
+
+    private static final AtomicReferenceArray<SearchRecord> SEARCHES =
+            new AtomicReferenceArray<>(DebugConstants.Metrics.SEARCH_CAPACITY);
+    private static final AtomicLong SEARCHES_WRITTEN = new AtomicLong();
+
+    // Totals when the current goto started, guarded by the class lock
+    private static long searchStartNanos;
+    private static long searchStartedAt;
+    private static long[] searchPhaseBase;
+    private static long[] searchCounterBase;
+    private static long searchRejectionBase;
+
+    static {
+        for (int i = 0; i < PHASE_SAMPLES.length; i++) {
+            PHASE_SAMPLES[i] = new SampleRing(DebugConstants.Metrics.SAMPLE_CAPACITY);
+        }
+    }
+
+    private Metrics() {}
+
+    public static boolean isEnabled() {
+        return TungstenMod.searchMetrics;
+    }
+
+    /**
+     * Starts timing a phase.
+     *
+     * @return the value to pass to {@link #stop}, 0 when metrics are off
+     */
+    public static long start() {
+        return isEnabled() ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Records one sample of {@code phase} that started at {@code start}.
+     */
+    public static void stop(Phase phase, long start) {
+        if (start == 0L) return;
+        long elapsed = System.nanoTime() - start;
+        PHASE_NANOS[phase.ordinal()].add(elapsed);
+        PHASE_SAMPLES[phase.ordinal()].record(elapsed);
+    }
+
+    public static void count(Counter counter) {
+        if (isEnabled()) COUNTERS[counter.ordinal()].increment();
+    }
+
+    public static void count(Counter counter, long amount) {
+        if (isEnabled()) COUNTERS[counter.ordinal()].add(amount);
+    }
+
+    /**
+     * Adds the lookups and probes {@code stats} recorded to {@link Counter#TABLE_LOOKUPS} and {@link Counter#TABLE_PROBES}.
+     */
+    public static void countProbes(ProbeStats stats) {
+        if (!isEnabled()) return;
+        COUNTERS[Counter.TABLE_LOOKUPS.ordinal()].add(stats.getLookups());
+        COUNTERS[Counter.TABLE_PROBES.ordinal()].add(stats.getProbes());
+    }
+
+    /**
+     * Counts a move that {@code validator} turned down.
+     */
+    public static void rejected(NodeValidator validator) {
+        if (!isEnabled()) return;
+        REJECTIONS.computeIfAbsent(validator.getName(), name -> new LongAdder()).increment();
+        TOTAL_REJECTIONS.increment();
+    }
+
+    /**
+     * Marks the start of a goto, the totals recorded from now on make up its {@link SearchRecord}.
+     */
+    public static synchronized void beginSearch() {
+        searchStartNanos = System.nanoTime();
+        searchStartedAt = System.currentTimeMillis();
+        searchPhaseBase = sums(PHASE_NANOS);
+        searchCounterBase = sums(COUNTERS);
+        searchRejectionBase = TOTAL_REJECTIONS.sum();
+    }
+
+    /**
+     * Closes the goto opened by {@link #beginSearch} and keeps its record. Does nothing when
+     * metrics are off or no goto is open.
+     */
+    public static synchronized void endSearch(SearchOutcome outcome) {
+        if (searchPhaseBase == null) return;
+        long[] phaseNanos = sums(PHASE_NANOS);
+        long[] counters = sums(COUNTERS);
+        for (int i = 0; i < phaseNanos.length; i++) phaseNanos[i] -= searchPhaseBase[i];
+        for (int i = 0; i < counters.length; i++) counters[i] -= searchCounterBase[i];
+        SearchRecord record = new SearchRecord(searchStartedAt, System.nanoTime() - searchStartNanos, outcome,
+                phaseNanos, counters, TOTAL_REJECTIONS.sum() - searchRejectionBase);
+        searchPhaseBase = null;
+        searchCounterBase = null;
+
+        if (!isEnabled()) return;
+        long index = SEARCHES_WRITTEN.getAndIncrement();
+        SEARCHES.set((int) index & (SEARCHES.length() - 1), record);
+    }
+
+    /**
+     * @return the latency samples of {@code phase} still in its ring, oldest first
+     */
+    public static long[] getSamples(Phase phase) {
+        return PHASE_SAMPLES[phase.ordinal()].snapshot();
+    }
+
+    public static LatencySummary summarize(Phase phase) {
+        return LatencySummary.of(getSamples(phase));
+    }
+
+    public static long getTotalNanos(Phase phase) {
+        return PHASE_NANOS[phase.ordinal()].sum();
+    }
+
+    public static long get(Counter counter) {
+        return COUNTERS[counter.ordinal()].sum();
+    }
+
+    /**
+     * @return rejections per validator name, sorted by name
+     */
+    public static Map<String, Long> getRejections() {
+        Map<String, Long> rejections = new TreeMap<>();
+        REJECTIONS.forEach((name, count) -> rejections.put(name, count.sum()));
+        return rejections;
+    }
+
+    /**
+     * @return the kept goto records, oldest first
+     */
+    public static List<SearchRecord> getSearches() {
+        long end = SEARCHES_WRITTEN.get();
+        int size = (int) Math.min(end, SEARCHES.length());
+        List<SearchRecord> searches = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            SearchRecord record = SEARCHES.get((int) (end - size + i) & (SEARCHES.length() - 1));
+            if (record != null) searches.add(record);
+        }
+        return searches;
+    }
+
+    public static synchronized void reset() {
+        for (LongAdder adder : PHASE_NANOS) adder.reset();
+        for (SampleRing ring : PHASE_SAMPLES) ring.clear();
+        for (LongAdder adder : COUNTERS) adder.reset();
+        REJECTIONS.clear();
+        TOTAL_REJECTIONS.reset();
+        for (int i = 0; i < SEARCHES.length(); i++) SEARCHES.set(i, null);
+        SEARCHES_WRITTEN.set(0);
+        searchPhaseBase = null;
+        searchCounterBase = null;
+    }
+
+    private static LongAdder[] adders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) adders[i] = new LongAdder();
+        return adders;
+    }
+
+    private static long[] sums(LongAdder[] adders) {
+        long[] sums = new long[adders.length];
+        for (int i = 0; i < adders.length; i++) sums[i] = adders[i].sum();
+        return sums;
+    }
+}
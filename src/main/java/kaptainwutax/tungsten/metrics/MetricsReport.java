@@ -0,0 +1,168 @@
+package kaptainwutax.tungsten.metrics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import kaptainwutax.tungsten.constants.render.DebugConstants;
+import net.fabricmc.loader.api.FabricLoader;
+
+/**
+ * Renders the collected {@link Metrics} as chat lines, JSON or CSV.
+ */
+public final class MetricsReport {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private MetricsReport() {}
+
+    /**
+     * @return one line per phase, counter and validator, for chat
+     */
+    public static List<String> summaryLines() {
+        List<String> lines = new ArrayList<>();
+        lines.add("Gotos recorded: " + Metrics.getSearches().size());
+        for (Phase phase : Phase.values()) {
+            lines.add(phase.getKey() + ": " + Metrics.summarize(phase));
+        }
+        StringBuilder counters = new StringBuilder();
+        for (Counter counter : Counter.values()) {
+            if (!counters.isEmpty()) counters.append(", ");
+            counters.append(counter.getKey()).append('=').append(Metrics.get(counter));
+        }
+        lines.add(counters.toString());
+        addHitRate(lines, "Tick memo", Counter.MEMO_HITS, Counter.MEMO_MISSES);
+        addHitRate(lines, "Edge cache", Counter.EDGE_CACHE_HITS, Counter.EDGE_CACHE_MISSES);
+        long tableLookups = Metrics.get(Counter.TABLE_LOOKUPS);
+        if (tableLookups > 0) {
+            lines.add(String.format("Average table probe: %.2f over %d lookups", (double) Metrics.get(Counter.TABLE_PROBES) / tableLookups, tableLookups));
+        }
+        Map<String, Long> rejections = Metrics.getRejections();
+        if (!rejections.isEmpty()) {
+            lines.add("Rejected by " + rejections);
+        }
+        return lines;
+    }
+
+    private static void addHitRate(List<String> lines, String name, Counter hits, Counter misses) {
+        long lookups = Metrics.get(hits) + Metrics.get(misses);
+        if (lookups > 0) {
+            lines.add(String.format("%s hit rate: %.1f%% of %d", name, 100.0 * Metrics.get(hits) / lookups, lookups));
+        }
+    }
+
+    public static String toJson() {
+        JsonObject root = new JsonObject();
+
+        JsonObject phases = new JsonObject();
+        for (Phase phase : Phase.values()) {
+            long[] samples = Metrics.getSamples(phase);
+            LatencySummary summary = LatencySummary.of(samples);
+            JsonObject entry = new JsonObject();
+            entry.addProperty("totalNanos", Metrics.getTotalNanos(phase));
+            entry.addProperty("count", summary.count());
+            entry.addProperty("meanNanos", summary.mean());
+            entry.addProperty("p50Nanos", summary.p50());
+            entry.addProperty("p90Nanos", summary.p90());
+            entry.addProperty("p99Nanos", summary.p99());
+            entry.addProperty("maxNanos", summary.max());
+            JsonArray values = new JsonArray(samples.length);
+            for (long sample : samples) values.add(sample);
+            entry.add("samplesNanos", values);
+            phases.add(phase.getKey(), entry);
+        }
+        root.add("phases", phases);
+
+        JsonObject counters = new JsonObject();
+        for (Counter counter : Counter.values()) {
+            counters.addProperty(counter.getKey(), Metrics.get(counter));
+        }
+        root.add("counters", counters);
+
+        JsonObject rejections = new JsonObject();
+        Metrics.getRejections().forEach(rejections::addProperty);
+        root.add("validatorRejections", rejections);
+
+        JsonArray searches = new JsonArray();
+        for (SearchRecord record : Metrics.getSearches()) {
+            JsonObject entry = new JsonObject();
+            entry.addProperty("startedAt", record.startedAt());
+            entry.addProperty("durationNanos", record.durationNanos());
+            entry.addProperty("outcome", record.outcome().name());
+            for (Phase phase : Phase.values()) {
+                entry.addProperty(phase.getKey() + "Nanos", record.getPhaseNanos(phase));
+            }
+            for (Counter counter : Counter.values()) {
+                entry.addProperty(counter.getKey(), record.getCounter(counter));
+            }
+            entry.addProperty("rejections", record.rejections());
+            searches.add(entry);
+        }
+        root.add("searches", searches);
+
+        return new GsonBuilder().setPrettyPrinting().create().toJson(root);
+    }
+
+    /**
+     * @return one row per recorded goto
+     */
+    public static String searchesCsv() {
+        StringBuilder csv = new StringBuilder("startedAt,durationNanos,outcome");
+        for (Phase phase : Phase.values()) csv.append(',').append(phase.getKey()).append("Nanos");
+        for (Counter counter : Counter.values()) csv.append(',').append(counter.getKey());
+        csv.append(",rejections\n");
+
+        for (SearchRecord record : Metrics.getSearches()) {
+            csv.append(record.startedAt()).append(',').append(record.durationNanos()).append(',').append(record.outcome().name());
+            for (Phase phase : Phase.values()) csv.append(',').append(record.getPhaseNanos(phase));
+            for (Counter counter : Counter.values()) csv.append(',').append(record.getCounter(counter));
+            csv.append(',').append(record.rejections()).append('\n');
+        }
+        return csv.toString();
+    }
+
+    /**
+     * @return one row per latency sample still kept, as {@code phase,nanos}
+     */
+    public static String samplesCsv() {
+        StringBuilder csv = new StringBuilder("phase,nanos\n");
+        for (Phase phase : Phase.values()) {
+            for (long sample : Metrics.getSamples(phase)) {
+                csv.append(phase.getKey()).append(',').append(sample).append('\n');
+            }
+        }
+        return csv.toString();
+    }
+
+    /**
+     * Writes the metrics to {@link DebugConstants.Metrics#DUMP_DIRECTORY} under the game directory.
+     * CSV dumps are split into a file of gotos and a file of latency samples.
+     *
+     * @return the files written
+     */
+    public static List<Path> dump(DumpFormat format) throws IOException {
+        Path directory = FabricLoader.getInstance().getGameDir().resolve(DebugConstants.Metrics.DUMP_DIRECTORY);
+        Files.createDirectories(directory);
+        String name = "metrics-" + LocalDateTime.now().format(FILE_TIMESTAMP);
+
+        List<Path> written = new ArrayList<>();
+        switch (format) {
+            case JSON -> written.add(Files.writeString(directory.resolve(name + ".json"), toJson(), StandardCharsets.UTF_8));
+            case CSV -> {
+                written.add(Files.writeString(directory.resolve(name + "-searches.csv"), searchesCsv(), StandardCharsets.UTF_8));
+                written.add(Files.writeString(directory.resolve(name + "-samples.csv"), samplesCsv(), StandardCharsets.UTF_8));
+            }
+        }
+        return written;
+    }
+}
@@ -0,0 +1,30 @@
+package kaptainwutax.tungsten.metrics;
+
+/**
+ * Timed phases of a goto. Every timed call leaves one latency sample.
+ */
+public enum Phase {
+    /** Block-space search for the waypoints, in whichever mode is enabled */
+    BLOCK_SEARCH("blockSearch"),
+    /** Straight-line simplification of a found block path */
+    SIMPLIFY("simplify"),
+    /** Physics search over simulated players, from the block path to the executed path */
+    PHYSICS_SEARCH("physicsSearch"),
+    /** Check whether a physics node moves the search on to the next waypoint */
+    WAYPOINT_ADVANCE("waypointAdvance"),
+    /** One frame of the debug renderers */
+    RENDER("render");
+
+    private final String key;
+
+    Phase(String key) {
+        this.key = key;
+    }
+
+    /**
+     * @return the name used in dumps and in chat
+     */
+    public String getKey() {
+        return key;
+    }
+}
@@ -0,0 +1,62 @@
+package kaptainwutax.tungsten.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed size ring of {@code long} samples that any number of threads can record into without locking.
+ * <p>
+ * Writers claim a slot with one atomic increment and overwrite the oldest sample once the ring is full.
+ * A snapshot taken while writers are running can miss the samples being written at that moment, which
+ * is fine for latency distributions.
+ */
+public class SampleRing {
+
+    private final AtomicLongArray samples;
+    private final AtomicLong written = new AtomicLong();
+    private final int mask;
+
+    /**
+     * @param capacity number of samples kept, a power of two
+     */
+    public SampleRing(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.samples = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+    }
+
+    public void record(long sample) {
+        long index = written.getAndIncrement();
+        samples.set((int) index & mask, sample);
+    }
+
+    /**
+     * @return the samples still in the ring, oldest first
+     */
+    public long[] snapshot() {
+        long end = written.get();
+        int size = (int) Math.min(end, samples.length());
+        long[] copy = new long[size];
+        for (int i = 0; i < size; i++) {
+            copy[i] = samples.get((int) (end - size + i) & mask);
+        }
+        return copy;
+    }
+
+    /**
+     * @return number of samples recorded since the last clear, including overwritten ones
+     */
+    public long getCount() {
+        return written.get();
+    }
+
+    public int getCapacity() {
+        return samples.length();
+    }
+
+    public void clear() {
+        written.set(0);
+    }
+}
@@ -0,0 +1,21 @@
+package kaptainwutax.tungsten.metrics;
+
+/**
+ * How a goto ended.
+ */
+public enum SearchOutcome {
+    /** The player already stood at the target */
+    AT_TARGET,
+    /** The block-space search found no waypoints */
+    NO_BLOCK_PATH,
+    /** A path reached the target and was handed to the executor */
+    FOUND,
+    /** Stopped by the user */
+    STOPPED,
+    /** Every branch was blacklisted */
+    EXHAUSTED,
+    /** Ran into the node or backtrack limit */
+    LIMIT_REACHED,
+    /** Threw an exception */
+    FAILED
+}
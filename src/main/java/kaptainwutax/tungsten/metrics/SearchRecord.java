@@ -0,0 +1,23 @@
+package kaptainwutax.tungsten.metrics;
+
+/**
+ * Totals of one goto, from the moment the physics search started until it ended.
+ *
+ * @param startedAt   wall clock start in epoch milliseconds
+ * @param durationNanos time from start to end
+ * @param phaseNanos  time spent in each {@link Phase}, indexed by ordinal. Phases that run on other
+ *                    threads, like background block refinement or rendering, overlap the search
+ * @param counters    count of each {@link Counter}, indexed by ordinal
+ * @param rejections  validator rejections of all validators combined
+ */
+public record SearchRecord(long startedAt, long durationNanos, SearchOutcome outcome,
+                           long[] phaseNanos, long[] counters, long rejections) {
+
+    public long getPhaseNanos(Phase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    public long getCounter(Counter counter) {
+        return counters[counter.ordinal()];
+    }
+}
@@ -16,6 +16,7 @@ import kaptainwutax.tungsten.Debug;
 import kaptainwutax.tungsten.TungstenMod;
 import kaptainwutax.tungsten.commandsystem.Command;
 import kaptainwutax.tungsten.commandsystem.CommandExecutor;
+import kaptainwutax.tungsten.world.VoxelWorld;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.network.ClientCommonNetworkHandler;
 import net.minecraft.client.network.ClientConnectionState;
@@ -23,8 +24,11 @@ import net.minecraft.client.network.ClientPlayNetworkHandler;
 import net.minecraft.client.network.ClientPlayerEntity;
 import net.minecraft.client.world.ClientWorld;
 import net.minecraft.network.ClientConnection;
+import net.minecraft.network.packet.s2c.play.BlockUpdateS2CPacket;
+import net.minecraft.network.packet.s2c.play.ChunkDeltaUpdateS2CPacket;
 import net.minecraft.network.packet.s2c.play.EntityTrackerUpdateS2CPacket;
 import net.minecraft.network.packet.s2c.play.PlayerPositionLookS2CPacket;
+import net.minecraft.network.packet.s2c.play.UnloadChunkS2CPacket;
 
 @Mixin(ClientPlayNetworkHandler.class)
 public abstract class MixinClientPlayNetworkHandler extends ClientCommonNetworkHandler {
@@ -86,4 +90,23 @@ public abstract class MixinClientPlayNetworkHandler extends ClientCommonNetworkH
         }
     }
 
+    @Inject(method = "onBlockUpdate", at = @At("TAIL"))
+    public void onBlockUpdate(BlockUpdateS2CPacket packet, CallbackInfo ci) {
+        TungstenMod.BLOCK_CHANGES.blockChanged(packet.getPos());
+    }
+
+    @Inject(method = "onChunkDeltaUpdate", at = @At("TAIL"))
+    public void onChunkDeltaUpdate(ChunkDeltaUpdateS2CPacket packet, CallbackInfo ci) {
+        packet.visitUpdates((pos, state) -> TungstenMod.BLOCK_CHANGES.blockChanged(pos));
+    }
+
+    @Inject(method = "onUnloadChunk", at = @At("TAIL"))
+    public void onUnloadChunk(UnloadChunkS2CPacket packet, CallbackInfo ci) {
+        VoxelWorld voxels = TungstenMod.WORLD;
+        if (voxels != null && voxels.parent == this.world) {
+            voxels.unloadChunk(packet.pos().x, packet.pos().z);
+        }
+        TungstenMod.BLOCK_CHANGES.chunkUnloaded(packet.pos().x, packet.pos().z);
+    }
+
 }
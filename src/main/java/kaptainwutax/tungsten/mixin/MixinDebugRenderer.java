@@ -16,6 +16,8 @@
 	import com.mojang.blaze3d.vertex.VertexFormat.DrawMode;
 	
 	import kaptainwutax.tungsten.TungstenMod;
+	import kaptainwutax.tungsten.metrics.Metrics;
+	import kaptainwutax.tungsten.metrics.Phase;
 	import kaptainwutax.tungsten.render.Color;
 	import kaptainwutax.tungsten.render.Cuboid;
 	import kaptainwutax.tungsten.render.Renderer;
@@ -41,6 +43,7 @@ import net.minecraft.client.render.Tessellator;
 		@Inject(method = "render", at = @At("RETURN"))
 		public void render(MatrixStack matrices, Frustum frustum, VertexConsumerProvider.Immediate vertexConsumers,
 				double cameraX, double cameraY, double cameraZ, CallbackInfo ci) {
+			long renderStart = Metrics.start();
 			glDisable(GL_DEPTH_TEST);
 		    glDisable(GL_BLEND);
 		    
@@ -73,6 +76,7 @@ import net.minecraft.client.render.Tessellator;
 	
 		    glEnable(GL_BLEND);
 		    glEnable(GL_DEPTH_TEST);
+		    Metrics.stop(Phase.RENDER, renderStart);
 		}
 	
 		private static void renderCollection(Collection<Renderer> renderers, Tessellator tessellator, Frustum frustum,
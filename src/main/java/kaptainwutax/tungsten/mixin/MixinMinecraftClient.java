@@ -19,12 +19,9 @@ public class MixinMinecraftClient {
 
 	@Inject(at = @At("HEAD"), method = "tick")
 	private void tick(CallbackInfo info) {
-		if(this.world == null) {
-			TungstenMod.WORLD = null;
-		} else if(TungstenMod.WORLD == null) {
-			TungstenMod.WORLD = new VoxelWorld(this.world);
-		} else if(TungstenMod.WORLD.parent != this.world) {
-			TungstenMod.WORLD = new VoxelWorld(this.world);
+		VoxelWorld voxels = TungstenMod.trackWorld(this.world);
+		if(voxels != null) {
+			voxels.flush();
 		}
 	}
 	
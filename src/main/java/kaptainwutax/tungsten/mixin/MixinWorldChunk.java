@@ -11,6 +11,7 @@ import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
 import kaptainwutax.tungsten.TungstenMod;
+import kaptainwutax.tungsten.world.VoxelWorld;
 import net.minecraft.block.BlockState;
 import net.minecraft.fluid.FluidState;
 import net.minecraft.nbt.NbtCompound;
@@ -42,25 +43,13 @@ public abstract class MixinWorldChunk extends Chunk {
 
 	@Inject(method = "loadFromPacket", at = @At("RETURN"))
 	private void loadFromPacket(PacketByteBuf buf, Map<BlockPos, NbtCompound> blockEntityTagMap, Consumer<ChunkData.BlockEntityVisitor> consumer, CallbackInfo ci) {
-		if(TungstenMod.WORLD == null || this.getWorld() != TungstenMod.WORLD.parent) {
-        }
-
-		/*
-		int minX = this.getPos().x << 4;
-		int minY = this.getWorld().getBottomY();
-		int minZ = this.getPos().z << 4;
-		BlockPos.Mutable pos = new BlockPos.Mutable();
-
-		for(int x = minX; x < minX + 16; x++) {
-			for(int z = minX; z < minZ + 16; z++) {
-				for(int y = minY; y < minY + this.getWorld().getHeight(); y++) {
-					pos.set(x, y, z);
-					BlockState block = this.getBlockState(pos);
-					FluidState fluid = this.getFluidState(pos);
-					ExampleMod.WORLD.setBlockAndFluidState(pos, block, fluid);
-				}
+		if(this.getWorld().isClient()) {
+			VoxelWorld voxels = TungstenMod.trackWorld(this.getWorld());
+			if(voxels != null) {
+				voxels.loadChunk(this);
 			}
-		}*/
+			TungstenMod.BLOCK_CHANGES.chunkLoaded(this.getPos().x, this.getPos().z);
+		}
 	}
 
 }
@@ -1,12 +1,18 @@
 package kaptainwutax.tungsten.path;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.ConcurrentModificationException;
+import java.util.Deque;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.Callable;
 
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
 import kaptainwutax.tungsten.Debug;
+import kaptainwutax.tungsten.TungstenMod;
+import kaptainwutax.tungsten.concurrent.TaskManager;
 import kaptainwutax.tungsten.simulation.SimulatedPlayer;
 import kaptainwutax.tungsten.constants.pathfinding.PathfindingConstants;
 import kaptainwutax.tungsten.constants.physics.PlayerConstants;
@@ -14,24 +20,56 @@ import kaptainwutax.tungsten.path.common.HeapNode;
 import kaptainwutax.tungsten.helpers.DirectionHelper;
 import kaptainwutax.tungsten.helpers.MathHelper;
 import kaptainwutax.tungsten.helpers.QuantizationHelper;
+import kaptainwutax.tungsten.metrics.Counter;
+import kaptainwutax.tungsten.metrics.Metrics;
 import kaptainwutax.tungsten.path.blockSpaceSearchAssist.BlockNode;
 import kaptainwutax.tungsten.render.Color;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.LadderBlock;
+import net.minecraft.client.network.ClientPlayerEntity;
 import net.minecraft.state.property.Properties;
 import net.minecraft.util.math.Direction;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.WorldView;
 
 public class Node implements HeapNode {
+    /** Shared task manager used to simulate children on the pathfinding pool when parallel expansion is enabled. */
+    private static final TaskManager EXPANSION_TASKS = new TaskManager();
+
+    // Discrete state bits, the first five are the ones folded into closedSetHashCode
+    private static final int FLAG_ON_GROUND = 1;
+    private static final int FLAG_TOUCHING_WATER = 2;
+    private static final int FLAG_SUBMERGED_IN_WATER = 4;
+    private static final int FLAG_SWIMMING = 8;
+    private static final int FLAG_SPRINTING = 16;
+    private static final int FLAG_IN_LAVA = 32;
+    private static final int CLOSED_SET_FLAGS = FLAG_ON_GROUND | FLAG_TOUCHING_WATER | FLAG_SUBMERGED_IN_WATER | FLAG_SWIMMING | FLAG_SPRINTING;
+
     public Node parent;
-    public SimulatedPlayer agent;
+    /** Full simulated state, {@code null} while the node is compacted. */
+    public volatile SimulatedPlayer agent;
     public PathInput input;
     public double cost;
     public double estimatedCostToGoal = 0;
     public int heapPosition;
     public double combinedCost;
     public Color color;
+    /** Number of ticks from the start node */
+    public final int depth;
+    /** Number of nodes from the start node, a macro action counting as one */
+    public final int nodeDepth;
+    /** Ticks the input is held for, more than one for macro actions */
+    public final int ticks;
+    /** Index of the block path waypoint the node is heading for, only tracked by the weighted search */
+    public int waypointIndex;
+    /** World the node was simulated in, {@link #expand} replays against it. {@code null} for the start node */
+    private final WorldView world;
+
+    // Packed physics state, only meaningful once compact() has dropped the agent
+    private double posX, posY, posZ;
+    private double velX, velY, velZ;
+    private float yaw, pitch;
+    private byte stateFlags;
 
     // HeapNode interface implementation
     @Override
@@ -52,6 +90,10 @@ public class Node implements HeapNode {
     public Node(Node parent, SimulatedPlayer agent, Color color, double pathCost) {
         this.parent = parent;
         this.agent = agent;
+        this.depth = parent == null ? 0 : parent.depth + 1;
+        this.nodeDepth = parent == null ? 0 : parent.nodeDepth + 1;
+        this.ticks = 1;
+        this.world = null;
         this.color = color;
         this.cost = pathCost;
         this.combinedCost = 0;
@@ -59,8 +101,19 @@ public class Node implements HeapNode {
     }
 
     public Node(Node parent, WorldView world, PathInput input, Color color, double pathCost) {
+        this(parent, world, new SimulatedPlayer(parent.agent, input).tick(world), input, 1, color, pathCost);
+    }
+
+    /**
+     * Node reached by holding {@code input} for {@code ticks} ticks from {@code parent} in {@code world}.
+     */
+    public Node(Node parent, WorldView world, SimulatedPlayer agent, PathInput input, int ticks, Color color, double pathCost) {
         this.parent = parent;
-        this.agent = new SimulatedPlayer(parent.agent, input).tick(world);
+        this.world = world;
+        this.agent = agent;
+        this.depth = parent.depth + ticks;
+        this.nodeDepth = parent.nodeDepth + 1;
+        this.ticks = ticks;
         this.input = input;
         this.color = color;
         this.cost = pathCost;
@@ -72,6 +125,115 @@ public class Node implements HeapNode {
         return heapPosition != -1;
     }
 
+    public boolean isCompact() {
+        return this.agent == null && this.parent != null;
+    }
+
+    /**
+     * Drops the full simulated entity and keeps only the packed position, velocity,
+     * rotation and state flags. The entity is rebuilt by {@link #expand} when needed.
+     */
+    public void compact() {
+        SimulatedPlayer current = this.agent;
+        if (current == null || this.parent == null || this.input == null) return;
+
+        this.posX = current.posX;
+        this.posY = current.posY;
+        this.posZ = current.posZ;
+        this.velX = current.velX;
+        this.velY = current.velY;
+        this.velZ = current.velZ;
+        this.yaw = current.yaw;
+        this.pitch = current.pitch;
+        this.stateFlags = (byte) packFlags(current);
+        this.agent = null;
+        current.release();
+    }
+
+    /**
+     * Returns the full simulated entity, rebuilding it if the node was compacted.
+     * The simulation is deterministic, so the state is restored by replaying the stored
+     * inputs from the nearest ancestor that still holds its entity, each against the world
+     * it was first simulated in.
+     */
+    public SimulatedPlayer expand() {
+        SimulatedPlayer current = this.agent;
+        if (current != null) return current;
+
+        Deque<Node> replay = new ArrayDeque<>();
+        Node anchor = this;
+        while (anchor.agent == null) {
+            if (anchor.parent == null || anchor.input == null) {
+                throw new IllegalStateException("Compact node without a materialized ancestor");
+            }
+            replay.push(anchor);
+            anchor = anchor.parent;
+        }
+
+        SimulatedPlayer anchorAgent = anchor.agent;
+        SimulatedPlayer state = anchorAgent;
+        while (!replay.isEmpty()) {
+            Node node = replay.pop();
+            SimulatedPlayer next = SimulatedPlayer.resimulate(node, state, node.input, node.ticks, node.world);
+            if (state != anchorAgent) {
+                state.release();
+            }
+            state = next;
+        }
+        this.agent = state;
+        return state;
+    }
+
+    public Vec3d getPos() {
+        SimulatedPlayer current = this.agent;
+        return current != null ? current.getPos() : new Vec3d(this.posX, this.posY, this.posZ);
+    }
+
+    public Vec3d getVelocity() {
+        SimulatedPlayer current = this.agent;
+        return current != null ? new Vec3d(current.velX, current.velY, current.velZ) : new Vec3d(this.velX, this.velY, this.velZ);
+    }
+
+    public float getYaw() {
+        SimulatedPlayer current = this.agent;
+        return current != null ? current.yaw : this.yaw;
+    }
+
+    public float getPitch() {
+        SimulatedPlayer current = this.agent;
+        return current != null ? current.pitch : this.pitch;
+    }
+
+    public boolean isInLava() {
+        SimulatedPlayer current = this.agent;
+        return current != null ? current.isInLava() : (this.stateFlags & FLAG_IN_LAVA) != 0;
+    }
+
+    public void compare(ClientPlayerEntity player) {
+        SimulatedPlayer current = this.agent;
+        if (current != null) {
+            current.compare(player, true);
+        } else {
+            SimulatedPlayer.compare(this.posX, this.posY, this.posZ, this.velX, this.velY, this.velZ, player);
+        }
+    }
+
+    private int stateFlags() {
+        SimulatedPlayer current = this.agent;
+        return current != null ? packFlags(current) : this.stateFlags;
+    }
+
+    private static int packFlags(SimulatedPlayer agent) {
+        int flags = 0;
+        if (agent.onGround) flags |= FLAG_ON_GROUND;
+        if (agent.touchingWater) flags |= FLAG_TOUCHING_WATER;
+        if (agent.isSubmergedInWater) flags |= FLAG_SUBMERGED_IN_WATER;
+        if (agent.swimming) flags |= FLAG_SWIMMING;
+        if (agent.sprinting) flags |= FLAG_SPRINTING;
+        if (agent.isInLava()) flags |= FLAG_IN_LAVA;
+        return flags;
+    }
+
     @Override
     public int hashCode() {
         return hashCode(true);
@@ -81,9 +243,10 @@ public class Node implements HeapNode {
         int[] qPos = {0, 0, 0};
         int[] qVel = {0, 0, 0};
 
-        if (this.agent != null) {
-            qVel = QuantizationHelper.quantizeVelocity(this.agent.velX, this.agent.velY, this.agent.velZ);
-            qPos = QuantizationHelper.quantizePosition(this.agent.getPos());
+        if (this.agent != null || this.isCompact()) {
+            Vec3d velocity = this.getVelocity();
+            qVel = QuantizationHelper.quantizeVelocity(velocity.x, velocity.y, velocity.z);
+            qPos = QuantizationHelper.quantizePosition(this.getPos());
         }
 
         if (shouldAddYaw && this.input != null) {
@@ -119,16 +282,13 @@ public class Node implements HeapNode {
         int[] qVel = {0, 0, 0};
         int flags = 0;
 
-        if (this.agent != null) {
-            qVel = QuantizationHelper.quantizeVelocity(this.agent.velX, this.agent.velY, this.agent.velZ);
-            qPos = QuantizationHelper.quantizePosition(this.agent.getPos());
+        if (this.agent != null || this.isCompact()) {
+            Vec3d velocity = this.getVelocity();
+            qVel = QuantizationHelper.quantizeVelocity(velocity.x, velocity.y, velocity.z);
+            qPos = QuantizationHelper.quantizePosition(this.getPos());
 
             // Include movement-relevant discrete state to prevent over-deduplication (which can starve the open set).
-            if (this.agent.onGround) flags |= 1;
-            if (this.agent.touchingWater) flags |= 2;
-            if (this.agent.isSubmergedInWater) flags |= 4;
-            if (this.agent.swimming) flags |= 8;
-            if (this.agent.sprinting) flags |= 16;
+            flags = this.stateFlags() & CLOSED_SET_FLAGS;
         }
 
         // 64-bit hash: pack position into upper bits, velocity+flags into lower bits
@@ -145,17 +305,21 @@ public class Node implements HeapNode {
 
         Node other = (Node) obj;
 
-        if (this.agent == null || other.agent == null) {
-            return this.agent == other.agent;
+        boolean hasState = this.agent != null || this.isCompact();
+        boolean otherHasState = other.agent != null || other.isCompact();
+        if (!hasState || !otherHasState) {
+            return hasState == otherHasState;
         }
 
-        if (!QuantizationHelper.positionsEqual(this.agent.getPos(), other.agent.getPos())) {
+        if (!QuantizationHelper.positionsEqual(this.getPos(), other.getPos())) {
             return false;
         }
 
+        Vec3d velocity = this.getVelocity();
+        Vec3d otherVelocity = other.getVelocity();
         if (!QuantizationHelper.velocitiesEqual(
-                this.agent.velX, this.agent.velY, this.agent.velZ,
-                other.agent.velX, other.agent.velY, other.agent.velZ)) {
+                velocity.x, velocity.y, velocity.z,
+                otherVelocity.x, otherVelocity.y, otherVelocity.z)) {
             return false;
         }
 
@@ -192,7 +356,7 @@ public class Node implements HeapNode {
 
     private boolean shouldSkipNodeGeneration(BlockNode nextBlockNode) {
         Node n = this.parent;
-        return n != null && (n.agent.isInLava() || agent.isInLava());
+        return n != null && (n.isInLava() || agent.isInLava());
     }
 
     private void generateNodes(WorldView world, Vec3d target, BlockNode nextBlockNode, List<Node> nodes) {
@@ -204,7 +368,7 @@ public class Node implements HeapNode {
                 && nextBlockNode.getBlockPos().getX() == agent.blockX
                 && nextBlockNode.getBlockPos().getZ() == agent.blockZ) {
             Direction dir = state.get(Properties.HORIZONTAL_FACING);
-            double desiredYaw = DirectionHelper.calcYawFromVec3d(agent.getPos(), nextBlockNode.getPos(true).offset(dir.getOpposite(), 1)) + MathHelper.roundToPrecision(Math.random(), 2) / 1000000;
+            double desiredYaw = DirectionHelper.calcYawFromVec3d(agent.getPos(), nextBlockNode.getPos(world, true).offset(dir.getOpposite(), 1)) + MathHelper.roundToPrecision(Math.random(), 2) / 1000000;
             if (nextBlockNode.getBlockPos().getY() > agent.blockY) {
                 createAndAddNode(world, nextBlockNode, nodes, true, false, false, false, false, true, (float) desiredYaw, isDoingLongJump);
                 return;
@@ -217,8 +381,9 @@ public class Node implements HeapNode {
 
         // Try the direct yaw first (most likely to succeed), then offset yaws
         float increment = PlayerConstants.Inputs.YAW_RANGE * 2 / (PlayerConstants.Inputs.YAW_PRECISION - 1);
-        float directYaw = (float) DirectionHelper.calcYawFromVec3d(agent.getPos(), nextBlockNode.getPos(true));
+        float directYaw = (float) DirectionHelper.calcYawFromVec3d(agent.getPos(), nextBlockNode.getPos(world, true));
         int inputCount = agent.onGround ? PlayerConstants.Inputs.ALL_INPUTS.length : PlayerConstants.Inputs.NO_JUMP_INPUT_LENGTH;
+        List<Callable<Node>> tasks = new ArrayList<>();
 
         // Generate direct yaw first, then offsets, to avoid left/right bias from deduplication
         for (int yi = 0; yi < PlayerConstants.Inputs.YAW_PRECISION; yi++) {
@@ -232,7 +397,140 @@ public class Node implements HeapNode {
             }
             for (int i = 0; i < inputCount; i++) {
                 KeyboardInput input = PlayerConstants.Inputs.ALL_INPUTS[i];
-                createAndAddNode(world, nextBlockNode, nodes, input.forward(), input.right(), input.left(), input.sneak(), input.sprint(), input.jump(), yaw, isDoingLongJump);
+                if (TungstenMod.parallelExpansion) {
+                    float candidateYaw = yaw;
+                    tasks.add(() -> createNode(world, nextBlockNode, input.forward(), input.right(), input.left(), input.sneak(), input.sprint(), input.jump(), candidateYaw, isDoingLongJump));
+                } else {
+                    createAndAddNode(world, nextBlockNode, nodes, input.forward(), input.right(), input.left(), input.sneak(), input.sprint(), input.jump(), yaw, isDoingLongJump);
+                }
+            }
+        }
+
+        if (!tasks.isEmpty()) {
+            List<Node> simulated = new ArrayList<>(tasks.size());
+            expandInParallel(tasks, simulated);
+            mergeChildren(simulated, nodes);
+        }
+    }
+
+    /**
+     * Children of this node that are only simulated when asked for, in the order
+     * {@link #getChildren} creates them before sorting: the direct yaw to the waypoint first,
+     * and for each yaw the sprint-jump inputs first.
+     */
+    public ChildCursor lazyChildren(WorldView world, BlockNode nextBlockNode) {
+        return new ChildCursor(world, nextBlockNode);
+    }
+
+    /**
+     * Hands out the children of a node one simulated tick at a time. Rebuilds the parent
+     * entity first if it was compacted since the cursor was created.
+     */
+    public final class ChildCursor {
+        private final WorldView world;
+        private final BlockNode nextBlockNode;
+        private final boolean isDoingLongJump;
+        private final float directYaw;
+        private final float increment;
+        private final int inputCount;
+        // Climbing straight to the waypoint has a single candidate
+        private final boolean climbing;
+        private final boolean climbJump;
+        private final float climbYaw;
+        private int yawIndex;
+        private int inputIndex;
+
+        private ChildCursor(WorldView world, BlockNode nextBlockNode) {
+            this.world = world;
+            this.nextBlockNode = nextBlockNode;
+            this.isDoingLongJump = nextBlockNode.isDoingLongJump() || nextBlockNode.isDoingNeo();
+            this.increment = PlayerConstants.Inputs.YAW_RANGE * 2 / (PlayerConstants.Inputs.YAW_PRECISION - 1);
+            this.directYaw = (float) DirectionHelper.calcYawFromVec3d(agent.getPos(), nextBlockNode.getPos(world, true));
+            this.inputCount = agent.onGround ? PlayerConstants.Inputs.ALL_INPUTS.length : PlayerConstants.Inputs.NO_JUMP_INPUT_LENGTH;
+
+            BlockState state = world.getBlockState(nextBlockNode.getBlockPos());
+            int waypointY = nextBlockNode.getBlockPos().getY();
+            if (agent.isClimbing(world)
+                    && state.getBlock() instanceof LadderBlock
+                    && nextBlockNode.getBlockPos().getX() == agent.blockX
+                    && nextBlockNode.getBlockPos().getZ() == agent.blockZ
+                    && waypointY != agent.blockY) {
+                Direction dir = state.get(Properties.HORIZONTAL_FACING);
+                this.climbing = true;
+                this.climbJump = waypointY > agent.blockY;
+                this.climbYaw = (float) (DirectionHelper.calcYawFromVec3d(agent.getPos(), nextBlockNode.getPos(world, true).offset(dir.getOpposite(), 1)) + MathHelper.roundToPrecision(Math.random(), 2) / 1000000);
+            } else {
+                this.climbing = false;
+                this.climbJump = false;
+                this.climbYaw = 0;
+            }
+
+            if (shouldSkipNodeGeneration(nextBlockNode)) {
+                this.yawIndex = PlayerConstants.Inputs.YAW_PRECISION;
+            }
+        }
+
+        /**
+         * @return the next simulated child, or {@code null} once every candidate has been tried
+         */
+        public Node next() {
+            while (yawIndex < PlayerConstants.Inputs.YAW_PRECISION) {
+                expand();
+                if (climbing) {
+                    yawIndex = PlayerConstants.Inputs.YAW_PRECISION;
+                    return createNode(world, nextBlockNode, true, false, false, false, false, climbJump, climbYaw, isDoingLongJump);
+                }
+
+                KeyboardInput input = PlayerConstants.Inputs.ALL_INPUTS[inputIndex];
+                float yaw;
+                if (yawIndex == 0) {
+                    yaw = directYaw;
+                } else if (yawIndex % 2 == 1) {
+                    yaw = directYaw - increment * ((yawIndex + 1) / 2);
+                } else {
+                    yaw = directYaw + increment * (yawIndex / 2);
+                }
+                if (++inputIndex == inputCount) {
+                    inputIndex = 0;
+                    yawIndex++;
+                }
+
+                Node child = createNode(world, nextBlockNode, input.forward(), input.right(), input.left(), input.sneak(), input.sprint(), input.jump(), yaw, isDoingLongJump);
+                if (child != null) return child;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Runs the per-input simulations on the shared pathfinding pool and waits for all of them.
+     * Results are collected in submission order, so the list matches what the sequential
+     * expansion would produce. The parent is caught up first, the workers then only copy it.
+     */
+    private void expandInParallel(List<Callable<Node>> tasks, List<Node> simulated) {
+        agent.catchUp();
+        EXPANSION_TASKS.processBatchToCompletion(tasks, simulated, TungstenMod.PATHFINDER.stop);
+    }
+
+    /**
+     * Adds the children simulated in parallel to {@code nodes}, collapsing children that land in
+     * the same closed-set state onto the cheapest one and keeping the earliest on ties.
+     */
+    private static void mergeChildren(List<Node> simulated, List<Node> nodes) {
+        Long2IntOpenHashMap indexByState = new Long2IntOpenHashMap(simulated.size());
+        indexByState.defaultReturnValue(-1);
+        for (Node node : simulated) {
+            long state = node.closedSetHashCode();
+            int existing = indexByState.get(state);
+            if (existing == -1) {
+                indexByState.put(state, nodes.size());
+                nodes.add(node);
+            } else if (node.cost < nodes.get(existing).cost) {
+                Metrics.count(Counter.DEDUP_HITS);
+                nodes.set(existing, node).agent.release();
+            } else {
+                Metrics.count(Counter.DEDUP_HITS);
+                node.agent.release();
             }
         }
     }
@@ -240,27 +538,82 @@ public class Node implements HeapNode {
     private void createAndAddNode(WorldView world, BlockNode nextBlockNode, List<Node> nodes,
                                   boolean forward, boolean right, boolean left, boolean sneak, boolean sprint, boolean jump,
                                   float yaw, boolean isDoingLongJump) {
-        if (jump && sneak) return;
+        Node newNode = createNode(world, nextBlockNode, forward, right, left, sneak, sprint, jump, yaw, isDoingLongJump);
+        if (newNode != null) {
+            nodes.add(newNode);
+        }
+    }
+
+    /**
+     * Simulates a single input combination from this node.
+     * Copying the parent runs its deferred airborne ticks, see {@link SimulatedPlayer#catchUp}.
+     *
+     * @return The simulated child, or {@code null} if the combination is filtered out
+     */
+    private Node createNode(WorldView world, BlockNode nextBlockNode,
+                            boolean forward, boolean right, boolean left, boolean sneak, boolean sprint, boolean jump,
+                            float yaw, boolean isDoingLongJump) {
+        if (jump && sneak) return null;
         // Pre-filter impossible input combinations using parent state to avoid expensive simulation
-        if (!agent.touchingWater && (sneak && sprint)) return;
-        if (!agent.touchingWater && sneak && (right || left) && forward) return;
-        if (!agent.touchingWater && !agent.onGround && sneak) return;
-        if (!agent.touchingWater && sneak && jump) return;
+        if (!agent.touchingWater && (sneak && sprint)) return null;
+        if (!agent.touchingWater && sneak && (right || left) && forward) return null;
+        if (!agent.touchingWater && !agent.onGround && sneak) return null;
+        if (!agent.touchingWater && sneak && jump) return null;
 
         try {
-            Node newNode = new Node(this, world, new PathInput(forward, false, left, right, jump, sneak, sprint, agent.pitch, yaw),
-                    new Color(sneak ? 220 : 0, 255, sneak ? 50 : 0), this.cost);
+            PathInput input = new PathInput(forward, false, left, right, jump, sneak, sprint, agent.pitch, yaw);
+            SimulatedPlayer simulated = new SimulatedPlayer(agent, input).tick(world);
+            int ticks = 1;
+            if (TungstenMod.macroActions && canHoldInput(world, nextBlockNode, sneak)) {
+                int maxTicks = jump ? PathfindingConstants.MacroActions.JUMP_ARC_TICKS : PathfindingConstants.MacroActions.WALK_TICKS;
+                while (ticks < maxTicks && shouldKeepHolding(world, simulated, nextBlockNode, jump)) {
+                    simulated.tick(world);
+                    ticks++;
+                }
+            }
+            Node newNode = new Node(this, world, simulated, input, ticks, new Color(sneak ? 220 : 0, 255, sneak ? 50 : 0), this.cost);
             if (newNode.agent.isClimbing(world))
                 jump = this.agent.getBlockPos().getY() < nextBlockNode.getBlockPos().getY();
 
-            if (newNode.agent.touchingWater && (sneak || jump) && newNode.agent.getBlockPos().getY() == nextBlockNode.getBlockPos().getY())
-                return;
+            if (newNode.agent.touchingWater && (sneak || jump) && newNode.agent.getBlockPos().getY() == nextBlockNode.getBlockPos().getY()) {
+                newNode.agent.release();
+                return null;
+            }
             double addNodeCost = calculateNodeCost(forward, sprint, jump, sneak, newNode.agent);
-            newNode.cost = this.cost + addNodeCost;
-            nodes.add(newNode);
+            newNode.cost = this.cost + addNodeCost * ticks;
+            return newNode;
         } catch (ConcurrentModificationException e) {
             Debug.logWarning("Skipping node due to concurrent world modification: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Whether a child of this node may hold its input for several ticks: only from solid ground
+     * in the open, away from water, ladders and the next waypoint, and never while sneaking.
+     */
+    private boolean canHoldInput(WorldView world, BlockNode nextBlockNode, boolean sneak) {
+        if (sneak || !agent.onGround || agent.touchingWater || agent.horizontalCollision || agent.isClimbing(world)) {
+            return false;
+        }
+        double clearance = PathfindingConstants.MacroActions.WAYPOINT_CLEARANCE;
+        return agent.getPos().squaredDistanceTo(nextBlockNode.getPos(world, true)) > clearance * clearance;
+    }
+
+    /**
+     * Whether a held input should run for another tick. A walk keeps going while it stays on the
+     * ground, a jump until it lands. Either stops on a collision, in water, on a ladder or once
+     * it gets close to the next waypoint.
+     */
+    private static boolean shouldKeepHolding(WorldView world, SimulatedPlayer agent, BlockNode nextBlockNode, boolean jump) {
+        if (agent.horizontalCollision || agent.touchingWater || agent.isInLava() || agent.isClimbing(world)) {
+            return false;
+        }
+        if (jump == agent.onGround) {
+            return false;
         }
+        double clearance = PathfindingConstants.MacroActions.WAYPOINT_CLEARANCE;
+        return agent.getPos().squaredDistanceTo(nextBlockNode.getPos(world, true)) > clearance * clearance;
     }
 
     private double calculateNodeCost(boolean forward, boolean sprint, boolean jump, boolean sneak, SimulatedPlayer agent) {
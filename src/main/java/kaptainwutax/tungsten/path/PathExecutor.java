@@ -1,10 +1,12 @@
 package kaptainwutax.tungsten.path;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import kaptainwutax.tungsten.TungstenMod;
 import net.minecraft.client.network.ClientPlayerEntity;
 import net.minecraft.client.option.GameOptions;
+import net.minecraft.world.WorldView;
 
 public class PathExecutor {
 
@@ -22,6 +24,37 @@ public class PathExecutor {
         }
 	}
 	
+	/**
+	 * Splits the macro actions of a path into one node per tick, the executor presses keys and
+	 * checks the player once per node. Returns {@code path} itself when it has no macro action.
+	 */
+	static List<Node> expandMacroActions(WorldView world, List<Node> path) {
+		boolean hasMacro = false;
+		for (Node node : path) {
+			if (node.ticks > 1) {
+				hasMacro = true;
+				break;
+			}
+		}
+		if (!hasMacro) return path;
+
+		List<Node> expanded = new ArrayList<>(path.size());
+		Node previous = null;
+		for (Node node : path) {
+			if (previous == null || node.ticks == 1) {
+				expanded.add(node);
+				previous = node;
+				continue;
+			}
+			previous.expand();
+			for (int i = 0; i < node.ticks; i++) {
+				previous = new Node(previous, world, node.input, node.color, node.cost);
+				expanded.add(previous);
+			}
+		}
+		return expanded;
+	}
+
 	public List<Node> getPath() {
 		return this.path;
 	}
@@ -76,7 +109,7 @@ public class PathExecutor {
  	    } else {
 		    Node node = this.path.get(this.tick);
 		    if(this.tick != 0) {
-			    this.path.get(this.tick - 1).agent.compare(player, true);
+			    this.path.get(this.tick - 1).compare(player);
 		    }
 
 		    if(node.input != null) {
@@ -3,6 +3,7 @@ package kaptainwutax.tungsten.path;
 import kaptainwutax.tungsten.Debug;
 import kaptainwutax.tungsten.TungstenMod;
 import kaptainwutax.tungsten.simulation.SimulatedPlayer;
+import kaptainwutax.tungsten.simulation.TickMemo;
 import kaptainwutax.tungsten.constants.pathfinding.CostConstants;
 import kaptainwutax.tungsten.constants.pathfinding.PathfindingConstants;
 import kaptainwutax.tungsten.helpers.BlockShapeChecker;
@@ -10,11 +11,22 @@ import kaptainwutax.tungsten.helpers.BlockStateChecker;
 import kaptainwutax.tungsten.helpers.DirectionHelper;
 import kaptainwutax.tungsten.helpers.DistanceCalculator;
 import kaptainwutax.tungsten.helpers.blockPath.BlockPosShifter;
+import kaptainwutax.tungsten.helpers.movement.ObscuredCellCache;
 import kaptainwutax.tungsten.helpers.movement.StraightMovementHelper;
 import kaptainwutax.tungsten.helpers.render.RenderHelper;
+import kaptainwutax.tungsten.metrics.Counter;
+import kaptainwutax.tungsten.metrics.Metrics;
+import kaptainwutax.tungsten.metrics.Phase;
+import kaptainwutax.tungsten.metrics.SearchOutcome;
 import kaptainwutax.tungsten.path.blockSpaceSearchAssist.BlockNode;
 import kaptainwutax.tungsten.path.blockSpaceSearchAssist.BlockSpacePathfinder;
+import kaptainwutax.tungsten.path.blockSpaceSearchAssist.DStarLitePlanner;
+import kaptainwutax.tungsten.path.blockSpaceSearchAssist.HierarchicalBlockPlanner;
+import kaptainwutax.tungsten.path.common.BinaryHeapOpenSet;
+import kaptainwutax.tungsten.path.common.LongDoubleHashMap;
+import kaptainwutax.tungsten.path.common.LongHashSet;
 import kaptainwutax.tungsten.render.Color;
+import kaptainwutax.tungsten.world.VoxelWorld;
 import net.minecraft.block.*;
 import net.minecraft.client.network.ClientPlayerEntity;
 import net.minecraft.util.math.BlockPos;
@@ -32,18 +44,44 @@ public class Pathfinder {
     public AtomicBoolean active = new AtomicBoolean(false);
     public AtomicBoolean stop = new AtomicBoolean(false);
     public volatile Thread thread = null;
+    /** Block path delivered by the anytime block search or the incremental replanner, adopted by the search loop */
+    private volatile List<BlockNode> improvedBlockPath = null;
+    private final DStarLitePlanner replanner = new DStarLitePlanner();
+    private final HierarchicalBlockPlanner hierarchicalPlanner = new HierarchicalBlockPlanner();
+    /** Index of the block path waypoint the latest hierarchical segment starts at */
+    private int lastSegmentStart = 0;
+    /** Obscured checks of waypoint advances, only filled while searching a pinned snapshot */
+    private final ObscuredCellCache obscuredCells = new ObscuredCellCache();
 
     /**
      * A decision point in the greedy search tree. Stores the sorted list of
      * valid children and which index to try next upon backtracking.
+     * <p>
+     * In lazy mode the children are not simulated up front, the cursor hands them out
+     * one at a time and they are filtered against the waypoint the parent was heading for.
      */
     private static class DecisionPoint {
+        final Node parent;
         final List<Node> children;
         int nextIndex;
+        final Node.ChildCursor cursor;
+        final Vec3d waypointPos;
+        final double parentDist;
 
-        DecisionPoint(List<Node> children, int nextIndex) {
+        DecisionPoint(Node parent, List<Node> children) {
+            this.parent = parent;
             this.children = children;
-            this.nextIndex = nextIndex;
+            this.cursor = null;
+            this.waypointPos = null;
+            this.parentDist = 0;
+        }
+
+        DecisionPoint(Node parent, Node.ChildCursor cursor, Vec3d waypointPos, double parentDist) {
+            this.parent = parent;
+            this.children = List.of();
+            this.cursor = cursor;
+            this.waypointPos = waypointPos;
+            this.parentDist = parentDist;
         }
     }
 
@@ -59,7 +97,7 @@ public class Pathfinder {
         Vec3d childPos = child.agent.getPos();
 
         double collisionScore = 0;
-        double tentativeCost = child.cost + 1; // Assuming uniform cost for each step
+        double tentativeCost = child.cost + child.ticks; // Uniform cost for each simulated tick
         if (child.agent.horizontalCollision && child.agent.getPos().distanceTo(target) > 3) {
             collisionScore += CostConstants.Penalties.HORIZONTAL_COLLISION_PENALTY + (Math.abs(0.3 - child.agent.velZ) + Math.abs(0.3 - child.agent.velX));
         }
@@ -77,7 +115,7 @@ public class Pathfinder {
 
         double estimatedCostToGoal = collisionScore;
         if (blockPath != null) {
-            Vec3d posToGetTo = BlockPosShifter.getPosOnLadder(blockPath.get(NEXT_CLOSEST_BLOCKNODE_IDX.get()));
+            Vec3d posToGetTo = BlockPosShifter.getPosOnLadder(world, blockPath.get(NEXT_CLOSEST_BLOCKNODE_IDX.get()));
 
             if (child.agent.getPos().squaredDistanceTo(target) <= 2.0D) {
                 posToGetTo = target;
@@ -98,14 +136,16 @@ public class Pathfinder {
 
         int closestIDX = NEXT_CLOSEST_BLOCKNODE_IDX.get();
         BlockNode closest = positions.get(closestIDX);
-        double minDistance = current.getSquaredDistance(closest.getPos(true));
+        double minDistance = current.getSquaredDistance(closest.getPos(world, true));
         int maxLoop = Math.min(closestIDX + 10, positions.size());
+        // The live world can change under the cache, a pinned snapshot cannot
+        ObscuredCellCache cells = world instanceof VoxelWorld ? obscuredCells : null;
         for (int i = closestIDX + 1; i < maxLoop; i++) {
             BlockNode position = positions.get(i);
-            double distance = current.getSquaredDistance(position.getPos(true));
+            double distance = current.getSquaredDistance(position.getPos(world, true));
             if (distance < 1 && closestIDX < i - 1) continue;
             if (distance < minDistance
-                    && StraightMovementHelper.isPossible(world, position.getBlockPos(), current)
+                    && StraightMovementHelper.isPossible(world, position.getBlockPos(), current, cells)
             ) {
                 minDistance = distance;
                 closest = position;
@@ -123,13 +163,13 @@ public class Pathfinder {
         if (NEXT_CLOSEST_BLOCKNODE_IDX.get() + 1 >= blockPath.size()) return;
         BlockNode nextNodePos = blockPath.get(NEXT_CLOSEST_BLOCKNODE_IDX.get() + 1);
 
-        boolean isLongDist = lastClosestPos.getPos(true).distanceTo(closestPos.getPos(true)) > PathfindingConstants.WaypointAdvance.LONG_DISTANCE_THRESHOLD;
+        boolean isLongDist = lastClosestPos.getPos(world, true).distanceTo(closestPos.getPos(world, true)) > PathfindingConstants.WaypointAdvance.LONG_DISTANCE_THRESHOLD;
         double xzRange = isLongDist ? PathfindingConstants.WaypointAdvance.LONG_DIST_XZ_RANGE : PathfindingConstants.WaypointAdvance.SHORT_DIST_XZ_RANGE;
         double yRange = isLongDist ? PathfindingConstants.WaypointAdvance.LONG_DIST_Y_RANGE : PathfindingConstants.WaypointAdvance.SHORT_DIST_Y_RANGE;
 
         Vec3d nodePos = node.agent.getPos();
-        if (!nodePos.isWithinRangeOf(closestPos.getPos(true), xzRange, yRange)) return;
-        if (!areParentsWithinRange(node, closestPos.getPos(true), xzRange, yRange)) return;
+        if (!nodePos.isWithinRangeOf(closestPos.getPos(world, true), xzRange, yRange)) return;
+        if (!areParentsWithinRange(node, closestPos.getPos(world, true), xzRange, yRange)) return;
 
         BlockPos nodeBlockPos = new BlockPos(node.agent.blockX, node.agent.blockY, node.agent.blockZ);
         int closestPosIDX = findClosestPositionIDX(world, nodeBlockPos, blockPath);
@@ -145,7 +185,7 @@ public class Pathfinder {
     private boolean areParentsWithinRange(Node node, Vec3d target, double xzRange, double yRange) {
         Node p = node.parent;
         for (int i = 0; i < PathfindingConstants.WaypointAdvance.PARENT_CHECK_DEPTH; i++) {
-            if (p != null && !p.agent.getPos().isWithinRangeOf(target, xzRange, yRange)) return false;
+            if (p != null && !p.getPos().isWithinRangeOf(target, xzRange, yRange)) return false;
             if (p != null) p = p.parent;
         }
         return true;
@@ -155,15 +195,15 @@ public class Pathfinder {
                                            Vec3d nodePos, BlockPos nodeBlockPos, boolean isLongDist) {
         BlockState state = world.getBlockState(closestPos.getBlockPos());
         BlockState stateBelow = world.getBlockState(closestPos.getBlockPos().down());
-        double closestBlockBelowHeight = BlockShapeChecker.getBlockHeight(closestPos.getBlockPos().down());
-        double closestBlockVolume = BlockShapeChecker.getShapeVolume(closestPos.getBlockPos());
-        double distToClosest = nodePos.distanceTo(closestPos.getPos(true));
+        double closestBlockBelowHeight = BlockShapeChecker.getBlockHeight(world, stateBelow, closestPos.getBlockPos().down());
+        double closestBlockVolume = BlockShapeChecker.getShapeVolume(world, state, closestPos.getBlockPos());
+        double distToClosest = nodePos.distanceTo(closestPos.getPos(world, true));
         int heightDiff = DistanceCalculator.getJumpHeight((int) Math.ceil(nodePos.y), closestPos.y);
 
         boolean isWater = BlockStateChecker.isAnyWater(state);
         boolean isLadder = state.getBlock() instanceof LadderBlock;
         boolean isVine = state.getBlock() instanceof VineBlock;
-        boolean isConnected = BlockStateChecker.isConnected(nodeBlockPos);
+        boolean isConnected = BlockStateChecker.isConnected(world, nodeBlockPos);
         boolean isBelowLadder = stateBelow.getBlock() instanceof LadderBlock;
         boolean isBelowBottomSlab = BlockStateChecker.isBottomSlab(stateBelow);
         boolean isBelowClosedTrapDoor = BlockStateChecker.isClosedBottomTrapdoor(stateBelow);
@@ -171,7 +211,7 @@ public class Pathfinder {
         boolean isBlockBelowTall = closestBlockBelowHeight > PathfindingConstants.WaypointAdvance.TALL_BLOCK_HEIGHT;
 
         // Water always valid if in range
-        if (isWater && nodePos.isWithinRangeOf(BlockPosShifter.getPosOnLadder(closestPos),
+        if (isWater && nodePos.isWithinRangeOf(BlockPosShifter.getPosOnLadder(world, closestPos),
                 PathfindingConstants.WaypointAdvance.WATER_XZ_RANGE, PathfindingConstants.WaypointAdvance.WATER_Y_RANGE)) {
             return true;
         }
@@ -185,14 +225,14 @@ public class Pathfinder {
         boolean isNextBelow = nextNodePos.getBlockPos().getY() < closestPos.getBlockPos().getY();
 
         return isValidLadderAdvance(node, closestPos, nodePos, isLadder, isBelowLadder, isVine, isNextAbove, isNextBelow, world)
-            || (isBlockBelowTall && nodePos.isWithinRangeOf(closestPos.getPos(true), PathfindingConstants.WaypointAdvance.TALL_BLOCK_XZ, PathfindingConstants.WaypointAdvance.TALL_BLOCK_Y))
+            || (isBlockBelowTall && nodePos.isWithinRangeOf(closestPos.getPos(world, true), PathfindingConstants.WaypointAdvance.TALL_BLOCK_XZ, PathfindingConstants.WaypointAdvance.TALL_BLOCK_Y))
             || (!isLadder && !isBelowLadder && !isBelowGlassPane && !isBlockBelowTall
                 && distToClosest < (isLongDist ? PathfindingConstants.WaypointAdvance.STANDARD_LONG_DIST : PathfindingConstants.WaypointAdvance.STANDARD_SHORT_DIST)
                 && heightDiff < PathfindingConstants.WaypointAdvance.STANDARD_HEIGHT_DIFF)
             || (isBelowGlassPane && distToClosest < PathfindingConstants.WaypointAdvance.GLASS_PANE_DIST)
             || (!isBelowGlassPane && closestBlockVolume > 0 && closestBlockVolume < 1 && distToClosest < PathfindingConstants.WaypointAdvance.SMALL_BLOCK_DIST)
             || (isBelowBottomSlab && distToClosest < PathfindingConstants.WaypointAdvance.BOTTOM_SLAB_DIST && heightDiff < PathfindingConstants.WaypointAdvance.BOTTOM_SLAB_HEIGHT_DIFF)
-            || (isBelowClosedTrapDoor && nodePos.isWithinRangeOf(closestPos.getPos(true), PathfindingConstants.WaypointAdvance.TRAPDOOR_XZ, PathfindingConstants.WaypointAdvance.TRAPDOOR_Y));
+            || (isBelowClosedTrapDoor && nodePos.isWithinRangeOf(closestPos.getPos(world, true), PathfindingConstants.WaypointAdvance.TRAPDOOR_XZ, PathfindingConstants.WaypointAdvance.TRAPDOOR_Y));
     }
 
     private boolean isValidLadderAdvance(Node node, BlockNode closestPos, Vec3d nodePos,
@@ -201,7 +241,7 @@ public class Pathfinder {
         if (!isLadder && !isBelowLadder && !isVine) return false;
         if (isLadder && !isBelowLadder && !node.agent.isClimbing(world)) return false;
 
-        Vec3d ladderPos = BlockPosShifter.getPosOnLadder(closestPos);
+        Vec3d ladderPos = BlockPosShifter.getPosOnLadder(world, closestPos);
         if (nodePos.isWithinRangeOf(ladderPos, PathfindingConstants.WaypointAdvance.LADDER_CLOSE_XZ, PathfindingConstants.WaypointAdvance.LADDER_CLOSE_Y)) {
             return true;
         }
@@ -210,18 +250,22 @@ public class Pathfinder {
             && nodePos.isWithinRangeOf(ladderPos, PathfindingConstants.WaypointAdvance.LADDER_CLIMB_XZ, PathfindingConstants.WaypointAdvance.LADDER_CLIMB_Y);
     }
 
-    public synchronized void find(WorldView world, Vec3d target) {
+    public synchronized void find(WorldView liveWorld, Vec3d target) {
         if (active.get() || thread != null) return;
         active.set(true);
         NEXT_CLOSEST_BLOCKNODE_IDX.set(1);
+        WorldView world = pinWorld(liveWorld);
 
         thread = new Thread(() -> {
+            Metrics.beginSearch();
+            SearchOutcome outcome = SearchOutcome.FAILED;
             try {
                 NEXT_CLOSEST_BLOCKNODE_IDX.set(1);
-                search(world, target);
+                outcome = search(world, target);
             } catch (Exception e) {
                 e.printStackTrace();
             }
+            Metrics.endSearch(outcome);
 
             active.set(false);
             this.thread = null;
@@ -234,7 +278,7 @@ public class Pathfinder {
         thread.start();
     }
 
-    private void search(WorldView world, Vec3d target) {
+    private SearchOutcome search(WorldView world, Vec3d target) {
         TungstenMod.RENDERERS.clear();
         NEXT_CLOSEST_BLOCKNODE_IDX.set(1);
         stop.set(false);
@@ -246,12 +290,18 @@ public class Pathfinder {
         ClientPlayerEntity player = Objects.requireNonNull(TungstenMod.mc.player);
         if (player.getPos().distanceTo(target) < 1.0) {
             Debug.logMessage("Already at target location!");
-            return;
+            return SearchOutcome.AT_TARGET;
         }
 
         Node start = initializeStartNode(player, target);
+        improvedBlockPath = null;
+        lastSegmentStart = 0;
+        TickMemo.clear();
+        SimulatedPlayer.resetFastPathFallback();
         if (blockPath.isEmpty()) {
+            long blockSearchStart = Metrics.start();
             Optional<List<BlockNode>> bp = findBlockPath(world, target);
+            Metrics.stop(Phase.BLOCK_SEARCH, blockSearchStart);
             if (bp.isPresent()) {
                 RenderHelper.renderBlockPath(bp.get(), NEXT_CLOSEST_BLOCKNODE_IDX.get());
                 this.blockPath = bp;
@@ -260,17 +310,24 @@ public class Pathfinder {
 
         if (blockPath.isEmpty()) {
             Debug.logWarning("No block path found!");
-            return;
+            return SearchOutcome.NO_BLOCK_PATH;
+        }
+
+        if (TungstenMod.weightedPhysicsSearch) {
+            return searchWeighted(world, start, target);
         }
 
         Deque<DecisionPoint> decisions = new ArrayDeque<>();
-        Set<Long> blacklisted = new HashSet<>();
+        LongHashSet blacklisted = new LongHashSet();
         Node current = start;
+        SearchOutcome outcome = SearchOutcome.LIMIT_REACHED;
+        long physicsStart = Metrics.start();
 
         while (totalNodesEvaluated < PathfindingConstants.Greedy.MAX_DEPTH
                 && totalBacktracks < PathfindingConstants.Greedy.MAX_BACKTRACKS) {
             if (stop.get()) {
                 RenderHelper.clearRenderers();
+                outcome = SearchOutcome.STOPPED;
                 break;
             }
 
@@ -278,99 +335,95 @@ public class Pathfinder {
                 RenderHelper.renderBlockPath(blockPath.get(), NEXT_CLOSEST_BLOCKNODE_IDX.get());
             }
 
+            // Backtracking can land on a compacted sibling
+            current.expand();
+            if (TungstenMod.incrementalBlockReplan && replanner.hasPendingChanges()) {
+                if (world instanceof VoxelWorld pinned) {
+                    // Wait for the snapshot to publish the change before repairing against it
+                    VoxelWorld live = TungstenMod.WORLD;
+                    if (live != null && !live.hasPendingChanges()) {
+                        world = pinWorld(pinned.parent);
+                        // Cells were computed against the old version, waypoint checks must see the change
+                        obscuredCells.clear();
+                        replanner.replan(world, current.getPos()).ifPresent(path -> improvedBlockPath = path);
+                    }
+                } else {
+                    replanner.replan(current.getPos()).ifPresent(path -> improvedBlockPath = path);
+                }
+            }
+            adoptImprovedBlockPath(world, current);
+            extendBlockPath(world);
+
             // Void check — fell below minimum build height
             if (current.agent.getPos().y < world.getBottomY()) {
                 blacklisted.add(current.closedSetHashCode());
-                boolean found = false;
-                while (!decisions.isEmpty()) {
-                    DecisionPoint dp = decisions.peek();
-                    while (dp.nextIndex < dp.children.size()
-                            && blacklisted.contains(dp.children.get(dp.nextIndex).closedSetHashCode())) {
-                        dp.nextIndex++;
-                    }
-                    if (dp.nextIndex < dp.children.size()) {
-                        current = dp.children.get(dp.nextIndex);
-                        dp.nextIndex++;
-                        totalBacktracks++;
-                        found = true;
-                        break;
-                    } else {
-                        decisions.pop();
-                        if (!decisions.isEmpty()) {
-                            Node exhaustedParent = dp.children.get(0).parent;
-                            if (exhaustedParent != null) {
-                                blacklisted.add(exhaustedParent.closedSetHashCode());
-                            }
-                        }
-                    }
-                }
-                if (!found) {
+                Node sibling = backtrack(world, decisions, target, blacklisted);
+                if (sibling == null) {
                     Debug.logMessage("No path found - fell into void and exhausted all options!");
+                    outcome = SearchOutcome.EXHAUSTED;
                     break;
                 }
+                current = sibling;
+                totalBacktracks++;
+                Metrics.count(Counter.BACKTRACKS);
                 continue;
             }
 
             // Goal check
             if (isPathComplete(world, current, target)) {
-                if (tryExecutePath(current, target)) {
+                if (tryExecutePath(world, current, target)) {
+                    Metrics.stop(Phase.PHYSICS_SEARCH, physicsStart);
                     TungstenMod.RENDERERS.clear();
                     TungstenMod.TEST.clear();
                     this.blockPath = Optional.empty();
-                    return;
+                    return SearchOutcome.FOUND;
                 }
             }
 
-            // Generate, filter, score, and sort children (excluding blacklisted states)
-            List<Node> validChildren = generateAndFilterChildren(world, current, target, blacklisted);
-
-            if (!validChildren.isEmpty()) {
-                // Pick the best child, push remaining as backtrack options
-                Node bestChild = validChildren.get(0);
-                decisions.push(new DecisionPoint(validChildren, 1));
+            // Either every child simulated, filtered and sorted up front (excluding blacklisted states),
+            // or a cursor that simulates them one at a time as they are tried
+            DecisionPoint decision = TungstenMod.lazyChildren
+                    ? createLazyDecision(world, current)
+                    : new DecisionPoint(current, generateAndFilterChildren(world, current, target, blacklisted));
+            Node bestChild = nextSibling(world, decision, target, blacklisted);
+
+            if (bestChild != null) {
+                // Take the best child, keep the rest as backtrack options
+                decisions.push(decision);
+                if (TungstenMod.compactNodes) {
+                    for (int i = decision.nextIndex; i < decision.children.size(); i++) {
+                        decision.children.get(i).compact();
+                    }
+                    compactUnlessCheckpoint(current);
+                }
                 current = bestChild;
                 totalNodesEvaluated++;
+                Metrics.count(Counter.EXPANSIONS);
+                long advanceStart = Metrics.start();
                 updateNextClosestBlockNodeIDX(world, blockPath.get(), current);
+                Metrics.stop(Phase.WAYPOINT_ADVANCE, advanceStart);
                 RenderHelper.renderExploredNode(current);
             } else {
                 // Dead end — blacklist this state and backtrack up the tree
                 blacklisted.add(current.closedSetHashCode());
-                boolean found = false;
-                while (!decisions.isEmpty()) {
-                    DecisionPoint dp = decisions.peek();
-                    // Skip any siblings that have since been blacklisted
-                    while (dp.nextIndex < dp.children.size()
-                            && blacklisted.contains(dp.children.get(dp.nextIndex).closedSetHashCode())) {
-                        dp.nextIndex++;
-                    }
-                    if (dp.nextIndex < dp.children.size()) {
-                        current = dp.children.get(dp.nextIndex);
-                        dp.nextIndex++;
-                        totalBacktracks++;
-                        found = true;
-                        RenderHelper.renderExploredNode(current);
-                        break;
-                    } else {
-                        // All children at this level exhausted — blacklist the parent too
-                        decisions.pop();
-                        if (!decisions.isEmpty()) {
-                            // The node that owned this DecisionPoint is the parent;
-                            // find it from the chosen child's parent reference
-                            Node exhaustedParent = dp.children.get(0).parent;
-                            if (exhaustedParent != null) {
-                                blacklisted.add(exhaustedParent.closedSetHashCode());
-                            }
-                        }
-                    }
+                if (TungstenMod.compactNodes) {
+                    compactUnlessCheckpoint(current);
                 }
-
-                if (!found) {
+                Node sibling = backtrack(world, decisions, target, blacklisted);
+                if (sibling == null) {
                     Debug.logMessage("No path found - exhausted all options!");
+                    outcome = SearchOutcome.EXHAUSTED;
                     break;
                 }
+                current = sibling;
+                totalBacktracks++;
+                Metrics.count(Counter.BACKTRACKS);
+                RenderHelper.renderExploredNode(current);
             }
         }
 
+        Metrics.stop(Phase.PHYSICS_SEARCH, physicsStart);
+
         // Performance metrics
         long totalTime = System.currentTimeMillis() - startTime;
         Debug.logMessage("=== PathFinder Performance Metrics ===");
@@ -378,19 +431,264 @@ public class Pathfinder {
         Debug.logMessage("Total nodes evaluated: " + totalNodesEvaluated);
         Debug.logMessage("Total backtracks: " + totalBacktracks);
         Debug.logMessage("Nodes per second: " + (totalNodesEvaluated * 1000L / Math.max(1, totalTime)));
+        Metrics.countProbes(blacklisted.getStats());
         Debug.logMessage("====================================");
 
+        finishSearch();
+        return outcome;
+    }
+
+    /**
+     * Weighted A* over physics nodes. Every node carries its own block path waypoint, and states
+     * are deduplicated through a transposition table on {@link Node#closedSetHashCode} that keeps
+     * the cheapest cost seen. The block path stays fixed for the whole search, paths delivered by
+     * the anytime search or the replanner are not adopted.
+     */
+    private SearchOutcome searchWeighted(WorldView world, Node start, Vec3d target) {
+        long startTime = System.currentTimeMillis();
+        long deadline = startTime + PathfindingConstants.WeightedSearch.TIME_BUDGET_MS;
+        long physicsStart = Metrics.start();
+        double weight = PathfindingConstants.WeightedSearch.HEURISTIC_WEIGHT;
+
+        BinaryHeapOpenSet<Node> openSet = new BinaryHeapOpenSet<>();
+        LongDoubleHashMap bestCosts = new LongDoubleHashMap();
+        LongHashSet closed = new LongHashSet();
+        int expansions = 0;
+        int transpositions = 0;
+        SearchOutcome outcome = SearchOutcome.EXHAUSTED;
+
+        start.waypointIndex = NEXT_CLOSEST_BLOCKNODE_IDX.get();
+        start.combinedCost = weight * computeHeuristic(start.getPos(), target);
+        openSet.insert(start);
+        bestCosts.put(start.closedSetHashCode(), start.cost);
+
+        while (!openSet.isEmpty()) {
+            if (stop.get()) {
+                RenderHelper.clearRenderers();
+                outcome = SearchOutcome.STOPPED;
+                break;
+            }
+            if (expansions >= PathfindingConstants.WeightedSearch.MAX_EXPANSIONS
+                    || ((expansions & (PathfindingConstants.NodeEvaluation.TIME_CHECK_INTERVAL - 1)) == 0
+                        && System.currentTimeMillis() >= deadline)) {
+                outcome = SearchOutcome.LIMIT_REACHED;
+                break;
+            }
+
+            Node current = openSet.removeLowest();
+            long state = current.closedSetHashCode();
+            // Superseded by a cheaper node with the same state after it was queued
+            if (current.cost > bestCosts.get(state, Double.POSITIVE_INFINITY) || !closed.add(state)) {
+                if (current.agent != null) current.agent.release();
+                continue;
+            }
+
+            current.expand();
+            NEXT_CLOSEST_BLOCKNODE_IDX.set(current.waypointIndex);
+            extendBlockPath(world);
+            if (current.agent.getPos().y < world.getBottomY()) {
+                current.agent.release();
+                continue;
+            }
+
+            if (isPathComplete(world, current, target) && tryExecutePath(world, current, target)) {
+                Metrics.stop(Phase.PHYSICS_SEARCH, physicsStart);
+                logWeightedStats(startTime, expansions, transpositions, openSet.size());
+                TungstenMod.RENDERERS.clear();
+                TungstenMod.TEST.clear();
+                this.blockPath = Optional.empty();
+                return SearchOutcome.FOUND;
+            }
+
+            expansions++;
+            Metrics.count(Counter.EXPANSIONS);
+            List<BlockNode> path = blockPath.get();
+            for (Node child : current.getChildren(world, target, path.get(current.waypointIndex))) {
+                NEXT_CLOSEST_BLOCKNODE_IDX.set(current.waypointIndex);
+                long advanceStart = Metrics.start();
+                updateNextClosestBlockNodeIDX(world, path, child);
+                Metrics.stop(Phase.WAYPOINT_ADVANCE, advanceStart);
+                child.waypointIndex = NEXT_CLOSEST_BLOCKNODE_IDX.get();
+
+                updateNode(world, child, target, path);
+                child.combinedCost = child.cost + weight * child.estimatedCostToGoal;
+
+                long childState = child.closedSetHashCode();
+                if (closed.contains(childState) || child.cost >= bestCosts.get(childState, Double.POSITIVE_INFINITY)) {
+                    Metrics.count(Counter.DEDUP_HITS);
+                    child.agent.release();
+                    continue;
+                }
+                if (bestCosts.containsKey(childState)) transpositions++;
+                bestCosts.put(childState, child.cost);
+                openSet.insert(child);
+            }
+
+            RenderHelper.renderExploredNode(current);
+            if (TungstenMod.compactNodes) {
+                compactUnlessCheckpoint(current);
+            }
+        }
+
+        if (outcome == SearchOutcome.EXHAUSTED) {
+            Debug.logMessage("No path found - exhausted all options!");
+        }
+        Metrics.stop(Phase.PHYSICS_SEARCH, physicsStart);
+        logWeightedStats(startTime, expansions, transpositions, openSet.size());
+        finishSearch();
+        return outcome;
+    }
+
+    private void logWeightedStats(long startTime, int expansions, int transpositions, int openNodes) {
+        long totalTime = System.currentTimeMillis() - startTime;
+        Debug.logMessage("=== Weighted PathFinder Performance Metrics ===");
+        Debug.logMessage("Total pathfinding time: " + totalTime + "ms");
+        Debug.logMessage("Total nodes expanded: " + expansions);
+        Debug.logMessage("Cheaper duplicates requeued: " + transpositions);
+        Debug.logMessage("Nodes left open: " + openNodes);
+        Debug.logMessage("Nodes per second: " + (expansions * 1000L / Math.max(1, totalTime)));
+        Debug.logMessage("===============================================");
+    }
+
+    private void finishSearch() {
         if (stop.get()) {
             stop.set(false);
         }
 
         this.blockPath = Optional.empty();
+        improvedBlockPath = null;
+        replanner.reset();
+        hierarchicalPlanner.reset();
+        obscuredCells.clear();
     }
 
-    private List<Node> generateAndFilterChildren(WorldView world, Node parent, Vec3d target, Set<Long> blacklisted) {
+    /**
+     * Switches to a block path from the anytime search or the replanner, continuing from the
+     * waypoint after the one closest to the node being expanded.
+     */
+    private void adoptImprovedBlockPath(WorldView world, Node current) {
+        List<BlockNode> improved = improvedBlockPath;
+        if (improved == null) return;
+        improvedBlockPath = null;
+        if (improved.size() < 2) return;
+
+        Vec3d pos = current.getPos();
+        int closestIDX = 0;
+        double minDistance = Double.MAX_VALUE;
+        for (int i = 0; i < improved.size(); i++) {
+            double distance = pos.squaredDistanceTo(improved.get(i).getPos(world, true));
+            if (distance < minDistance) {
+                minDistance = distance;
+                closestIDX = i;
+            }
+        }
+
+        this.blockPath = Optional.of(improved);
+        NEXT_CLOSEST_BLOCKNODE_IDX.set(Math.min(closestIDX + 1, improved.size() - 1));
+        RenderHelper.renderBlockPath(improved, NEXT_CLOSEST_BLOCKNODE_IDX.get());
+    }
+
+    /**
+     * Appends the hierarchical segment refined in the background once it is ready, and starts refining
+     * the one after it when the search reaches the last appended segment.
+     */
+    private void extendBlockPath(WorldView world) {
+        if (blockPath.isEmpty()) return;
+        List<BlockNode> path = blockPath.get();
+        hierarchicalPlanner.pollSegment().ifPresent(segment -> {
+            List<BlockNode> extended = new ArrayList<>(path.size() + segment.size());
+            extended.addAll(path);
+            extended.addAll(segment);
+            this.blockPath = Optional.of(extended);
+            RenderHelper.renderBlockPath(extended, NEXT_CLOSEST_BLOCKNODE_IDX.get());
+        });
+
+        List<BlockNode> current = blockPath.get();
+        if (NEXT_CLOSEST_BLOCKNODE_IDX.get() < lastSegmentStart || !hierarchicalPlanner.hasMoreSegments()) return;
+        hierarchicalPlanner.refineNextInBackground(world, current.get(current.size() - 1));
+        lastSegmentStart = current.size() - 1;
+    }
+
+    /**
+     * @return a pinned snapshot of {@code world} when snapshot searches are enabled, otherwise the world itself
+     */
+    private static WorldView pinWorld(WorldView world) {
+        if (!TungstenMod.snapshotWorld) return world;
+        VoxelWorld voxels = TungstenMod.WORLD;
+        return voxels != null && voxels.parent == world ? voxels.pin() : world;
+    }
+
+    private void compactUnlessCheckpoint(Node node) {
+        // Rebuilding replays one node at a time, so checkpoints are spaced in nodes rather than ticks
+        if (node.nodeDepth % PathfindingConstants.CompactNodes.CHECKPOINT_INTERVAL != 0) {
+            node.compact();
+        }
+    }
+
+    /**
+     * Pops exhausted decision points until one still has a sibling that is not blacklisted.
+     * Every exhausted parent except the root is blacklisted on the way.
+     *
+     * @return that sibling, or {@code null} once every decision point is exhausted
+     */
+    private Node backtrack(WorldView world, Deque<DecisionPoint> decisions, Vec3d target, LongHashSet blacklisted) {
+        while (!decisions.isEmpty()) {
+            DecisionPoint dp = decisions.peek();
+            Node sibling = nextSibling(world, dp, target, blacklisted);
+            if (sibling != null) return sibling;
+
+            // All children at this level exhausted — blacklist the parent too
+            decisions.pop();
+            if (!decisions.isEmpty()) {
+                blacklisted.add(dp.parent.closedSetHashCode());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the next child of {@code dp} to try, skipping any that have since been blacklisted,
+     *         or {@code null} when it has none left
+     */
+    private Node nextSibling(WorldView world, DecisionPoint dp, Vec3d target, LongHashSet blacklisted) {
+        if (dp.cursor == null) {
+            while (dp.nextIndex < dp.children.size()) {
+                Node child = dp.children.get(dp.nextIndex++);
+                if (!blacklisted.contains(child.closedSetHashCode())) return child;
+            }
+            return null;
+        }
+
+        Node child;
+        while ((child = dp.cursor.next()) != null) {
+            if (blacklisted.contains(child.closedSetHashCode())) {
+                Metrics.count(Counter.BLACKLIST_HITS);
+                child.agent.release();
+                continue;
+            }
+
+            updateNode(world, child, target, blockPath.get());
+
+            if (child.agent.getPos().squaredDistanceTo(dp.waypointPos) <= dp.parentDist) {
+                return child;
+            }
+            blacklisted.add(child.closedSetHashCode());
+            child.agent.release();
+        }
+        return null;
+    }
+
+    private DecisionPoint createLazyDecision(WorldView world, Node parent) {
+        BlockNode waypoint = blockPath.get().get(NEXT_CLOSEST_BLOCKNODE_IDX.get());
+        Vec3d waypointPos = BlockPosShifter.getPosOnLadder(world, waypoint);
+        double parentDist = parent.agent.getPos().squaredDistanceTo(waypointPos);
+        return new DecisionPoint(parent, parent.lazyChildren(world, waypoint), waypointPos, parentDist);
+    }
+
+    private List<Node> generateAndFilterChildren(WorldView world, Node parent, Vec3d target, LongHashSet blacklisted) {
         List<Node> children = parent.getChildren(world, target, blockPath.get().get(NEXT_CLOSEST_BLOCKNODE_IDX.get()));
 
-        Vec3d waypointPos = BlockPosShifter.getPosOnLadder(blockPath.get().get(NEXT_CLOSEST_BLOCKNODE_IDX.get()));
+        Vec3d waypointPos = BlockPosShifter.getPosOnLadder(world, blockPath.get().get(NEXT_CLOSEST_BLOCKNODE_IDX.get()));
         double desiredYaw = DirectionHelper.calcYawFromVec3d(parent.agent.getPos(), waypointPos);
         double parentDist = parent.agent.getPos().squaredDistanceTo(waypointPos);
 
@@ -398,7 +696,11 @@ public class Pathfinder {
 
         for (Node child : children) {
             if (stop.get()) break;
-            if (blacklisted.contains(child.closedSetHashCode())) continue;
+            if (blacklisted.contains(child.closedSetHashCode())) {
+                Metrics.count(Counter.BLACKLIST_HITS);
+                child.agent.release();
+                continue;
+            }
 
             updateNode(world, child, target, blockPath.get());
 
@@ -406,6 +708,7 @@ public class Pathfinder {
                 valid.add(child);
             } else {
                 blacklisted.add(child.closedSetHashCode());
+                child.agent.release();
             }
         }
 
@@ -426,6 +729,19 @@ public class Pathfinder {
     }
 
     private Optional<List<BlockNode>> findBlockPath(WorldView world, Vec3d target) {
+        if (TungstenMod.hierarchicalBlockSearch) {
+            BlockPos startPos = Objects.requireNonNull(TungstenMod.mc.player).getBlockPos();
+            Optional<List<BlockNode>> path = hierarchicalPlanner.plan(world, startPos, target);
+            if (path.isPresent()) return path;
+            hierarchicalPlanner.reset();
+        }
+        if (TungstenMod.incrementalBlockReplan) {
+            BlockPos startPos = Objects.requireNonNull(TungstenMod.mc.player).getBlockPos();
+            return replanner.plan(world, startPos, target);
+        }
+        if (TungstenMod.anytimeBlockSearch) {
+            return BlockSpacePathfinder.searchAnytime(world, target, path -> improvedBlockPath = path);
+        }
         return BlockSpacePathfinder.search(world, target);
     }
 
@@ -438,7 +754,11 @@ public class Pathfinder {
         return node.agent.getPos().squaredDistanceTo(target) <= 0.2D;
     }
 
-    private boolean tryExecutePath(Node node, Vec3d target) {
+    private boolean tryExecutePath(WorldView world, Node node, Vec3d target) {
+        // The goal check may have seen a closed-form airborne prediction, confirm it on the full ticks
+        node.agent.catchUp();
+        if (!isPathComplete(world, node, target)) return false;
+
         TungstenMod.TEST.clear();
         RenderHelper.renderPathSoFar(node);
         while (TungstenMod.EXECUTOR.isRunning()) {
@@ -449,21 +769,28 @@ public class Pathfinder {
                 Debug.logWarning("Interrupted while waiting for executor: " + e.getMessage());
             }
         }
-        List<Node> path = constructPath(node);
+        List<Node> path = constructPath(world, node);
         executePath(path);
         return true;
     }
 
-    private List<Node> constructPath(Node node) {
+    private List<Node> constructPath(WorldView world, Node node) {
         List<Node> path = new ArrayList<>();
-        TungstenMod.RUNNING_PATH_RENDERER.clear();
         while (node.parent != null) {
             path.add(node);
-            RenderHelper.renderNodeConnection(node, node.parent);
             node = node.parent;
         }
         path.add(node);
         Collections.reverse(path);
+        path = PathExecutor.expandMacroActions(world, path);
+        for (Node step : path) {
+            step.expand().catchUp();
+        }
+
+        TungstenMod.RUNNING_PATH_RENDERER.clear();
+        for (int i = path.size() - 1; i > 0; i--) {
+            RenderHelper.renderNodeConnection(path.get(i), path.get(i - 1));
+        }
         return path;
     }
 
@@ -0,0 +1,203 @@
+package kaptainwutax.tungsten.path.blockSpaceSearchAssist;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import kaptainwutax.tungsten.Debug;
+import kaptainwutax.tungsten.TungstenMod;
+import kaptainwutax.tungsten.concurrent.PathfindingExecutor;
+import kaptainwutax.tungsten.constants.pathfinding.BlockSpacePathfindingConstants;
+import kaptainwutax.tungsten.constants.pathfinding.CostConstants;
+import kaptainwutax.tungsten.helpers.DistanceCalculator;
+import kaptainwutax.tungsten.path.blockSpaceSearchAssist.movement.MovementTypeDetector;
+import kaptainwutax.tungsten.path.common.BinaryHeapOpenSet;
+import kaptainwutax.tungsten.path.common.LongDoubleHashMap;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.WorldView;
+
+/**
+ * Bidirectional A* over the block graph.
+ * <p>
+ * The forward half runs on the calling thread and expands {@link BlockNode#getChildren} from the
+ * player. The backward half runs on the pathfinding pool and expands {@link BlockNode#getParents}
+ * from the goal. Both halves publish their closed nodes. Whenever a node is reached from both
+ * sides it becomes a meeting candidate. The search stops once either frontier's lowest f is no
+ * better than the cheapest meeting point, or at the deadline. A half that runs out of nodes only
+ * stops itself, the other one can still reach its closed nodes.
+ */
+final class BidirectionalBlockSearch {
+
+	private final WorldView world;
+	private final Vec3d target;
+	private final BlockNode start;
+	private final Goal forwardGoal;
+	private final Goal backwardGoal;
+	private final long deadline;
+
+	private final Map<Long, BlockNode> forwardClosed = new ConcurrentHashMap<>();
+	private final Map<Long, BlockNode> backwardClosed = new ConcurrentHashMap<>();
+	private final AtomicBoolean finished = new AtomicBoolean(false);
+
+	private final Object meetLock = new Object();
+	private volatile double bestMeetCost = Double.POSITIVE_INFINITY;
+	private BlockNode meetForward;
+	private BlockNode meetBackward;
+
+	BidirectionalBlockSearch(WorldView world, BlockNode start, Vec3d target) {
+		this.world = world;
+		this.target = target;
+		this.start = start;
+		this.forwardGoal = new Goal((int) Math.floor(target.x), (int) Math.floor(target.y), (int) Math.floor(target.z));
+		this.backwardGoal = new Goal(start.x, start.y, start.z);
+		this.deadline = System.currentTimeMillis() + BlockSpacePathfindingConstants.PRIMARY_TIMEOUT_MS;
+	}
+
+	Optional<List<BlockNode>> search() {
+		long startTime = System.currentTimeMillis();
+		Future<Integer> backward = PathfindingExecutor.getInstance().submitTask(() -> run(false),
+				BlockSpacePathfindingConstants.PRIMARY_TIMEOUT_MS);
+		int forwardNodes = run(true);
+
+		Integer backwardNodes = null;
+		try {
+			// Wait for the backward half so its last meeting candidates are in
+			backwardNodes = backward.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			Debug.logWarning("Backward block search failed: " + e.getMessage());
+		}
+
+		BlockNode forwardHalf;
+		BlockNode backwardHalf;
+		synchronized (meetLock) {
+			forwardHalf = meetForward;
+			backwardHalf = meetBackward;
+		}
+		if (forwardHalf == null) {
+			Debug.logWarning("Bidirectional search did not meet after " + forwardNodes + " forward and "
+					+ (backwardNodes == null ? "?" : backwardNodes) + " backward nodes");
+			return Optional.empty();
+		}
+
+		List<BlockNode> path = joinHalves(forwardHalf, backwardHalf);
+		Debug.logMessage("Bidirectional path found in " + (System.currentTimeMillis() - startTime) + "ms, "
+				+ forwardNodes + " forward and " + (backwardNodes == null ? "?" : backwardNodes)
+				+ " backward nodes. Length: " + path.size());
+		return Optional.of(path);
+	}
+
+	/**
+	 * Runs one half of the search until it is exhausted, times out, or cannot beat the best meeting point.
+	 * The last two also stop the other half.
+	 *
+	 * @return number of expanded nodes
+	 */
+	private int run(boolean forward) {
+		Map<Long, BlockNode> ownClosed = forward ? forwardClosed : backwardClosed;
+		Map<Long, BlockNode> otherClosed = forward ? backwardClosed : forwardClosed;
+		Goal goal = forward ? forwardGoal : backwardGoal;
+		Vec3d heuristicTarget = forward ? target : start.getPos();
+
+		BinaryHeapOpenSet<BlockNode> openSet = new BinaryHeapOpenSet<>();
+		LongDoubleHashMap bestCosts = new LongDoubleHashMap();
+
+		BlockNode root = forward ? start : new BlockNode(world, forwardGoal.x(), forwardGoal.y(), forwardGoal.z(), backwardGoal);
+		root.previous = null;
+		root.cost = 0;
+		root.estimatedCostToGoal = BlockSpacePathfinder.computeHeuristic(world, root.getPos(), heuristicTarget);
+		root.combinedCost = root.estimatedCostToGoal;
+		openSet.insert(root);
+		bestCosts.put(BlockPos.asLong(root.x, root.y, root.z), 0.0);
+
+		int numNodes = 0;
+		boolean exhausted = false;
+		try {
+			while (!finished.get()) {
+				if (openSet.isEmpty()) {
+					exhausted = true;
+					break;
+				}
+				if (TungstenMod.PATHFINDER.stop.get()) break;
+				if ((numNodes & (BlockSpacePathfindingConstants.TIME_CHECK_INTERVAL - 1)) == 0
+						&& System.currentTimeMillis() >= deadline) {
+					break;
+				}
+
+				BlockNode next = openSet.removeLowest();
+				// Nothing left on this frontier can beat the best meeting point
+				if (next.combinedCost >= bestMeetCost) break;
+
+				long key = BlockPos.asLong(next.x, next.y, next.z);
+				if (ownClosed.putIfAbsent(key, next) != null) continue;
+				numNodes++;
+				checkMeeting(forward, next, otherClosed.get(key));
+
+				List<BlockNode> neighbours = forward ? next.getChildren(world, goal, false) : next.getParents(world, goal);
+				for (BlockNode neighbour : neighbours) {
+					long neighbourKey = BlockPos.asLong(neighbour.x, neighbour.y, neighbour.z);
+					if (ownClosed.containsKey(neighbourKey)) continue;
+
+					double moveCost = forward ? edgeCost(next, neighbour) : edgeCost(neighbour, next);
+					neighbour.previous = next;
+					neighbour.cost = next.cost + moveCost;
+					neighbour.estimatedCostToGoal = BlockSpacePathfinder.computeHeuristic(world, neighbour.getPos(), heuristicTarget);
+					neighbour.combinedCost = neighbour.cost + neighbour.estimatedCostToGoal;
+
+					if (neighbour.cost < bestCosts.get(neighbourKey, Double.POSITIVE_INFINITY)) {
+						bestCosts.put(neighbourKey, neighbour.cost);
+						openSet.insert(neighbour);
+						checkMeeting(forward, neighbour, otherClosed.get(neighbourKey));
+					}
+				}
+			}
+		} finally {
+			if (!exhausted) finished.set(true);
+		}
+		return numNodes;
+	}
+
+	private void checkMeeting(boolean forward, BlockNode node, BlockNode other) {
+		if (other == null) return;
+		double cost = node.cost + other.cost;
+		if (cost >= bestMeetCost) return;
+		synchronized (meetLock) {
+			if (cost < bestMeetCost) {
+				bestMeetCost = cost;
+				meetForward = forward ? node : other;
+				meetBackward = forward ? other : node;
+			}
+		}
+	}
+
+	/**
+	 * Chains the forward half with the backward half, whose previous pointers lead towards the goal.
+	 */
+	private List<BlockNode> joinHalves(BlockNode forwardHalf, BlockNode backwardHalf) {
+		List<BlockNode> path = BlockSpacePathfinder.generatePath(forwardHalf);
+		BlockNode previous = forwardHalf;
+		for (BlockNode b = backwardHalf.previous; b != null; b = b.previous) {
+			BlockNode node = new BlockNode(world, b.x, b.y, b.z, forwardGoal, previous, 0);
+			node.cost = previous.cost + edgeCost(previous, node);
+			node.combinedCost = node.cost;
+			MovementTypeDetector.detect(world, previous, node).applyTo(node);
+			path.add(node);
+			previous = node;
+		}
+		return BlockSpacePathfinder.simplifyPath(path, world);
+	}
+
+	private double edgeCost(BlockNode from, BlockNode to) {
+		double distance = DistanceCalculator.getHorizontalEuclideanDistance(from.getPos(world, true), to.getPos(world, true));
+		// Same as BlockSpacePathfinder.updateNode, vertical moves count as one block
+		if (distance < 0.1) distance = 1.0;
+		return distance * CostConstants.BaseCosts.WALK_ONE_BLOCK_COST;
+	}
+}
@@ -76,9 +76,24 @@ public class BlockNode implements HeapNode {
 		this(x, y, z, goal, null, 0);
 	}
 
+	/**
+	 * Reads the blocks under the node from the client world, searches should pass their own world instead.
+	 */
 	public BlockNode(int x, int y, int z, Goal goal, BlockNode parent, double cost) {
+		this(TungstenMod.mc.world, x, y, z, goal, parent, cost);
+	}
+
+	public BlockNode(WorldView world, BlockPos pos, Goal goal) {
+		this(world, pos.getX(), pos.getY(), pos.getZ(), goal);
+	}
+
+	public BlockNode(WorldView world, int x, int y, int z, Goal goal) {
+		this(world, x, y, z, goal, null, 0);
+	}
+
+	public BlockNode(WorldView world, int x, int y, int z, Goal goal, BlockNode parent, double cost) {
 		this.previous = parent;
-		this.movementState = new MovementState(x, y, z);
+		this.movementState = new MovementState(world, new BlockPos(x, y, z));
 		this.wasOnSlime = movementState.wasOnSlime;
 		this.wasOnLadder = movementState.wasOnLadder;
 		this.cost = parent != null ? 0 : CostConstants.BaseCosts.COST_INFINITY;
@@ -122,10 +137,17 @@ public class BlockNode implements HeapNode {
 	}
 
 	public Vec3d getPos(boolean shift) {
+		return getPos(TungstenMod.mc.world, shift);
+	}
+
+	/**
+	 * @param world the world the ladder shift reads the node's blocks from
+	 */
+	public Vec3d getPos(WorldView world, boolean shift) {
 		if (shift) {
 			if (movementState.isDoingNeo())
 				return BlockPosShifter.shiftForStraightNeo(this, movementState.getNeoSide());
-			return BlockPosShifter.getPosOnLadder(this);
+			return BlockPosShifter.getPosOnLadder(world, this);
 		}
 		return new Vec3d(x, y, z);
 	}
@@ -178,6 +200,10 @@ public class BlockNode implements HeapNode {
 		return processor.processNode(this, world, goal, generateDeep);
 	}
 
+	public List<BlockNode> getParents(WorldView world, Goal goal) {
+		return processor.processParents(this, world, goal);
+	}
+
 	public static boolean wasCleared(WorldView world, BlockPos start, BlockPos end) {
 		return wasCleared(world, start, end, null, null);
 	}
@@ -53,6 +53,18 @@ public class BlockNodeProcessor {
         return children;
     }
 
+    /**
+     * Processes a node to get the nodes that can reach it in one move, for backward searches.
+     *
+     * @param node The node to process
+     * @param world The world view
+     * @param goal The goal of the backward search, used for the parents' heuristics
+     * @return List of valid parent nodes
+     */
+    public List<BlockNode> processParents(BlockNode node, WorldView world, Goal goal) {
+        return generator.generateParents(node, world, goal);
+    }
+
     /**
      * Validates if movement from one node to another is valid.
      *
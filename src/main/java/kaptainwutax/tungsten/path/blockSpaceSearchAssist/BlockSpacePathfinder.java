@@ -2,22 +2,26 @@ package kaptainwutax.tungsten.path.blockSpaceSearchAssist;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 import kaptainwutax.tungsten.Debug;
+import kaptainwutax.tungsten.concurrent.PathfindingExecutor;
 import kaptainwutax.tungsten.constants.pathfinding.BlockSpacePathfindingConstants;
 import kaptainwutax.tungsten.constants.pathfinding.CostConstants;
 import kaptainwutax.tungsten.constants.pathfinding.PathfindingConstants;
 import kaptainwutax.tungsten.helpers.DistanceCalculator;
+import kaptainwutax.tungsten.helpers.movement.ObscuredCellCache;
 import kaptainwutax.tungsten.helpers.movement.StraightMovementHelper;
+import kaptainwutax.tungsten.metrics.Counter;
+import kaptainwutax.tungsten.metrics.Metrics;
+import kaptainwutax.tungsten.metrics.Phase;
 import kaptainwutax.tungsten.path.common.BinaryHeapOpenSet;
-import kaptainwutax.tungsten.path.common.IOpenSet;
+import kaptainwutax.tungsten.path.common.LongDoubleHashMap;
+import kaptainwutax.tungsten.path.common.LongHashSet;
 import kaptainwutax.tungsten.TungstenMod;
 import kaptainwutax.tungsten.helpers.BlockShapeChecker;
 import kaptainwutax.tungsten.helpers.BlockStateChecker;
@@ -30,6 +34,31 @@ import net.minecraft.world.WorldView;
 public class BlockSpacePathfinder {
 	
 	private static volatile boolean active = false;
+
+	/** Bumped by every anytime search so refinements of an older search stop delivering paths */
+	private static final AtomicInteger ANYTIME_GENERATION = new AtomicInteger();
+
+	/**
+	 * Parameters of one A* pass.
+	 *
+	 * @param weight        heuristic weight, 1 for plain A*
+	 * @param deadline      time in milliseconds at which the pass gives up
+	 * @param incumbentCost cost of the best complete path so far, nodes that cannot beat it are pruned
+	 * @param background    refinement passes leave the renderers and chat alone
+	 */
+	private record SearchPass(double weight, long deadline, double incumbentCost, boolean background) {
+		static SearchPass foreground(double weight) {
+			return new SearchPass(weight, System.currentTimeMillis() + BlockSpacePathfindingConstants.PRIMARY_TIMEOUT_MS,
+					Double.POSITIVE_INFINITY, false);
+		}
+	}
+
+	/**
+	 * Outcome of one pass, complete when it reached the goal instead of falling back to bestSoFar.
+	 */
+	private record SearchResult(Optional<List<BlockNode>> path, double cost, boolean complete) {
+		static final SearchResult NONE = new SearchResult(Optional.empty(), Double.POSITIVE_INFINITY, false);
+	}
 	
 	public static void find(WorldView world, Vec3d target) {
 		if (active) return;
@@ -53,28 +82,98 @@ public class BlockSpacePathfinder {
 	}
 
 	public static Optional<List<BlockNode>> search(WorldView world, BlockNode start, Vec3d target) {
-		return search(world, start, target, false);
+		return search(world, start, target, false, SearchPass.foreground(1.0)).path();
+	}
+
+	/**
+	 * Same as {@link #search(WorldView, BlockNode, Vec3d)} as a background pass: leaves the renderers and
+	 * chat alone and never falls back to a partial path.
+	 *
+	 * @return the path, or empty if the goal was not reached before {@code deadline}
+	 */
+	public static Optional<List<BlockNode>> searchInBackground(WorldView world, BlockNode start, Vec3d target, long deadline) {
+		return search(world, start, target, false, new SearchPass(1.0, deadline, Double.POSITIVE_INFINITY, true)).path();
 	}
 	
 	private static Optional<List<BlockNode>> search(WorldView world, Vec3d target, boolean generateDeep) {
+		BlockPos startPos = getStartPos(world);
+		if (TungstenMod.bidirectionalBlockSearch && !generateDeep) {
+			Optional<List<BlockNode>> path = new BidirectionalBlockSearch(world, createStartNode(world, startPos, target), target).search();
+			if (path.isPresent() || TungstenMod.PATHFINDER.stop.get()) {
+				return path;
+			}
+		}
+		return search(world, createStartNode(world, startPos, target), target, generateDeep, SearchPass.foreground(1.0)).path();
+	}
+
+	/**
+	 * Anytime Weighted A*. Runs the first weight of {@link BlockSpacePathfindingConstants.Anytime#WEIGHT_SCHEDULE}
+	 * and returns its path right away, then keeps searching at the lower weights on the pathfinding pool until
+	 * the refinement budget runs out. Every complete path cheaper than the last one is handed to {@code onImproved}.
+	 */
+	public static Optional<List<BlockNode>> searchAnytime(WorldView world, Vec3d target, Consumer<List<BlockNode>> onImproved) {
+		int generation = ANYTIME_GENERATION.incrementAndGet();
+		double[] weights = BlockSpacePathfindingConstants.Anytime.WEIGHT_SCHEDULE;
+		BlockPos startPos = getStartPos(world);
+
+		SearchResult first = search(world, createStartNode(world, startPos, target), target, false, SearchPass.foreground(weights[0]));
+		if (weights.length > 1 && !TungstenMod.PATHFINDER.stop.get()) {
+			long deadline = System.currentTimeMillis() + BlockSpacePathfindingConstants.Anytime.REFINEMENT_BUDGET_MS;
+			PathfindingExecutor.getInstance().submitTask(() -> {
+				refine(world, startPos, target, first, deadline, generation, onImproved);
+				return null;
+			}, BlockSpacePathfindingConstants.Anytime.REFINEMENT_BUDGET_MS);
+		}
+		return first.path();
+	}
+
+	private static void refine(WorldView world, BlockPos startPos, Vec3d target, SearchResult first, long deadline,
+			int generation, Consumer<List<BlockNode>> onImproved) {
+		double[] weights = BlockSpacePathfindingConstants.Anytime.WEIGHT_SCHEDULE;
+		double incumbent = first.complete() ? first.cost() : Double.POSITIVE_INFINITY;
+		for (int i = 1; i < weights.length; i++) {
+			if (isStale(generation) || System.currentTimeMillis() >= deadline) return;
+
+			SearchResult result = search(world, createStartNode(world, startPos, target), target, false,
+					new SearchPass(weights[i], deadline, incumbent, true));
+			if (isStale(generation)) return;
+
+			if (result.complete() && result.cost() < incumbent) {
+				Debug.logMessage("Refined block path at weight " + weights[i] + ", cost " + String.format("%.2f", result.cost())
+						+ (Double.isInfinite(incumbent) ? "" : " (was " + String.format("%.2f", incumbent) + ")"));
+				incumbent = result.cost();
+				onImproved.accept(result.path().get());
+			}
+		}
+	}
+
+	private static boolean isStale(int generation) {
+		return generation != ANYTIME_GENERATION.get() || TungstenMod.PATHFINDER.stop.get();
+	}
+
+	static BlockPos getStartPos(WorldView world) {
 		ClientPlayerEntity player = Objects.requireNonNull(TungstenMod.mc.player);
 		BlockPos startPos = player.getBlockPos();
 		// If standing in a block, try starting from the block above
-		if (!world.getBlockState(startPos).isAir() && BlockShapeChecker.getShapeVolume(startPos) != 0) {
+		if (!world.getBlockState(startPos).isAir() && BlockShapeChecker.getShapeVolume(world, startPos) != 0) {
 			startPos = startPos.up();
 		}
-		return search(world, new BlockNode(startPos, new Goal((int)Math.floor(target.x), (int)Math.floor(target.y), (int)Math.floor(target.z))), target, generateDeep);
+		return startPos;
+	}
+
+	static BlockNode createStartNode(WorldView world, BlockPos startPos, Vec3d target) {
+		return new BlockNode(world, startPos, new Goal((int)Math.floor(target.x), (int)Math.floor(target.y), (int)Math.floor(target.z)));
 	}
 	
-	private static Optional<List<BlockNode>> search(WorldView world, BlockNode start, Vec3d target, boolean generateDeep) {
+	private static SearchResult search(WorldView world, BlockNode start, Vec3d target, boolean generateDeep, SearchPass pass) {
 		Goal goal = new Goal((int)Math.floor(target.x), (int)Math.floor(target.y), (int)Math.floor(target.z));
 		
         int numNodes = 0;
-        long startTime = System.currentTimeMillis();
-        long primaryTimeoutTime = startTime + BlockSpacePathfindingConstants.PRIMARY_TIMEOUT_MS;
 		
-		TungstenMod.RENDERERS.clear();
-		Debug.logMessage("Searching...");
+		if (!pass.background()) {
+			TungstenMod.RENDERERS.clear();
+			Debug.logMessage("Searching...");
+		}
 		
 		BlockNode[] bestSoFar = new BlockNode[PathfindingConstants.Coefficients.PATHFINDING_COEFFICIENTS.length];
 		double[] bestHeuristicSoFar = new double[PathfindingConstants.Coefficients.PATHFINDING_COEFFICIENTS.length];
@@ -84,72 +183,138 @@ public class BlockSpacePathfinder {
             bestSoFar[i] = start;
         }
 
-		IOpenSet<BlockNode> openSet = new BinaryHeapOpenSet<>();
-		Set<BlockNode> closed = new HashSet<>();
-		Map<Long, Double> bestCosts = new HashMap<>();
+		BinaryHeapOpenSet<BlockNode> openSet = new BinaryHeapOpenSet<>();
+		// Highest-cost frontier cut off by beam mode, re-expanded if the open set runs dry
+		BinaryHeapOpenSet<BlockNode> pruned = TungstenMod.blockSpaceBeamSearch ? new BinaryHeapOpenSet<>() : null;
+		LongHashSet closed = new LongHashSet();
+		LongDoubleHashMap bestCosts = new LongDoubleHashMap();
 		
 		start.cost = 0;
-		start.combinedCost = start.estimatedCostToGoal;
+		start.combinedCost = start.estimatedCostToGoal * pass.weight();
 		openSet.insert(start);
 		bestCosts.put(BlockPos.asLong(start.x, start.y, start.z), 0.0);
 		
-		while(!openSet.isEmpty()) {
+		while(!openSet.isEmpty() || restorePruned(openSet, pruned, closed, bestCosts)) {
 			if (TungstenMod.PATHFINDER.stop.get()) {
-				RenderHelper.clearRenderers();
-				return Optional.empty();
+				if (!pass.background()) RenderHelper.clearRenderers();
+				return SearchResult.NONE;
 			}
 
 			// Time check
 			if ((numNodes & (BlockSpacePathfindingConstants.TIME_CHECK_INTERVAL - 1)) == 0) { 
                 long now = System.currentTimeMillis();
-                if (now >= primaryTimeoutTime) {
-                	Debug.logWarning("Pathfinding timed out");
+                if (now >= pass.deadline()) {
+                	if (!pass.background()) Debug.logWarning("Pathfinding timed out");
                     break;
                 }
             }
 
 			BlockNode next = openSet.removeLowest();
 			
-			if (closed.contains(next)) continue;
-			closed.add(next);
+			long nextHash = BlockPos.asLong(next.x, next.y, next.z);
+			if (!closed.add(nextHash)) continue;
+			// Closed nodes are rejected before their cost is looked at, beam mode keeps the table to the frontier
+			if (pruned != null) bestCosts.remove(nextHash);
 			numNodes++;
+			Metrics.count(Counter.BLOCK_EXPANSIONS);
 			
-			if (TungstenMod.pauseKeyBinding.isPressed()) break;
+			if (TungstenMod.pauseKeyBinding != null && TungstenMod.pauseKeyBinding.isPressed()) break;
 			
 			if (isPathComplete(next, target)) {
-				TungstenMod.RENDERERS.clear();
+				long simplifyStart = Metrics.start();
 				List<BlockNode> path = simplifyPath(generatePath(next), world);
-				Debug.logMessage("Path found! Length: " + path.size());
-				return Optional.of(path);
+				Metrics.stop(Phase.SIMPLIFY, simplifyStart);
+				if (!pass.background()) {
+					TungstenMod.RENDERERS.clear();
+					Debug.logMessage("Path found! Length: " + path.size());
+					countTableStats(closed, bestCosts);
+				}
+				return new SearchResult(Optional.of(path), next.cost, true);
 			}
 			
-			RenderHelper.renderExploredNode(next);
+			if (!pass.background()) RenderHelper.renderExploredNode(next);
 
 			for (BlockNode child : next.getChildren(world, goal, generateDeep)) {
-				if (TungstenMod.PATHFINDER.stop.get()) return Optional.empty();
-				if (closed.contains(child)) continue;
-
-				updateNode(next, child, target);
-				
+				if (TungstenMod.PATHFINDER.stop.get()) return SearchResult.NONE;
 				long childHash = BlockPos.asLong(child.x, child.y, child.z);
-				Double bestCost = bestCosts.get(childHash);
+				if (closed.contains(childHash)) continue;
+
+				updateNode(world, next, child, target, pass.weight());
+				// Cannot beat the path an earlier anytime pass already found. The search heuristic overestimates,
+				// so this uses a lower bound on the remaining cost and never cuts off a cheaper path
+				if (child.cost + remainingCostLowerBound(child, target) >= pass.incumbentCost()) continue;
 				
-				if (bestCost == null || child.cost < bestCost) {
+				if (child.cost < bestCosts.get(childHash, Double.POSITIVE_INFINITY)) {
 					bestCosts.put(childHash, child.cost);
 					openSet.insert(child);
 					updateBestSoFar(child, bestSoFar, bestHeuristicSoFar, target);
 				}
 			}
+
+			if (pruned != null && openSet.size() > BlockSpacePathfindingConstants.Beam.MAX_OPEN_SET_SIZE) {
+				openSet.trimToSize(BlockSpacePathfindingConstants.Beam.TRIMMED_OPEN_SET_SIZE, pruned::insert);
+				if (pruned.size() > BlockSpacePathfindingConstants.Beam.MAX_PRUNED_SIZE) {
+					pruned.trimToSize(BlockSpacePathfindingConstants.Beam.MAX_PRUNED_SIZE, dropped -> forget(bestCosts, dropped));
+				}
+			}
 		}
 
 		if (openSet.isEmpty()) {
+			// A refinement that ran dry was cut off by the incumbent, there is nothing cheaper to find
+			if (pass.background() && !Double.isInfinite(pass.incumbentCost())) {
+				return SearchResult.NONE;
+			}
 			if (!generateDeep) {
-				return search(world, start, target, true);
+				return search(world, start, target, true, pass.background() ? pass : SearchPass.foreground(pass.weight()));
 			}
-			Debug.logWarning("Ran out of nodes");
+			if (!pass.background()) Debug.logWarning("Ran out of nodes");
+		}
+		if (pass.background()) {
+			return SearchResult.NONE;
 		}
+		countTableStats(closed, bestCosts);
 		
-        return bestSoFar(bestSoFar, start, world);
+        return new SearchResult(bestSoFar(bestSoFar, start, world), Double.POSITIVE_INFINITY, false);
+	}
+
+	/**
+	 * Moves the cheapest pruned nodes back into an empty open set, skipping ones that were
+	 * closed or superseded by a cheaper path since they were pruned.
+	 *
+	 * @return whether the open set has nodes again
+	 */
+	private static boolean restorePruned(BinaryHeapOpenSet<BlockNode> openSet, BinaryHeapOpenSet<BlockNode> pruned,
+			LongHashSet closed, LongDoubleHashMap bestCosts) {
+		if (pruned == null) return false;
+		int restored = 0;
+		while (!pruned.isEmpty() && restored < BlockSpacePathfindingConstants.Beam.TRIMMED_OPEN_SET_SIZE) {
+			BlockNode node = pruned.removeLowest();
+			long hash = BlockPos.asLong(node.x, node.y, node.z);
+			if (closed.contains(hash) || node.cost > bestCosts.get(hash, Double.POSITIVE_INFINITY)) continue;
+			openSet.insert(node);
+			restored++;
+		}
+		if (restored > 0) {
+			Debug.logInternal("Beam search restored " + restored + " pruned nodes, " + pruned.size() + " left");
+		}
+		return restored > 0;
+	}
+
+	/**
+	 * Removes the best cost of a node that is dropped for good, unless a cheaper node at the same position
+	 * holds it now. A later path to the position is then accepted again instead of being compared
+	 * against a node that no longer exists.
+	 */
+	private static void forget(LongDoubleHashMap bestCosts, BlockNode dropped) {
+		long hash = BlockPos.asLong(dropped.x, dropped.y, dropped.z);
+		if (bestCosts.get(hash, Double.POSITIVE_INFINITY) == dropped.cost) {
+			bestCosts.remove(hash);
+		}
+	}
+
+	private static void countTableStats(LongHashSet closed, LongDoubleHashMap bestCosts) {
+		Metrics.countProbes(closed.getStats());
+		Metrics.countProbes(bestCosts.getStats());
 	}
 	
 	private static Optional<List<BlockNode>> bestSoFar(BlockNode[] bestSoFar, BlockNode startNode, WorldView world) {
@@ -182,7 +347,7 @@ public class BlockSpacePathfinder {
         return Optional.empty();
     }
 	
-	private static double computeHeuristic(Vec3d position, Vec3d target) {
+	static double computeHeuristic(WorldView world, Vec3d position, Vec3d target) {
 	    double dx = position.x - target.x;
 	    double dy = position.y - target.y;
 	    double dz = position.z - target.z;
@@ -191,15 +356,27 @@ public class BlockSpacePathfinder {
 	    double cost = Math.sqrt(distSq) * BlockSpacePathfindingConstants.Heuristics.XZ_MULTIPLIER;
 	    
 	    // Add extra vertical cost for water to guide it better
-	    if (BlockStateChecker.isAnyWater(TungstenMod.mc.world.getBlockState(new BlockPos((int) position.x, (int) position.y, (int) position.z)))) {
+	    if (BlockStateChecker.isAnyWater(world.getBlockState(new BlockPos((int) position.x, (int) position.y, (int) position.z)))) {
 	    	cost += Math.abs(dy) * (BlockSpacePathfindingConstants.Heuristics.Y_MULTIPLIER_WATER - 1.0);
 	    }
 	    
 	    return cost * CostConstants.BaseCosts.WALK_ONE_BLOCK_COST;
 	}
 	
-	private static void updateNode(BlockNode current, BlockNode child, Vec3d target) {
-	    double distance = DistanceCalculator.getHorizontalEuclideanDistance(current.getPos(true), child.getPos(true));
+	/**
+	 * Never more than the cost of reaching {@code target} from {@code node}: every move costs at
+	 * least its horizontal distance, see {@link #updateNode}.
+	 */
+	private static double remainingCostLowerBound(BlockNode node, Vec3d target) {
+		double dx = node.getPos().x - target.x;
+		double dz = node.getPos().z - target.z;
+		// The goal test accepts any node in the goal column
+		double distance = Math.max(0.0, Math.sqrt(dx * dx + dz * dz) - 1.0);
+		return distance * CostConstants.BaseCosts.WALK_ONE_BLOCK_COST;
+	}
+
+	private static void updateNode(WorldView world, BlockNode current, BlockNode child, Vec3d target, double weight) {
+	    double distance = DistanceCalculator.getHorizontalEuclideanDistance(current.getPos(world, true), child.getPos(world, true));
 	    // If distance is 0 (e.g. vertical move), treat as 1 block cost for now to avoid zero cost cycles
 	    if (distance < 0.1) distance = 1.0;
 	    
@@ -207,12 +384,12 @@ public class BlockSpacePathfinder {
 	    
 	    double tentativeCost = current.cost + moveCost;
 	    
-	    double estimatedCostToGoal = computeHeuristic(child.getPos(), target);
+	    double estimatedCostToGoal = computeHeuristic(world, child.getPos(), target);
 
 	    child.previous = current;
 	    child.cost = tentativeCost;
 	    child.estimatedCostToGoal = estimatedCostToGoal;
-	    child.combinedCost = tentativeCost + estimatedCostToGoal;
+	    child.combinedCost = tentativeCost + estimatedCostToGoal * weight;
 	}
 	
 	private static void updateBestSoFar(BlockNode child, BlockNode[] bestSoFar, double[] bestHeuristicSoFar, Vec3d target) {
@@ -242,7 +419,7 @@ public class BlockSpacePathfinder {
         return node.getPos().squaredDistanceTo(target) < 1.5D; // Keep original Y tolerance
     }
 	
-	private static List<BlockNode> generatePath(BlockNode node) {
+	static List<BlockNode> generatePath(BlockNode node) {
 		List<BlockNode> path = new ArrayList<>();
 		BlockNode current = node;
 		
@@ -259,25 +436,44 @@ public class BlockSpacePathfinder {
 	 * Removes intermediate waypoints that lie on a straight walkable line.
 	 * Keeps the first and last nodes, and only retains intermediate nodes
 	 * where the straight-line check fails (i.e., direction changes or obstacles).
+	 * <p>
+	 * The farthest visible waypoint from each anchor is found by galloping ahead in doubling
+	 * steps and then binary searching between the last visible and the first blocked one, so
+	 * long straight stretches take a logarithmic number of line walks. Lines from different
+	 * anchors cross the same cells, their obscured checks are shared through one cache.
 	 */
-	private static List<BlockNode> simplifyPath(List<BlockNode> path, WorldView world) {
+	static List<BlockNode> simplifyPath(List<BlockNode> path, WorldView world) {
 		if (path.size() <= 2) return path;
 
+		ObscuredCellCache cells = new ObscuredCellCache();
 		List<BlockNode> simplified = new ArrayList<>();
 		simplified.add(path.getFirst());
 
 		int anchor = 0;
 		while (anchor < path.size() - 1) {
-			int farthest = anchor + 1;
-			for (int i = anchor + 2; i < path.size(); i++) {
-				if (StraightMovementHelper.isPossible(world, path.get(anchor).getBlockPos(), path.get(i).getBlockPos())) {
-					farthest = i;
+			BlockPos anchorPos = path.get(anchor).getBlockPos();
+			int visible = anchor + 1;
+			int blocked = path.size();
+			int step = 1;
+			while (visible + step < blocked) {
+				if (StraightMovementHelper.isPossible(world, anchorPos, path.get(visible + step).getBlockPos(), cells)) {
+					visible += step;
+					step <<= 1;
 				} else {
+					blocked = visible + step;
 					break;
 				}
 			}
-			simplified.add(path.get(farthest));
-			anchor = farthest;
+			while (blocked - visible > 1) {
+				int mid = (visible + blocked) >>> 1;
+				if (StraightMovementHelper.isPossible(world, anchorPos, path.get(mid).getBlockPos(), cells)) {
+					visible = mid;
+				} else {
+					blocked = mid;
+				}
+			}
+			simplified.add(path.get(visible));
+			anchor = visible;
 		}
 
 		return simplified;
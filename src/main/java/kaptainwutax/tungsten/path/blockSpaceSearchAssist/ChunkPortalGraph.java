@@ -0,0 +1,395 @@
+package kaptainwutax.tungsten.path.blockSpaceSearchAssist;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import it.unimi.dsi.fastutil.longs.Long2ByteOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import kaptainwutax.tungsten.TungstenMod;
+import kaptainwutax.tungsten.constants.pathfinding.BlockSpacePathfindingConstants;
+import kaptainwutax.tungsten.constants.pathfinding.CostConstants;
+import kaptainwutax.tungsten.helpers.BlockStateChecker;
+import kaptainwutax.tungsten.helpers.MovementHelper;
+import kaptainwutax.tungsten.world.BlockChangeNotifier;
+import kaptainwutax.tungsten.world.VoxelWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.Heightmap;
+import net.minecraft.world.WorldView;
+
+/**
+ * Abstract graph for HPA*: every loaded chunk column is summarized into portals on its borders,
+ * connected by precomputed walking costs inside the chunk and by single steps across borders.
+ * <p>
+ * A portal is the middle cell of a run of border cells that are standable on both sides of the
+ * border at the same heights. Intra-chunk costs come from a breadth-first walk over standable
+ * cells (step up one block, drop up to {@link BlockSpacePathfindingConstants.Hierarchical#MAX_DROP}),
+ * so they are an estimate: the block-space search refines the actual moves, parkour included.
+ * <p>
+ * Summaries are built lazily as the abstract search reaches a chunk and dropped when a block in
+ * the chunk changes, the chunk unloads or a neighbouring chunk loads. A change is only forgotten
+ * once a summary was rebuilt from a world that shows it, and everything is dropped when the graph
+ * is searched in another client world.
+ */
+public final class ChunkPortalGraph implements BlockChangeNotifier.Listener {
+
+	private static final int[][] STEPS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+
+	static final class Portal {
+		final int x, y, z;
+		/** The cell on the other side of the border this portal leads to */
+		final long crossing;
+		final List<Edge> edges = new ArrayList<>();
+
+		Portal(int x, int y, int z, long crossing) {
+			this.x = x;
+			this.y = y;
+			this.z = z;
+			this.crossing = crossing;
+		}
+
+		long key() {
+			return BlockPos.asLong(x, y, z);
+		}
+
+		boolean leadsTo(Portal other) {
+			return other.crossing == this.key() && this.crossing == other.key();
+		}
+
+		BlockPos getBlockPos() {
+			return new BlockPos(x, y, z);
+		}
+	}
+
+	record Edge(Portal to, double cost) {}
+
+	private final Long2ObjectOpenHashMap<List<Portal>> chunks = new Long2ObjectOpenHashMap<>();
+	/** Portals by cell, a cell on a corner or with several heights across the border holds more than one */
+	private final Long2ObjectOpenHashMap<List<Portal>> portalsByPos = new Long2ObjectOpenHashMap<>();
+	private final Set<Long> dirtyChunks = ConcurrentHashMap.newKeySet();
+	/** Client world the summaries were built in */
+	private WorldView boundWorld;
+
+	/**
+	 * Finds the abstract route from {@code start} to {@code goal} as the list of chunk entrances to pass,
+	 * ending with the goal itself. If the goal cannot be reached through loaded chunks the route ends at
+	 * the entrance closest to it.
+	 *
+	 * @return the route, or an empty list if start and goal share a chunk or no portal is reachable
+	 */
+	public synchronized List<BlockPos> findRoute(WorldView world, BlockPos start, BlockPos goal) {
+		TungstenMod.BLOCK_CHANGES.addListener(this);
+		WorldView client = VoxelWorld.clientWorldOf(world);
+		if (client != boundWorld) {
+			clear();
+			boundWorld = client;
+		}
+		dropDirtyChunks(VoxelWorld.isUpToDate(world));
+
+		long startChunk = ChunkPos.toLong(start.getX() >> 4, start.getZ() >> 4);
+		long goalChunk = ChunkPos.toLong(goal.getX() >> 4, goal.getZ() >> 4);
+		if (startChunk == goalChunk) return Collections.emptyList();
+
+		// Connect the start and goal cells to the portals of their own chunks
+		Map<Portal, Double> fromStart = costsToPortals(world, start, getPortals(world, startChunk));
+		Map<Portal, Double> toGoal = world.isChunkLoaded(goal.getX() >> 4, goal.getZ() >> 4)
+				? costsToPortals(world, goal, getPortals(world, goalChunk))
+				: Collections.emptyMap();
+
+		Map<Portal, Double> costs = new HashMap<>();
+		Map<Portal, Portal> parents = new HashMap<>();
+		PriorityQueue<Object[]> open = new PriorityQueue<>((a, b) -> Double.compare((double) a[1], (double) b[1]));
+		for (Map.Entry<Portal, Double> entry : fromStart.entrySet()) {
+			costs.put(entry.getKey(), entry.getValue());
+			open.add(new Object[] {entry.getKey(), entry.getValue() + heuristic(entry.getKey(), goal)});
+		}
+
+		Portal bestEnd = null;
+		double bestEndCost = Double.POSITIVE_INFINITY;
+		Portal closest = null;
+		double closestHeuristic = Double.POSITIVE_INFINITY;
+		int expansions = 0;
+
+		while (!open.isEmpty() && expansions < BlockSpacePathfindingConstants.Hierarchical.MAX_ABSTRACT_EXPANSIONS) {
+			if (TungstenMod.PATHFINDER.stop.get()) return Collections.emptyList();
+			Object[] entry = open.poll();
+			Portal portal = (Portal) entry[0];
+			double cost = costs.get(portal);
+			if ((double) entry[1] > cost + heuristic(portal, goal) + 1e-9) continue;
+			if ((double) entry[1] >= bestEndCost) break;
+			expansions++;
+
+			Double finish = toGoal.get(portal);
+			if (finish != null && cost + finish < bestEndCost) {
+				bestEndCost = cost + finish;
+				bestEnd = portal;
+			}
+			double h = heuristic(portal, goal);
+			if (h < closestHeuristic) {
+				closestHeuristic = h;
+				closest = portal;
+			}
+
+			// Make sure the chunk across the border is summarized so the crossing edge exists
+			long crossingChunk = ChunkPos.toLong(BlockPos.unpackLongX(portal.crossing) >> 4, BlockPos.unpackLongZ(portal.crossing) >> 4);
+			getPortals(world, crossingChunk);
+
+			for (Edge edge : portal.edges) {
+				double newCost = cost + edge.cost();
+				Double known = costs.get(edge.to());
+				if (known == null || newCost < known) {
+					costs.put(edge.to(), newCost);
+					parents.put(edge.to(), portal);
+					open.add(new Object[] {edge.to(), newCost + heuristic(edge.to(), goal)});
+				}
+			}
+		}
+
+		Portal end = bestEnd != null ? bestEnd : closest;
+		if (end == null) return Collections.emptyList();
+
+		List<BlockPos> route = new ArrayList<>();
+		for (Portal p = end; p != null; p = parents.get(p)) {
+			// Only entrances into a new chunk are kept, the exit on the other side is one step away
+			Portal parent = parents.get(p);
+			if (parent == null || chunkOf(parent) != chunkOf(p)) {
+				route.add(p.getBlockPos());
+			}
+		}
+		Collections.reverse(route);
+		if (bestEnd != null) {
+			route.add(goal);
+		}
+		return route;
+	}
+
+	public synchronized void clear() {
+		chunks.clear();
+		portalsByPos.clear();
+		dirtyChunks.clear();
+	}
+
+	@Override
+	public void onBlockChanged(int x, int y, int z) {
+		dirtyChunks.add(ChunkPos.toLong(x >> 4, z >> 4));
+	}
+
+	@Override
+	public void onChunkUnloaded(int chunkX, int chunkZ) {
+		dirtyChunks.add(ChunkPos.toLong(chunkX, chunkZ));
+	}
+
+	@Override
+	public void onChunkLoaded(int chunkX, int chunkZ) {
+		dirtyChunks.add(ChunkPos.toLong(chunkX, chunkZ));
+		// Neighbours may have border runs that only exist now that this side is loaded
+		for (int[] step : STEPS) {
+			dirtyChunks.add(ChunkPos.toLong(chunkX + step[0], chunkZ + step[1]));
+		}
+	}
+
+	/**
+	 * Drops the summaries of every changed chunk. The changes are only forgotten if {@code current},
+	 * summaries rebuilt from an older snapshot would miss them and are dropped again on the next call.
+	 */
+	private void dropDirtyChunks(boolean current) {
+		for (Iterator<Long> iterator = dirtyChunks.iterator(); iterator.hasNext(); ) {
+			long chunk = iterator.next();
+			if (current) iterator.remove();
+			List<Portal> portals = chunks.remove(chunk);
+			if (portals == null) continue;
+			for (Portal portal : portals) {
+				List<Portal> atPos = portalsByPos.get(portal.key());
+				if (atPos != null) {
+					atPos.remove(portal);
+					if (atPos.isEmpty()) portalsByPos.remove(portal.key());
+				}
+				for (Edge edge : portal.edges) {
+					edge.to().edges.removeIf(back -> back.to() == portal);
+				}
+			}
+		}
+	}
+
+	private List<Portal> getPortals(WorldView world, long chunk) {
+		List<Portal> portals = chunks.get(chunk);
+		if (portals != null) return portals;
+		int chunkX = ChunkPos.getPackedX(chunk);
+		int chunkZ = ChunkPos.getPackedZ(chunk);
+		if (!world.isChunkLoaded(chunkX, chunkZ)) return Collections.emptyList();
+
+		portals = buildPortals(world, chunkX, chunkZ);
+		chunks.put(chunk, portals);
+
+		// Intra-chunk edges
+		for (Portal portal : portals) {
+			Map<Portal, Double> reachable = costsToPortals(world, portal.getBlockPos(), portals);
+			for (Map.Entry<Portal, Double> entry : reachable.entrySet()) {
+				if (entry.getKey() != portal) {
+					portal.edges.add(new Edge(entry.getKey(), entry.getValue()));
+				}
+			}
+		}
+		// Crossing edges to already summarized neighbours
+		for (Portal portal : portals) {
+			portalsByPos.computeIfAbsent(portal.key(), key -> new ArrayList<>()).add(portal);
+			for (Portal other : portalsByPos.getOrDefault(portal.crossing, Collections.emptyList())) {
+				if (portal.leadsTo(other)) {
+					portal.edges.add(new Edge(other, CostConstants.BaseCosts.WALK_ONE_BLOCK_COST));
+					other.edges.add(new Edge(portal, CostConstants.BaseCosts.WALK_ONE_BLOCK_COST));
+				}
+			}
+		}
+		return portals;
+	}
+
+	private List<Portal> buildPortals(WorldView world, int chunkX, int chunkZ) {
+		List<Portal> portals = new ArrayList<>();
+		int minX = chunkX << 4;
+		int minZ = chunkZ << 4;
+		Long2ByteOpenHashMap standable = new Long2ByteOpenHashMap();
+		// Each side: inside cell, outside cell, walking along the border
+		buildSide(world, portals, standable, minX, minZ, 1, 0, 0, -1);
+		buildSide(world, portals, standable, minX, minZ + 15, 1, 0, 0, 1);
+		buildSide(world, portals, standable, minX, minZ, 0, 1, -1, 0);
+		buildSide(world, portals, standable, minX + 15, minZ, 0, 1, 1, 0);
+		return portals;
+	}
+
+	/**
+	 * Groups the border cells into runs that are standable on both sides at the same pair of heights,
+	 * and places a portal in the middle of each run. The neighbouring chunk finds the same runs from
+	 * its side, so both portals of a crossing point at each other.
+	 */
+	private void buildSide(WorldView world, List<Portal> portals, Long2ByteOpenHashMap standable,
+			int originX, int originZ, int alongX, int alongZ, int outX, int outZ) {
+		Map<Long, int[]> runs = new HashMap<>();
+		for (int i = 0; i < 16; i++) {
+			int x = originX + alongX * i;
+			int z = originZ + alongZ * i;
+			int ox = x + outX;
+			int oz = z + outZ;
+			if (!world.isChunkLoaded(ox >> 4, oz >> 4)) continue;
+
+			for (int y : candidateHeights(world, x, z)) {
+				if (!isStandable(world, standable, x, y, z)) continue;
+				for (int dy = -1; dy <= 1; dy++) {
+					if (!isStandable(world, standable, ox, y + dy, oz)) continue;
+					long heights = ((long) y << 32) | ((y + dy) & 0xFFFFFFFFL);
+					int[] run = runs.get(heights);
+					if (run != null && run[1] == i - 1) {
+						run[1] = i;
+					} else {
+						if (run != null) addPortal(portals, run, heights, originX, originZ, alongX, alongZ, outX, outZ);
+						runs.put(heights, new int[] {i, i});
+					}
+				}
+			}
+		}
+		for (Map.Entry<Long, int[]> entry : runs.entrySet()) {
+			addPortal(portals, entry.getValue(), entry.getKey(), originX, originZ, alongX, alongZ, outX, outZ);
+		}
+	}
+
+	private static void addPortal(List<Portal> portals, int[] run, long heights,
+			int originX, int originZ, int alongX, int alongZ, int outX, int outZ) {
+		int i = (run[0] + run[1]) / 2;
+		int x = originX + alongX * i;
+		int z = originZ + alongZ * i;
+		int y = (int) (heights >> 32);
+		int outY = (int) heights;
+		portals.add(new Portal(x, y, z, BlockPos.asLong(x + outX, outY, z + outZ)));
+	}
+
+	/**
+	 * Walks over standable cells inside the chunk of {@code from} and returns the cost to each portal reached.
+	 */
+	private Map<Portal, Double> costsToPortals(WorldView world, BlockPos from, List<Portal> portals) {
+		Map<Portal, Double> result = new HashMap<>();
+		if (portals.isEmpty()) return result;
+
+		Long2ObjectOpenHashMap<List<Portal>> targets = new Long2ObjectOpenHashMap<>();
+		for (Portal portal : portals) targets.computeIfAbsent(portal.key(), key -> new ArrayList<>()).add(portal);
+
+		int chunkX = from.getX() >> 4;
+		int chunkZ = from.getZ() >> 4;
+		Long2ByteOpenHashMap standable = new Long2ByteOpenHashMap();
+		Long2IntOpenHashMap distance = new Long2IntOpenHashMap();
+		ArrayDeque<Long> queue = new ArrayDeque<>();
+		long origin = from.asLong();
+		distance.put(origin, 0);
+		queue.add(origin);
+
+		while (!queue.isEmpty() && result.size() < portals.size()) {
+			long cell = queue.poll();
+			int steps = distance.get(cell);
+			List<Portal> reached = targets.get(cell);
+			if (reached != null) {
+				for (Portal portal : reached) {
+					result.put(portal, steps * CostConstants.BaseCosts.WALK_ONE_BLOCK_COST);
+				}
+			}
+
+			int x = BlockPos.unpackLongX(cell);
+			int y = BlockPos.unpackLongY(cell);
+			int z = BlockPos.unpackLongZ(cell);
+			for (int[] step : STEPS) {
+				int nx = x + step[0];
+				int nz = z + step[1];
+				if (nx >> 4 != chunkX || nz >> 4 != chunkZ) continue;
+				for (int dy = 1; dy >= -BlockSpacePathfindingConstants.Hierarchical.MAX_DROP; dy--) {
+					long next = BlockPos.asLong(nx, y + dy, nz);
+					if (distance.containsKey(next)) continue;
+					if (isStandable(world, standable, nx, y + dy, nz)) {
+						distance.put(next, steps + 1);
+						queue.add(next);
+						break;
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	private static int[] candidateHeights(WorldView world, int x, int z) {
+		int top = world.getTopY(Heightmap.Type.MOTION_BLOCKING, x, z);
+		int bottom = Math.max(world.getBottomY() + 1, top - BlockSpacePathfindingConstants.Hierarchical.SCAN_DEPTH);
+		int[] heights = new int[Math.max(0, top - bottom + 1)];
+		for (int i = 0; i < heights.length; i++) {
+			heights[i] = top - i;
+		}
+		return heights;
+	}
+
+	private static boolean isStandable(WorldView world, Long2ByteOpenHashMap cache, int x, int y, int z) {
+		long key = BlockPos.asLong(x, y, z);
+		byte cached = cache.getOrDefault(key, (byte) -1);
+		if (cached >= 0) return cached == 1;
+
+		BlockPos pos = new BlockPos(x, y, z);
+		boolean result = BlockStateChecker.fullyPassableBlockState(world.getBlockState(pos)) == Ternary.YES
+				&& BlockStateChecker.fullyPassableBlockState(world.getBlockState(pos.up())) == Ternary.YES
+				&& MovementHelper.canWalkOnBlockState(world.getBlockState(pos.down())) == Ternary.YES;
+		cache.put(key, (byte) (result ? 1 : 0));
+		return result;
+	}
+
+	private static long chunkOf(Portal portal) {
+		return ChunkPos.toLong(portal.x >> 4, portal.z >> 4);
+	}
+
+	private static double heuristic(Portal portal, BlockPos goal) {
+		double dx = portal.x - goal.getX();
+		double dz = portal.z - goal.getZ();
+		return Math.sqrt(dx * dx + dz * dz) * CostConstants.BaseCosts.WALK_ONE_BLOCK_COST;
+	}
+}
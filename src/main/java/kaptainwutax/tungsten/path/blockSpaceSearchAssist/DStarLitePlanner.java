@@ -0,0 +1,437 @@
+package kaptainwutax.tungsten.path.blockSpaceSearchAssist;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import kaptainwutax.tungsten.Debug;
+import kaptainwutax.tungsten.TungstenMod;
+import kaptainwutax.tungsten.constants.pathfinding.BlockSpacePathfindingConstants;
+import kaptainwutax.tungsten.constants.pathfinding.CostConstants;
+import kaptainwutax.tungsten.path.blockSpaceSearchAssist.generation.BlockNodeGenerator;
+import kaptainwutax.tungsten.path.blockSpaceSearchAssist.movement.MovementTypeDetector;
+import kaptainwutax.tungsten.world.BlockChangeNotifier;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.WorldView;
+
+/**
+ * Incremental block-space planner based on D* Lite.
+ * <p>
+ * The search runs backwards from the goal, so g values are costs-to-goal and stay valid while
+ * the player moves along the route. Block changes reported through {@link TungstenMod#BLOCK_CHANGES}
+ * are queued and applied on the next {@link #replan}: only vertices near a changed block get their
+ * edges regenerated, and the search repairs the affected region instead of starting over.
+ * <p>
+ * Edges come from {@link BlockNodeGenerator}, forward successors to recompute rhs values and
+ * {@link BlockNodeGenerator#generateParents} to expand backwards. Checks that depend on the move
+ * before the current one (slime bounces, long jump clearance) are evaluated without that history.
+ */
+public class DStarLitePlanner implements BlockChangeNotifier.Listener {
+
+	private static final double INFINITY = Double.POSITIVE_INFINITY;
+
+	private static final class Vertex {
+		final BlockNode node;
+		double g = INFINITY;
+		double rhs = INFINITY;
+		/** Successor on the best known route to the goal */
+		Vertex next;
+		Vertex[] preds;
+		double[] predCosts;
+		Vertex[] succs;
+		double[] succCosts;
+		/** Bumped whenever the vertex is (re)queued or dequeued, older queue entries are skipped */
+		int queueStamp;
+
+		Vertex(BlockNode node) {
+			this.node = node;
+		}
+	}
+
+	private record QueueEntry(Vertex vertex, double k1, double k2, int stamp) {}
+
+	private final BlockNodeGenerator generator = new BlockNodeGenerator();
+	private final Long2ObjectOpenHashMap<Vertex> vertices = new Long2ObjectOpenHashMap<>();
+	private final PriorityQueue<QueueEntry> queue = new PriorityQueue<>((a, b) -> {
+		int c = Double.compare(a.k1, b.k1);
+		return c != 0 ? c : Double.compare(a.k2, b.k2);
+	});
+	private final ConcurrentLinkedQueue<Long> changedBlocks = new ConcurrentLinkedQueue<>();
+	private final ConcurrentLinkedQueue<Long> loadedChunks = new ConcurrentLinkedQueue<>();
+
+	private volatile boolean active = false;
+	private WorldView world;
+	private Goal goal;
+	private Vertex start;
+	private Vertex goalVertex;
+	private double km;
+	private List<Vertex> route = Collections.emptyList();
+
+	/**
+	 * Plans a fresh route from the player to {@code target}, discarding any previous search graph.
+	 */
+	public synchronized Optional<List<BlockNode>> plan(WorldView world, BlockPos startPos, Vec3d target) {
+		TungstenMod.BLOCK_CHANGES.addListener(this);
+		reset();
+		this.world = world;
+		this.goal = new Goal((int) Math.floor(target.x), (int) Math.floor(target.y), (int) Math.floor(target.z));
+		this.goalVertex = vertex(goal.x(), goal.y(), goal.z());
+		this.start = vertex(startPos.getX(), startPos.getY(), startPos.getZ());
+		this.active = true;
+
+		long startTime = System.currentTimeMillis();
+		goalVertex.rhs = 0;
+		push(goalVertex);
+		if (!computeShortestPath(startTime + BlockSpacePathfindingConstants.PRIMARY_TIMEOUT_MS)) {
+			Debug.logWarning("Incremental planner found no path (" + vertices.size() + " vertices)");
+			return Optional.empty();
+		}
+
+		this.route = extractRoute();
+		Debug.logMessage("Incremental planner found a path in " + (System.currentTimeMillis() - startTime)
+				+ "ms with " + vertices.size() + " vertices");
+		return route.isEmpty() ? Optional.empty() : Optional.of(toBlockPath(route));
+	}
+
+	public boolean hasPendingChanges() {
+		return active && (!changedBlocks.isEmpty() || !loadedChunks.isEmpty());
+	}
+
+	/**
+	 * Applies the queued block changes and repairs the search from the vertex under {@code currentPos}.
+	 *
+	 * @return the new route, or empty if the route did not change or could not be repaired in time
+	 */
+	public synchronized Optional<List<BlockNode>> replan(Vec3d currentPos) {
+		return replan(world, currentPos);
+	}
+
+	/**
+	 * Same as {@link #replan(Vec3d)}, reading blocks from {@code world} from now on, e.g. a newer snapshot.
+	 */
+	public synchronized Optional<List<BlockNode>> replan(WorldView world, Vec3d currentPos) {
+		this.world = world;
+		if (!active) return Optional.empty();
+		long startTime = System.currentTimeMillis();
+
+		moveStart(BlockPos.ofFloored(currentPos));
+		int repaired = applyChanges();
+		if (repaired == 0) return Optional.empty();
+
+		if (!computeShortestPath(startTime + BlockSpacePathfindingConstants.Incremental.REPLAN_TIMEOUT_MS)) {
+			Debug.logWarning("Incremental replan did not converge, keeping the current route");
+			return Optional.empty();
+		}
+
+		List<Vertex> newRoute = extractRoute();
+		if (newRoute.isEmpty() || newRoute.equals(route)) return Optional.empty();
+		this.route = newRoute;
+		Debug.logMessage("Replanned block path, " + repaired + " vertices repaired in "
+				+ (System.currentTimeMillis() - startTime) + "ms");
+		return Optional.of(toBlockPath(newRoute));
+	}
+
+	public synchronized void reset() {
+		active = false;
+		vertices.clear();
+		queue.clear();
+		changedBlocks.clear();
+		loadedChunks.clear();
+		route = Collections.emptyList();
+		start = null;
+		goalVertex = null;
+		km = 0;
+	}
+
+	@Override
+	public void onBlockChanged(int x, int y, int z) {
+		if (active) changedBlocks.add(BlockPos.asLong(x, y, z));
+	}
+
+	@Override
+	public void onChunkLoaded(int chunkX, int chunkZ) {
+		if (active) loadedChunks.add(ChunkPos.toLong(chunkX, chunkZ));
+	}
+
+	private void moveStart(BlockPos pos) {
+		if (start.node.x == pos.getX() && start.node.y == pos.getY() && start.node.z == pos.getZ()) return;
+		Vertex candidate = vertex(pos.getX(), pos.getY(), pos.getZ());
+		if (candidate != goalVertex && candidate.rhs == INFINITY) {
+			updateVertex(candidate);
+		}
+		// Mid-air or otherwise off the graph, keep repairing from the last known start
+		if (candidate.rhs == INFINITY && candidate.g == INFINITY) return;
+		km += heuristic(start, candidate);
+		start = candidate;
+	}
+
+	/**
+	 * Drops the cached edges of every vertex near a changed block and recomputes their rhs values.
+	 *
+	 * @return number of vertices repaired
+	 */
+	private int applyChanges() {
+		List<long[]> boxes = new ArrayList<>();
+		int radius = BlockSpacePathfindingConstants.Incremental.CHANGE_RADIUS;
+		int yRadius = BlockSpacePathfindingConstants.Incremental.CHANGE_Y_RADIUS;
+		Long changed;
+		while ((changed = changedBlocks.poll()) != null) {
+			int x = BlockPos.unpackLongX(changed);
+			int y = BlockPos.unpackLongY(changed);
+			int z = BlockPos.unpackLongZ(changed);
+			boxes.add(new long[] {x - radius, y - yRadius, z - radius, x + radius, y + yRadius, z + radius});
+		}
+		while ((changed = loadedChunks.poll()) != null) {
+			int minX = ChunkPos.getPackedX(changed) << 4;
+			int minZ = ChunkPos.getPackedZ(changed) << 4;
+			boxes.add(new long[] {minX - radius, Integer.MIN_VALUE, minZ - radius, minX + 15 + radius, Integer.MAX_VALUE, minZ + 15 + radius});
+		}
+		if (boxes.isEmpty()) return 0;
+
+		List<Vertex> affected = new ArrayList<>();
+		for (Vertex v : vertices.values()) {
+			BlockNode n = v.node;
+			for (long[] box : boxes) {
+				if (n.x >= box[0] && n.y >= box[1] && n.z >= box[2] && n.x <= box[3] && n.y <= box[4] && n.z <= box[5]) {
+					affected.add(v);
+					break;
+				}
+			}
+		}
+
+		// The boxes cover every parent whose edges read a changed block, but a parent outside them can
+		// still have a cached edge into an affected vertex, and an affected one into a vertex outside
+		Set<Vertex> affectedSet = Collections.newSetFromMap(new IdentityHashMap<>());
+		affectedSet.addAll(affected);
+		List<Vertex> linked = new ArrayList<>();
+		for (Vertex v : vertices.values()) {
+			if (affectedSet.contains(v)) continue;
+			if (linksInto(v.preds, affectedSet)) {
+				v.preds = null;
+				v.predCosts = null;
+			}
+			if (linksInto(v.succs, affectedSet)) {
+				v.succs = null;
+				v.succCosts = null;
+				linked.add(v);
+			}
+		}
+		for (Vertex v : affected) {
+			v.succs = null;
+			v.succCosts = null;
+			v.preds = null;
+			v.predCosts = null;
+		}
+		for (Vertex v : affected) {
+			updateVertex(v);
+		}
+		for (Vertex v : linked) {
+			updateVertex(v);
+		}
+		return affected.size() + linked.size();
+	}
+
+	private static boolean linksInto(Vertex[] edges, Set<Vertex> targets) {
+		if (edges == null) return false;
+		for (Vertex target : edges) {
+			if (targets.contains(target)) return true;
+		}
+		return false;
+	}
+
+	private boolean computeShortestPath(long deadline) {
+		int iterations = 0;
+		while (true) {
+			if (start.g == start.rhs && start.g != INFINITY && !queueTopBefore(start)) {
+				return true;
+			}
+			QueueEntry top = queue.poll();
+			if (top == null) {
+				return start.g != INFINITY && start.g == start.rhs;
+			}
+			Vertex u = top.vertex;
+			if (top.stamp != u.queueStamp) continue;
+			u.queueStamp++;
+
+			if ((++iterations & (BlockSpacePathfindingConstants.TIME_CHECK_INTERVAL - 1)) == 0) {
+				if (TungstenMod.PATHFINDER.stop.get() || System.currentTimeMillis() >= deadline
+						|| vertices.size() > BlockSpacePathfindingConstants.Incremental.MAX_VERTICES) {
+					push(u);
+					return false;
+				}
+			}
+
+			double k1 = key1(u);
+			double k2 = key2(u);
+			if (top.k1 < k1 || (top.k1 == k1 && top.k2 < k2)) {
+				push(u);
+			} else if (u.g > u.rhs) {
+				u.g = u.rhs;
+				ensurePreds(u);
+				for (int i = 0; i < u.preds.length; i++) {
+					relax(u.preds[i], u, u.predCosts[i]);
+				}
+			} else {
+				u.g = INFINITY;
+				updateVertex(u);
+				ensurePreds(u);
+				for (Vertex p : u.preds) {
+					if (p.next == u) updateVertex(p);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return whether the lowest queued key is still below the key of {@code v}
+	 */
+	private boolean queueTopBefore(Vertex v) {
+		QueueEntry top;
+		while ((top = queue.peek()) != null && top.stamp != top.vertex.queueStamp) {
+			queue.poll();
+		}
+		if (top == null) return false;
+		double k1 = key1(v);
+		return top.k1 < k1 || (top.k1 == k1 && top.k2 < key2(v));
+	}
+
+	/**
+	 * Cheaper variant of {@link #updateVertex} for when only the edge to {@code u} got better.
+	 */
+	private void relax(Vertex p, Vertex u, double cost) {
+		if (p == goalVertex) return;
+		double candidate = u.g + cost;
+		if (candidate < p.rhs) {
+			p.rhs = candidate;
+			p.next = u;
+			requeue(p);
+		}
+	}
+
+	private void updateVertex(Vertex v) {
+		if (v != goalVertex) {
+			ensureSuccs(v);
+			v.rhs = INFINITY;
+			v.next = null;
+			for (int i = 0; i < v.succs.length; i++) {
+				double candidate = v.succs[i].g + v.succCosts[i];
+				if (candidate < v.rhs) {
+					v.rhs = candidate;
+					v.next = v.succs[i];
+				}
+			}
+		}
+		requeue(v);
+	}
+
+	private void requeue(Vertex v) {
+		v.queueStamp++;
+		if (v.g != v.rhs) push(v);
+	}
+
+	private void push(Vertex v) {
+		queue.add(new QueueEntry(v, key1(v), key2(v), v.queueStamp));
+	}
+
+	private double key1(Vertex v) {
+		return Math.min(v.g, v.rhs) + heuristic(start, v) + km;
+	}
+
+	private double key2(Vertex v) {
+		return Math.min(v.g, v.rhs);
+	}
+
+	private void ensureSuccs(Vertex v) {
+		if (v.succs != null) return;
+		List<BlockNode> children = generator.generateChildren(v.node, world, goal, false);
+		v.succs = new Vertex[children.size()];
+		v.succCosts = new double[children.size()];
+		for (int i = 0; i < children.size(); i++) {
+			BlockNode child = children.get(i);
+			v.succs[i] = vertex(child.x, child.y, child.z);
+			v.succCosts[i] = edgeCost(v.node, child);
+		}
+	}
+
+	private void ensurePreds(Vertex v) {
+		if (v.preds != null) return;
+		List<BlockNode> parents = generator.generateParents(v.node, world, goal);
+		v.preds = new Vertex[parents.size()];
+		v.predCosts = new double[parents.size()];
+		for (int i = 0; i < parents.size(); i++) {
+			BlockNode parent = parents.get(i);
+			v.preds[i] = vertex(parent.x, parent.y, parent.z);
+			v.predCosts[i] = edgeCost(parent, v.node);
+		}
+	}
+
+	private Vertex vertex(int x, int y, int z) {
+		long key = BlockPos.asLong(x, y, z);
+		Vertex v = vertices.get(key);
+		if (v == null) {
+			v = new Vertex(new BlockNode(world, x, y, z, goal));
+			vertices.put(key, v);
+		}
+		return v;
+	}
+
+	/**
+	 * Same move cost as the A* search, horizontal distance with vertical moves counting as one block.
+	 */
+	private static double edgeCost(BlockNode from, BlockNode to) {
+		double distance = horizontalDistance(from, to);
+		if (distance < 0.1) distance = 1.0;
+		return distance * CostConstants.BaseCosts.WALK_ONE_BLOCK_COST;
+	}
+
+	/**
+	 * Horizontal distance never overestimates {@link #edgeCost}, so the heuristic stays consistent as km requires.
+	 */
+	private static double heuristic(Vertex a, Vertex b) {
+		return horizontalDistance(a.node, b.node) * CostConstants.BaseCosts.WALK_ONE_BLOCK_COST;
+	}
+
+	private static double horizontalDistance(BlockNode a, BlockNode b) {
+		double dx = a.x - b.x;
+		double dz = a.z - b.z;
+		return Math.sqrt(dx * dx + dz * dz);
+	}
+
+	private List<Vertex> extractRoute() {
+		if (start.g == INFINITY) return Collections.emptyList();
+		List<Vertex> result = new ArrayList<>();
+		Vertex current = start;
+		while (current != null && result.size() <= vertices.size()) {
+			result.add(current);
+			if (current == goalVertex) return result;
+			current = current.next;
+		}
+		return Collections.emptyList();
+	}
+
+	private List<BlockNode> toBlockPath(List<Vertex> vertexRoute) {
+		List<BlockNode> path = new ArrayList<>(vertexRoute.size());
+		BlockNode previous = null;
+		for (Vertex v : vertexRoute) {
+			BlockNode node = new BlockNode(world, v.node.x, v.node.y, v.node.z, goal, previous, 0);
+			if (previous != null) {
+				node.cost = previous.cost + edgeCost(previous, node);
+				MovementTypeDetector.detect(world, previous, node).applyTo(node);
+			} else {
+				node.cost = 0;
+			}
+			node.combinedCost = node.cost + node.estimatedCostToGoal;
+			path.add(node);
+			previous = node;
+		}
+		return BlockSpacePathfinder.simplifyPath(path, world);
+	}
+}
@@ -0,0 +1,110 @@
+package kaptainwutax.tungsten.path.blockSpaceSearchAssist;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import kaptainwutax.tungsten.Debug;
+import kaptainwutax.tungsten.concurrent.PathfindingExecutor;
+import kaptainwutax.tungsten.constants.pathfinding.BlockSpacePathfindingConstants;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.WorldView;
+
+/**
+ * HPA* on top of {@link BlockSpacePathfinder}. The {@link ChunkPortalGraph} is searched first for the
+ * chunk entrances between start and goal, then the block-space search only refines the next
+ * {@link BlockSpacePathfindingConstants.Hierarchical#SEGMENTS_PER_REFINEMENT} waypoints at a time.
+ * Later segments are refined one ahead on the pathfinding pool, from the end of the previous one,
+ * and only handed out once the goal of the segment was reached.
+ */
+public class HierarchicalBlockPlanner {
+
+	private final ChunkPortalGraph graph = new ChunkPortalGraph();
+
+	private List<BlockPos> waypoints = Collections.emptyList();
+	private int nextWaypoint = 0;
+	private Vec3d target;
+	/** Refinement of the next segment running in the background, null when none was started */
+	private CompletableFuture<Optional<List<BlockNode>>> pending;
+
+	/**
+	 * Plans the abstract route and refines its first segment.
+	 *
+	 * @return the first block path segment, or empty if start and goal share a chunk or there is no abstract route,
+	 *         in which case the caller should fall back to a plain block-space search
+	 */
+	public Optional<List<BlockNode>> plan(WorldView world, BlockPos startPos, Vec3d target) {
+		reset();
+		long startTime = System.currentTimeMillis();
+		BlockPos goalPos = BlockPos.ofFloored(target);
+		List<BlockPos> route = graph.findRoute(world, startPos, goalPos);
+		if (route.isEmpty()) return Optional.empty();
+
+		this.waypoints = route;
+		this.target = target;
+		Debug.logMessage("Abstract route through " + route.size() + " waypoints found in "
+				+ (System.currentTimeMillis() - startTime) + "ms");
+
+		return refine(world, BlockSpacePathfinder.getStartPos(world));
+	}
+
+	public boolean hasMoreSegments() {
+		return nextWaypoint < waypoints.size();
+	}
+
+	/**
+	 * Starts refining the next segment from {@code from}, normally the last node of the current block path,
+	 * on the pathfinding pool. Does nothing while a refinement is still pending.
+	 */
+	public void refineNextInBackground(WorldView world, BlockNode from) {
+		if (pending != null || !hasMoreSegments()) return;
+		Vec3d segmentTarget = advance();
+		BlockNode start = BlockSpacePathfinder.createStartNode(world, from.getBlockPos(), segmentTarget);
+		long deadline = System.currentTimeMillis() + BlockSpacePathfindingConstants.PRIMARY_TIMEOUT_MS;
+		pending = PathfindingExecutor.getInstance().submitTask(
+				() -> BlockSpacePathfinder.searchInBackground(world, start, segmentTarget, deadline));
+	}
+
+	/**
+	 * Takes the result of the background refinement once it finished. A segment that did not reach its
+	 * waypoint is dropped together with the rest of the route, the current block path then ends there.
+	 *
+	 * @return the new segment without its first node, so it can be appended to the current block path,
+	 *         or empty while the refinement is still running
+	 */
+	public Optional<List<BlockNode>> pollSegment() {
+		if (pending == null || !pending.isDone()) return Optional.empty();
+		Optional<List<BlockNode>> segment = pending.exceptionally(e -> Optional.empty()).join();
+		pending = null;
+		if (segment.isEmpty()) {
+			Debug.logWarning("Could not refine the next segment of the abstract route");
+			waypoints = Collections.emptyList();
+			nextWaypoint = 0;
+		}
+		return segment.filter(path -> path.size() > 1).map(path -> path.subList(1, path.size()));
+	}
+
+	public void reset() {
+		waypoints = Collections.emptyList();
+		nextWaypoint = 0;
+		target = null;
+		// A running refinement stops on its deadline or the search stop flag, its result is ignored
+		pending = null;
+	}
+
+	private Optional<List<BlockNode>> refine(WorldView world, BlockPos from) {
+		Vec3d segmentTarget = advance();
+		return BlockSpacePathfinder.search(world, BlockSpacePathfinder.createStartNode(world, from, segmentTarget), segmentTarget);
+	}
+
+	/**
+	 * @return the target of the next segment
+	 */
+	private Vec3d advance() {
+		nextWaypoint = Math.min(nextWaypoint + BlockSpacePathfindingConstants.Hierarchical.SEGMENTS_PER_REFINEMENT, waypoints.size());
+		// The last waypoint may only be the entrance closest to an unreachable goal, so aim at the goal itself
+		return nextWaypoint >= waypoints.size() ? target : Vec3d.ofBottomCenter(waypoints.get(nextWaypoint - 1));
+	}
+}
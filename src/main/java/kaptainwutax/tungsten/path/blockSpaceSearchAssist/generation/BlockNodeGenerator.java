@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import kaptainwutax.tungsten.TungstenMod;
+import kaptainwutax.tungsten.constants.pathfinding.BlockSpacePathfindingConstants.Generation;
 import kaptainwutax.tungsten.constants.pathfinding.CostConstants;
 import kaptainwutax.tungsten.constants.physics.GravityConstants;
 import kaptainwutax.tungsten.constants.physics.MovementConstants;
@@ -11,7 +12,9 @@ import kaptainwutax.tungsten.helpers.MovementHelper;
 import kaptainwutax.tungsten.path.blockSpaceSearchAssist.BlockNode;
 import kaptainwutax.tungsten.path.blockSpaceSearchAssist.Goal;
 import kaptainwutax.tungsten.path.blockSpaceSearchAssist.validation.CompositeValidator;
+import kaptainwutax.tungsten.path.blockSpaceSearchAssist.validation.EdgeValidityCache;
 import kaptainwutax.tungsten.path.blockSpaceSearchAssist.validation.ValidationContext;
+import kaptainwutax.tungsten.world.VoxelWorld;
 import net.minecraft.world.WorldView;
 
 /**
@@ -20,12 +23,20 @@ import net.minecraft.world.WorldView;
  */
 public class BlockNodeGenerator {
 
-    private static final int NODE_GENERATION_RADIUS = 5;
-    private static final int DEEP_GENERATION_MIN = -64;
-    private static final int SHALLOW_GENERATION_MIN = -4;
-    private static final int SLIME_BOUNCE_CHECK_HEIGHT = 4;
-    private static final int MAX_JUMP_HEIGHT = 2;
+    private static final int NODE_GENERATION_RADIUS = Generation.RADIUS;
+    private static final int DEEP_GENERATION_MIN = -Generation.DEEP_DROP;
+    private static final int SHALLOW_GENERATION_MIN = -Generation.SHALLOW_DROP;
+    private static final int SLIME_BOUNCE_CHECK_HEIGHT = Generation.DEEP_RISE;
+    private static final int MAX_JUMP_HEIGHT = Generation.MAX_RISE;
     private static final double SLAB_HEIGHT = 0.5;
+    private static final int CACHE_MARGIN = Generation.VALIDATION_MARGIN;
+
+    private static final ThreadLocal<NeighborhoodBlockCache> CACHE = ThreadLocal.withInitial(NeighborhoodBlockCache::new);
+    private static final EdgeValidityCache EDGE_CACHE = new EdgeValidityCache();
+
+    static {
+        TungstenMod.BLOCK_CHANGES.addListener(EDGE_CACHE);
+    }
 
     private final CompositeValidator validator;
 
@@ -46,8 +57,13 @@ public class BlockNodeGenerator {
         // Optimize generation radius based on distance to goal
         int effectiveRadius = calculateEffectiveRadius(parent, goal, NODE_GENERATION_RADIUS);
 
+        // Candidates share most of their surrounding blocks, read each one once
+        int minY = generateDeep ? DEEP_GENERATION_MIN : SHALLOW_GENERATION_MIN;
+        int maxY = (int) Math.ceil(calculateMaxY(parent, generateDeep));
+        world = cacheAround(world, parent.x, parent.y, parent.z, effectiveRadius + 1, minY, maxY);
+
         // Generate all possible nodes in a 3D circle
-        List<BlockNode> nodes = generateNodesIn3DCircle(effectiveRadius, parent, goal, generateDeep);
+        List<BlockNode> nodes = generateNodesIn3DCircle(world, effectiveRadius, parent, goal, generateDeep);
 
         // Filter nodes using validators
         List<BlockNode> validNodes = new ArrayList<>(nodes.size());
@@ -60,6 +76,69 @@ public class BlockNodeGenerator {
         return validNodes;
     }
 
+    /**
+     * Generates the nodes that can reach {@code child} in one move, the inverse of
+     * {@link #generateChildren}. Mirrors a regular expansion (shallow vertical range,
+     * full radius, no slime bounce), and the returned nodes have no previous node.
+     *
+     * @param child The node to find predecessors of
+     * @param world The world view
+     * @param goal The pathfinding goal
+     * @return List of valid parent nodes
+     */
+    public List<BlockNode> generateParents(BlockNode child, WorldView world, Goal goal) {
+        List<BlockNode> parents = new ArrayList<>();
+        // The same reach as generateNodesAtHeight, whose outermost ring is one block past the generation radius.
+        // Parents close to the goal would only use the reduced radius forward, their extra edges are still valid moves
+        int radius = NODE_GENERATION_RADIUS + 1;
+        world = cacheAround(world, child.x, child.y, child.z, radius, -MAX_JUMP_HEIGHT, -SHALLOW_GENERATION_MIN);
+
+        // A child at offset py from its parent means the parent sits at -py from the child
+        for (int py = SHALLOW_GENERATION_MIN; py < MAX_JUMP_HEIGHT; py++) {
+            int parentY = child.y - py;
+            addParentIfValid(parents, world, goal, child, child.x, parentY, child.z);
+
+            for (int id = 1; id <= radius; id++) {
+                for (int px = -id; px <= id; px++) {
+                    int pz = id - Math.abs(px);
+                    addParentIfValid(parents, world, goal, child, child.x - px, parentY, child.z - pz);
+                    if (pz != 0) {
+                        addParentIfValid(parents, world, goal, child, child.x - px, parentY, child.z + pz);
+                    }
+                }
+            }
+        }
+
+        return parents;
+    }
+
+    private void addParentIfValid(List<BlockNode> parents, WorldView world, Goal goal, BlockNode child, int x, int y, int z) {
+        BlockNode parent = new BlockNode(world, x, y, z, goal);
+        // Validate against a fresh copy of the child, exactly like a forward expansion would see it
+        BlockNode edgeTarget = new BlockNode(world, child.x, child.y, child.z, goal, parent, CostConstants.BaseCosts.WALK_ONE_BLOCK_COST);
+        if (isValidNode(world, parent, edgeTarget)) {
+            parents.add(parent);
+        }
+    }
+
+    /**
+     * Points this thread's {@link NeighborhoodBlockCache} at a box around the given center.
+     *
+     * @param radius horizontal radius of the candidates
+     * @param minDy  lowest Y offset of the candidates
+     * @param maxDy  highest Y offset of the candidates
+     * @return the cache, reading through to {@code world}
+     */
+    private static WorldView cacheAround(WorldView world, int x, int y, int z, int radius, int minDy, int maxDy) {
+        if (world instanceof NeighborhoodBlockCache cache) {
+            world = cache.getWorld();
+        }
+        int horizontal = radius + CACHE_MARGIN;
+        return CACHE.get().reset(world,
+                x - horizontal, y + minDy - CACHE_MARGIN, z - horizontal,
+                x + horizontal, y + maxDy + CACHE_MARGIN, z + horizontal);
+    }
+
     /**
      * Calculates an optimized generation radius based on distance to goal.
      * Reduces unnecessary node generation when close to goal.
@@ -85,21 +164,39 @@ public class BlockNodeGenerator {
      * @return true if the node is valid
      */
     private boolean isValidNode(WorldView world, BlockNode parent, BlockNode child) {
+        boolean ignoreFallDamage = TungstenMod.ignoreFallDamage;
+        WorldView source = world instanceof NeighborhoodBlockCache cache ? cache.getWorld() : world;
+        WorldView client = VoxelWorld.clientWorldOf(source);
+        // Entries are only shared between views of the client world
+        boolean useCache = TungstenMod.edgeValidityCache && client != null;
+        if (useCache) {
+            EDGE_CACHE.bindTo(client);
+            byte cached = EDGE_CACHE.lookup(parent, child, ignoreFallDamage);
+            if (cached != EdgeValidityCache.MISS) return cached != 0;
+        }
+
+        int stamp = EDGE_CACHE.stamp(parent);
         ValidationContext context = ValidationContext.from(world, parent, child,
-            TungstenMod.ignoreFallDamage, TungstenMod.PATHFINDER.stop);
-        return validator.isValid(context);
+            ignoreFallDamage, TungstenMod.PATHFINDER.stop);
+        boolean valid = validator.isValid(context);
+        // A stopped search rejects everything, that says nothing about the edge
+        if (useCache && !TungstenMod.PATHFINDER.stop.get() && VoxelWorld.isUpToDate(source)) {
+            EDGE_CACHE.store(parent, child, ignoreFallDamage, valid, stamp);
+        }
+        return valid;
     }
 
     /**
      * Generates nodes in a 3D circle pattern around the parent.
      *
+     * @param world The world view
      * @param radius The generation radius
      * @param parent The parent node
      * @param goal The pathfinding goal
      * @param generateDeep Whether to generate deep nodes
      * @return List of generated nodes
      */
-    private List<BlockNode> generateNodesIn3DCircle(int radius, BlockNode parent, Goal goal, boolean generateDeep) {
+    private List<BlockNode> generateNodesIn3DCircle(WorldView world, int radius, BlockNode parent, Goal goal, boolean generateDeep) {
         List<BlockNode> nodes = new ArrayList<>();
 
         // Calculate maximum Y based on slime bounce or normal jump
@@ -109,7 +206,7 @@ public class BlockNodeGenerator {
         int minY = generateDeep ? DEEP_GENERATION_MIN : SHALLOW_GENERATION_MIN;
 
         for (int py = minY; py < finalYMax; py++) {
-            generateNodesAtHeight(nodes, parent, goal, radius, py, generateDeep);
+            generateNodesAtHeight(world, nodes, parent, goal, radius, py, generateDeep);
         }
 
         return nodes;
@@ -137,6 +234,7 @@ public class BlockNodeGenerator {
     /**
      * Generates nodes at a specific height level.
      *
+     * @param world The world view
      * @param nodes The collection to add nodes to
      * @param parent The parent node
      * @param goal The pathfinding goal
@@ -144,7 +242,8 @@ public class BlockNodeGenerator {
      * @param py The Y offset from parent
      * @param generateDeep Whether generating deep nodes
      */
-    private void generateNodesAtHeight(List<BlockNode> nodes,
+    private void generateNodesAtHeight(WorldView world,
+                                      List<BlockNode> nodes,
                                       BlockNode parent,
                                       Goal goal,
                                       int radius,
@@ -162,25 +261,28 @@ public class BlockNodeGenerator {
 
         // Generate center node at this height
         nodes.add(new BlockNode(
+            world,
             parent.x, parent.y + py, parent.z,
             goal, parent,
             CostConstants.BaseCosts.WALK_ONE_BLOCK_COST
         ));
 
         // Generate nodes in a diamond pattern at this height
-        generateDiamondPattern(nodes, parent, goal, localRadius, py);
+        generateDiamondPattern(world, nodes, parent, goal, localRadius, py);
     }
 
     /**
      * Generates nodes in a diamond (square rotated 45°) pattern.
      *
+     * @param world The world view
      * @param nodes The collection to add nodes to
      * @param parent The parent node
      * @param goal The pathfinding goal
      * @param radius The pattern radius
      * @param py The Y offset
      */
-    private void generateDiamondPattern(List<BlockNode> nodes,
+    private void generateDiamondPattern(WorldView world,
+                                       List<BlockNode> nodes,
                                        BlockNode parent,
                                        Goal goal,
                                        int radius,
@@ -202,6 +304,7 @@ public class BlockNodeGenerator {
                 pz += dz;
 
                 BlockNode newNode = new BlockNode(
+                    world,
                     parent.x + px,
                     parent.y + py,
                     parent.z + pz,
@@ -0,0 +1,197 @@
+package kaptainwutax.tungsten.path.blockSpaceSearchAssist.generation;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.entity.Entity;
+import net.minecraft.fluid.FluidState;
+import net.minecraft.registry.DynamicRegistryManager;
+import net.minecraft.registry.entry.RegistryEntry;
+import net.minecraft.resource.featuretoggle.FeatureSet;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.Direction;
+import net.minecraft.util.shape.VoxelShape;
+import net.minecraft.world.BlockView;
+import net.minecraft.world.Heightmap;
+import net.minecraft.world.WorldView;
+import net.minecraft.world.biome.Biome;
+import net.minecraft.world.biome.source.BiomeAccess;
+import net.minecraft.world.border.WorldBorder;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.ChunkStatus;
+import net.minecraft.world.chunk.light.LightingProvider;
+import net.minecraft.world.dimension.DimensionType;
+
+/**
+ * Block state cache for one node expansion.
+ * <p>
+ * Covers a dense box around the parent that holds every candidate child plus the blocks the
+ * validators look at around them. Each block in the box is read from the underlying world once
+ * per expansion, on first access. Entries are tagged with the expansion they were read in, so
+ * starting a new expansion is a counter bump instead of clearing the arrays. Reads outside the
+ * box go straight to the underlying world.
+ * <p>
+ * Not thread safe, every thread expanding nodes keeps its own instance.
+ */
+public class NeighborhoodBlockCache implements WorldView {
+
+    private WorldView world;
+    private int minX, minY, minZ;
+    private int sizeX, sizeY, sizeZ;
+    private BlockState[] states = new BlockState[0];
+    private int[] stamps = new int[0];
+    private int stamp = 0;
+
+    /**
+     * Starts a new expansion over the given box, inclusive on both ends.
+     *
+     * @return this cache
+     */
+    public NeighborhoodBlockCache reset(WorldView world, int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        this.world = world;
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.sizeX = maxX - minX + 1;
+        this.sizeY = maxY - minY + 1;
+        this.sizeZ = maxZ - minZ + 1;
+
+        int volume = this.sizeX * this.sizeY * this.sizeZ;
+        if (this.states.length < volume) {
+            this.states = new BlockState[volume];
+            this.stamps = new int[volume];
+            this.stamp = 0;
+        }
+        if (++this.stamp == 0) {
+            // Wrapped around, old stamps could match again
+            Arrays.fill(this.stamps, 0);
+            this.stamp = 1;
+        }
+        return this;
+    }
+
+    /**
+     * @return the world this cache reads through to
+     */
+    public WorldView getWorld() {
+        return this.world;
+    }
+
+    @Override
+    public BlockState getBlockState(BlockPos pos) {
+        int dx = pos.getX() - this.minX;
+        int dy = pos.getY() - this.minY;
+        int dz = pos.getZ() - this.minZ;
+        if (dx < 0 || dy < 0 || dz < 0 || dx >= this.sizeX || dy >= this.sizeY || dz >= this.sizeZ) {
+            return this.world.getBlockState(pos);
+        }
+
+        int index = (dy * this.sizeZ + dz) * this.sizeX + dx;
+        if (this.stamps[index] != this.stamp) {
+            this.states[index] = this.world.getBlockState(pos);
+            this.stamps[index] = this.stamp;
+        }
+        return this.states[index];
+    }
+
+    @Override
+    public FluidState getFluidState(BlockPos pos) {
+        return this.getBlockState(pos).getFluidState();
+    }
+
+    @Override
+    public BlockView getChunkAsView(int chunkX, int chunkZ) {
+        // Collision iteration reads blocks through the chunk view, keep it on the cache
+        return this;
+    }
+
+    @Override
+    public boolean isChunkLoaded(int chunkX, int chunkZ) {
+        return this.world.isChunkLoaded(chunkX, chunkZ);
+    }
+
+    @Override
+    public List<VoxelShape> getEntityCollisions(@Nullable Entity entity, Box box) {
+        return this.world.getEntityCollisions(entity, box);
+    }
+
+    //========================================================================================================//
+
+    @Nullable
+    @Override
+    public Chunk getChunk(int chunkX, int chunkZ, ChunkStatus leastStatus, boolean create) {
+        return this.world.getChunk(chunkX, chunkZ, leastStatus, create);
+    }
+
+    @Override
+    public int getTopY(Heightmap.Type heightmap, int x, int z) {
+        return this.world.getTopY(heightmap, x, z);
+    }
+
+    @Override
+    public int getAmbientDarkness() {
+        return this.world.getAmbientDarkness();
+    }
+
+    @Override
+    public BiomeAccess getBiomeAccess() {
+        return this.world.getBiomeAccess();
+    }
+
+    @Override
+    public RegistryEntry<Biome> getGeneratorStoredBiome(int biomeX, int biomeY, int biomeZ) {
+        return this.world.getGeneratorStoredBiome(biomeX, biomeY, biomeZ);
+    }
+
+    @Override
+    public boolean isClient() {
+        return this.world.isClient();
+    }
+
+    @Override
+    public int getSeaLevel() {
+        return this.world.getSeaLevel();
+    }
+
+    @Override
+    public DimensionType getDimension() {
+        return this.world.getDimension();
+    }
+
+    @Override
+    public float getBrightness(Direction direction, boolean shaded) {
+        return this.world.getBrightness(direction, shaded);
+    }
+
+    @Override
+    public LightingProvider getLightingProvider() {
+        return this.world.getLightingProvider();
+    }
+
+    @Override
+    public WorldBorder getWorldBorder() {
+        return this.world.getWorldBorder();
+    }
+
+    @Nullable
+    @Override
+    public BlockEntity getBlockEntity(BlockPos pos) {
+        return this.world.getBlockEntity(pos);
+    }
+
+    @Override
+    public DynamicRegistryManager getRegistryManager() {
+        return this.world.getRegistryManager();
+    }
+
+    @Override
+    public FeatureSet getEnabledFeatures() {
+        return this.world.getEnabledFeatures();
+    }
+
+}
@@ -5,6 +5,7 @@ import net.minecraft.block.SlimeBlock;
 import net.minecraft.block.LadderBlock;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Direction;
+import net.minecraft.world.WorldView;
 
 /**
  * Manages the movement state of a block node.
@@ -22,8 +23,23 @@ public class MovementState {
      * @param pos The block position
      */
     public MovementState(BlockPos pos) {
-        this.wasOnSlime = TungstenMod.mc.world.getBlockState(pos.down()).getBlock() instanceof SlimeBlock;
-        this.wasOnLadder = TungstenMod.mc.world.getBlockState(pos).getBlock() instanceof LadderBlock;
+        this(TungstenMod.mc.world, pos);
+    }
+
+    /**
+     * Creates a movement state from a block position.
+     *
+     * @param world The world to read the blocks from
+     * @param pos The block position
+     */
+    public MovementState(WorldView world, BlockPos pos) {
+        this(world.getBlockState(pos.down()).getBlock() instanceof SlimeBlock,
+            world.getBlockState(pos).getBlock() instanceof LadderBlock);
+    }
+
+    private MovementState(boolean wasOnSlime, boolean wasOnLadder) {
+        this.wasOnSlime = wasOnSlime;
+        this.wasOnLadder = wasOnLadder;
         this.currentMovement = MovementType.NORMAL;
         this.neoSide = null;
     }
@@ -133,7 +149,7 @@ public class MovementState {
      * @return A new movement state with the same values
      */
     public MovementState copy() {
-        MovementState copy = new MovementState(0, 0, 0);
+        MovementState copy = new MovementState(this.wasOnSlime, this.wasOnLadder);
         copy.currentMovement = this.currentMovement;
         copy.neoSide = this.neoSide;
         return copy;
@@ -21,7 +21,7 @@ public class CollisionValidator implements NodeValidator {
         // Check if current position is valid for standing
         if (context.from().previous != null) {
             BlockState fromState = context.fromState();
-            if (fromState.isFullCube(context.world(), context.from().getBlockPos()) ||
+            if (BlockShapeChecker.isFullCube(context.world(), fromState, context.from().getBlockPos()) ||
                 (!(fromState.getBlock() instanceof LadderBlock) &&
                  context.world().getBlockState(context.from().getBlockPos().down()).isAir())) {
                 return false;
@@ -3,6 +3,8 @@ package kaptainwutax.tungsten.path.blockSpaceSearchAssist.validation;
 import java.util.Arrays;
 import java.util.List;
 
+import kaptainwutax.tungsten.metrics.Metrics;
+
 /**
  * Composite validator that combines multiple validators.
  * Ensures all validation rules are checked in sequence.
@@ -42,6 +44,7 @@ public class CompositeValidator implements NodeValidator {
 
         for (NodeValidator validator : validators) {
             if (!validator.isValid(context)) {
+                Metrics.rejected(validator);
                 return false;
             }
         }
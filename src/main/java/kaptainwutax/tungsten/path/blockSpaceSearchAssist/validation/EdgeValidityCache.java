@@ -0,0 +1,232 @@
+package kaptainwutax.tungsten.path.blockSpaceSearchAssist.validation;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import kaptainwutax.tungsten.constants.pathfinding.BlockSpacePathfindingConstants.EdgeCache;
+import kaptainwutax.tungsten.metrics.Counter;
+import kaptainwutax.tungsten.metrics.Metrics;
+import kaptainwutax.tungsten.path.blockSpaceSearchAssist.BlockNode;
+import kaptainwutax.tungsten.world.BlockChangeNotifier;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.Direction;
+import net.minecraft.world.WorldView;
+
+/**
+ * Remembers the outcome of {@link CompositeValidator#isValid} across searches.
+ * <p>
+ * An edge is keyed by the packed parent position, the offset to the child and the parent state the
+ * validators read (slime, ladder, whether it has a previous node and is bouncing) plus the fall
+ * damage setting. Besides valid or not, the entry remembers whether {@link BlockNode#wasCleared}
+ * marked the child as a neo or corner jump, so a hit leaves the child exactly as validation would.
+ * <p>
+ * The table is set-associative with {@link EdgeCache#WAYS} entries per set and clock eviction inside
+ * a set. Invalidation is per chunk section: every block change bumps the version of each section an
+ * edge touching the changed block could start in, and an entry is only used while the version of its
+ * parent's section is unchanged. Versions live in a small hashed array, so a collision only
+ * invalidates more than needed.
+ */
+public final class EdgeValidityCache implements BlockChangeNotifier.Listener {
+
+    public static final byte MISS = -1;
+    private static final byte INVALID = 0;
+    private static final byte VALID = 1;
+    private static final byte CORNER_JUMP = 2;
+    /** Followed by the ordinal of the neo wall side */
+    private static final byte NEO = 3;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final int LOCK_STRIPES = 64;
+
+    private final long[] fromKeys = new long[EdgeCache.SETS * EdgeCache.WAYS];
+    /** Offset and state bits, 0 marks an empty way */
+    private final int[] edgeKeys = new int[EdgeCache.SETS * EdgeCache.WAYS];
+    private final int[] stamps = new int[EdgeCache.SETS * EdgeCache.WAYS];
+    private final byte[] results = new byte[EdgeCache.SETS * EdgeCache.WAYS];
+    private final boolean[] referenced = new boolean[EdgeCache.SETS * EdgeCache.WAYS];
+    private final byte[] hands = new byte[EdgeCache.SETS];
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    private final AtomicIntegerArray sectionVersions = new AtomicIntegerArray(EdgeCache.VERSION_SLOTS);
+
+    /** World the entries were validated in, see {@link #bindTo} */
+    private volatile WorldView world;
+
+    /** Statistics only, updated under different stripes so they may drift slightly */
+    private long hits, misses;
+
+    public EdgeValidityCache() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Outdates every entry when {@code world} is not the world they were validated in, e.g. after
+     * joining another server or changing dimension.
+     */
+    public void bindTo(WorldView world) {
+        if (world == this.world) return;
+        synchronized (this) {
+            if (world == this.world) return;
+            for (int i = 0; i < EdgeCache.VERSION_SLOTS; i++) {
+                sectionVersions.incrementAndGet(i);
+            }
+            this.world = world;
+        }
+    }
+
+    /**
+     * Looks up the edge from {@code from} to {@code to}. On a hit the neo or corner jump marking is applied to {@code to}.
+     *
+     * @return {@link #MISS}, or 1 if the edge is valid and 0 if not
+     */
+    public byte lookup(BlockNode from, BlockNode to, boolean ignoreFallDamage) {
+        long fromKey = BlockPos.asLong(from.x, from.y, from.z);
+        int edgeKey = edgeKey(from, to, ignoreFallDamage);
+        int set = set(fromKey, edgeKey);
+        int stamp = sectionVersions.get(versionSlot(from.x, from.y, from.z));
+
+        byte result = MISS;
+        synchronized (locks[set & (LOCK_STRIPES - 1)]) {
+            int base = set * EdgeCache.WAYS;
+            for (int i = base; i < base + EdgeCache.WAYS; i++) {
+                if (edgeKeys[i] == edgeKey && fromKeys[i] == fromKey) {
+                    if (stamps[i] == stamp) {
+                        referenced[i] = true;
+                        result = results[i];
+                    } else {
+                        edgeKeys[i] = 0;
+                    }
+                    break;
+                }
+            }
+            if (result == MISS) misses++; else hits++;
+            Metrics.count(result == MISS ? Counter.EDGE_CACHE_MISSES : Counter.EDGE_CACHE_HITS);
+        }
+
+        if (result == MISS || result == INVALID) return result;
+        if (result == CORNER_JUMP) {
+            to.setCornerJump();
+        } else if (result >= NEO) {
+            to.setNeoMovement(DIRECTIONS[result - NEO]);
+        }
+        return VALID;
+    }
+
+    /**
+     * @return the version of the section {@code from} is in, read before validating an edge from it
+     */
+    public int stamp(BlockNode from) {
+        return sectionVersions.get(versionSlot(from.x, from.y, from.z));
+    }
+
+    /**
+     * Records the outcome of validating the edge, after the validators ran on {@code to}.
+     * {@code stamp} is the {@link #stamp} read before validation started, so a block change that
+     * arrives while the validators run leaves the entry already outdated.
+     */
+    public void store(BlockNode from, BlockNode to, boolean ignoreFallDamage, boolean valid, int stamp) {
+        long fromKey = BlockPos.asLong(from.x, from.y, from.z);
+        int edgeKey = edgeKey(from, to, ignoreFallDamage);
+        int set = set(fromKey, edgeKey);
+        byte result;
+        if (!valid) {
+            result = INVALID;
+        } else if (to.isDoingNeo()) {
+            result = (byte) (NEO + to.getNeoSide().ordinal());
+        } else if (to.isDoingCornerJump()) {
+            result = CORNER_JUMP;
+        } else {
+            result = VALID;
+        }
+
+        synchronized (locks[set & (LOCK_STRIPES - 1)]) {
+            int base = set * EdgeCache.WAYS;
+            int way = -1;
+            for (int i = base; i < base + EdgeCache.WAYS; i++) {
+                if (edgeKeys[i] == 0 || (edgeKeys[i] == edgeKey && fromKeys[i] == fromKey)) {
+                    way = i;
+                    break;
+                }
+            }
+            if (way < 0) {
+                // Clock: skip recently used ways once, clearing their bit
+                int hand = hands[set];
+                while (referenced[base + hand]) {
+                    referenced[base + hand] = false;
+                    hand = (hand + 1) % EdgeCache.WAYS;
+                }
+                way = base + hand;
+                hands[set] = (byte) ((hand + 1) % EdgeCache.WAYS);
+            }
+            fromKeys[way] = fromKey;
+            edgeKeys[way] = edgeKey;
+            stamps[way] = stamp;
+            results[way] = result;
+            referenced[way] = false;
+        }
+    }
+
+    @Override
+    public void onBlockChanged(int x, int y, int z) {
+        // Edges reach EdgeCache.HORIZONTAL_REACH sideways and fall up to EdgeCache.ABOVE_REACH blocks,
+        // so the change can matter to parents above it more than below it
+        for (int sx = (x - EdgeCache.HORIZONTAL_REACH) >> 4; sx <= (x + EdgeCache.HORIZONTAL_REACH) >> 4; sx++) {
+            for (int sz = (z - EdgeCache.HORIZONTAL_REACH) >> 4; sz <= (z + EdgeCache.HORIZONTAL_REACH) >> 4; sz++) {
+                for (int sy = (y - EdgeCache.BELOW_REACH) >> 4; sy <= (y + EdgeCache.ABOVE_REACH) >> 4; sy++) {
+                    sectionVersions.incrementAndGet(versionSlot(ChunkSectionPos.asLong(sx, sy, sz)));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onChunkLoaded(int chunkX, int chunkZ) {
+        WorldView world = this.world;
+        if (world == null) return;
+        // Parents in the neighbouring columns can have edges into this one
+        for (int sx = chunkX - 1; sx <= chunkX + 1; sx++) {
+            for (int sz = chunkZ - 1; sz <= chunkZ + 1; sz++) {
+                for (int sy = world.getBottomSectionCoord(); sy < world.getTopSectionCoord(); sy++) {
+                    sectionVersions.incrementAndGet(versionSlot(ChunkSectionPos.asLong(sx, sy, sz)));
+                }
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        long total = hits + misses;
+        return "EdgeValidityCache{hits=" + hits + ", misses=" + misses
+                + ", hitRate=" + (total == 0 ? "0" : String.format("%.1f%%", hits * 100.0 / total)) + "}";
+    }
+
+    private static int edgeKey(BlockNode from, BlockNode to, boolean ignoreFallDamage) {
+        boolean hasPrevious = from.previous != null;
+        boolean bouncing = hasPrevious && from.previous.y - from.y < 0;
+        int state = (from.wasOnSlime ? 1 : 0)
+                | (from.wasOnLadder ? 2 : 0)
+                | (hasPrevious ? 4 : 0)
+                | (bouncing ? 8 : 0)
+                | (ignoreFallDamage ? 16 : 0);
+        return (to.x - from.x & 0xFF)
+                | (to.y - from.y & 0xFF) << 8
+                | (to.z - from.z & 0xFF) << 16
+                | state << 24
+                | 1 << 31;
+    }
+
+    private static int set(long fromKey, int edgeKey) {
+        return (int) HashCommon.mix(fromKey * 31 + edgeKey) & (EdgeCache.SETS - 1);
+    }
+
+    private static int versionSlot(int x, int y, int z) {
+        return versionSlot(ChunkSectionPos.asLong(x >> 4, y >> 4, z >> 4));
+    }
+
+    private static int versionSlot(long sectionKey) {
+        return (int) HashCommon.mix(sectionKey) & (EdgeCache.VERSION_SLOTS - 1);
+    }
+}
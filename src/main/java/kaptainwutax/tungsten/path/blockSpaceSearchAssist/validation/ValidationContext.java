@@ -50,19 +50,19 @@ public record ValidationContext(
         BlockState toBelowState = world.getBlockState(to.getBlockPos().down());
         BlockState toAboveState = world.getBlockState(to.getBlockPos().up());
 
-        VoxelShape fromBelowShape = fromBelowState.getCollisionShape(world, from.getBlockPos().down());
-        VoxelShape toBelowShape = toBelowState.getCollisionShape(world, to.getBlockPos().down());
+        VoxelShape fromBelowShape = BlockShapeChecker.getCollisionShape(world, fromBelowState, from.getBlockPos().down());
+        VoxelShape toBelowShape = BlockShapeChecker.getCollisionShape(world, toBelowState, to.getBlockPos().down());
 
-        double fromBlockHeight = BlockShapeChecker.getBlockHeight(fromBelowShape);
-        double toBlockHeight = BlockShapeChecker.getBlockHeight(toBelowShape);
+        double fromBlockHeight = BlockShapeChecker.getBlockHeight(world, fromBelowState, from.getBlockPos().down());
+        double toBlockHeight = BlockShapeChecker.getBlockHeight(world, toBelowState, to.getBlockPos().down());
 
         // Calculate height difference (positive = going up, negative = going down)
         int heightDiff = to.y - from.y;
 
         // Calculate horizontal distance
         double distance = DistanceCalculator.getHorizontalEuclideanDistance(
-            from.getPos(true),
-            to.getPos(true)
+            from.getPos(world, true),
+            to.getPos(world, true)
         );
 
         return new ValidationContext(
@@ -101,7 +101,7 @@ public record ValidationContext(
      * @return true if the block is taller than the threshold
      */
     public boolean isToBlockTall(double threshold) {
-        double blockBelowHeight = BlockShapeChecker.getBlockHeight(to.getBlockPos().down());
+        double blockBelowHeight = BlockShapeChecker.getBlockHeight(world, to.getBlockPos().down());
         return blockBelowHeight > threshold;
     }
 }
\ No newline at end of file
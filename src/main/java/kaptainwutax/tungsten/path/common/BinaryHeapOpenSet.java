@@ -1,6 +1,7 @@
 package kaptainwutax.tungsten.path.common;
 
 import java.util.Arrays;
+import java.util.function.Consumer;
 
 /**
  * A generic binary heap implementation of an open set.
@@ -44,8 +45,16 @@ public final class BinaryHeapOpenSet<T extends HeapNode> implements IOpenSet<T>
      * Trims the heap to the specified maximum size by keeping only the lowest-cost nodes.
      * This is an O(n) operation that rebuilds the heap after removing high-cost entries.
      */
-    @SuppressWarnings("unchecked")
     public void trimToSize(int maxSize) {
+        trimToSize(maxSize, null);
+    }
+
+    /**
+     * Same as {@link #trimToSize(int)}, but hands every discarded node to {@code pruned}
+     * so the caller can keep it for later re-expansion.
+     */
+    @SuppressWarnings("unchecked")
+    public void trimToSize(int maxSize, Consumer<T> pruned) {
         if (size <= maxSize) {
             return;
         }
@@ -65,6 +74,9 @@ public final class BinaryHeapOpenSet<T extends HeapNode> implements IOpenSet<T>
         for (int i = 1; i <= size; i++) {
             if (array[i] != null) {
                 array[i].setHeapPosition(-1);
+                if (pruned != null) {
+                    pruned.accept(array[i]);
+                }
                 array[i] = null;
             }
         }
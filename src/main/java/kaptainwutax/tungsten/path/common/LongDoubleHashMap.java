@@ -0,0 +1,218 @@
+package kaptainwutax.tungsten.path.common;
+
+import java.util.Arrays;
+
+import it.unimi.dsi.fastutil.HashCommon;
+
+/**
+ * An open-addressing map from primitive longs to primitive doubles with linear probing.
+ * Used for best-cost tables keyed by {@code BlockPos.asLong}, so relaxations never box
+ * a {@link Long} or a {@link Double}.
+ * <p>
+ * Every lookup records how many slots it had to inspect, see {@link #getStats()}.
+ * Not thread safe.
+ */
+public final class LongDoubleHashMap {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    /** 0 marks an empty slot, the key 0 itself is stored in {@link #zeroValue} */
+    private long[] keys;
+    private double[] values;
+    private boolean containsZero;
+    private double zeroValue;
+    private int mask;
+    private int size;
+    private int maxFill;
+
+    private final ProbeStats stats = new ProbeStats();
+
+    public LongDoubleHashMap() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public LongDoubleHashMap(int expected) {
+        int capacity = HashCommon.arraySize(Math.max(expected, 2), LOAD_FACTOR);
+        this.keys = new long[capacity];
+        this.values = new double[capacity];
+        this.mask = capacity - 1;
+        this.maxFill = HashCommon.maxFill(capacity, LOAD_FACTOR);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return the value mapped to {@code key}, or {@code missing} if there is none
+     */
+    public double get(long key, double missing) {
+        if (key == 0) {
+            stats.record(1);
+            return containsZero ? zeroValue : missing;
+        }
+        int pos = (int) HashCommon.mix(key) & mask;
+        int probes = 1;
+        long current;
+        while ((current = keys[pos]) != 0) {
+            if (current == key) {
+                stats.record(probes);
+                return values[pos];
+            }
+            pos = (pos + 1) & mask;
+            probes++;
+        }
+        stats.record(probes);
+        return missing;
+    }
+
+    public boolean containsKey(long key) {
+        if (key == 0) {
+            stats.record(1);
+            return containsZero;
+        }
+        int pos = (int) HashCommon.mix(key) & mask;
+        int probes = 1;
+        long current;
+        while ((current = keys[pos]) != 0) {
+            if (current == key) {
+                stats.record(probes);
+                return true;
+            }
+            pos = (pos + 1) & mask;
+            probes++;
+        }
+        stats.record(probes);
+        return false;
+    }
+
+    public void put(long key, double value) {
+        if (key == 0) {
+            stats.record(1);
+            if (!containsZero) {
+                containsZero = true;
+                size++;
+            }
+            zeroValue = value;
+            return;
+        }
+        int pos = (int) HashCommon.mix(key) & mask;
+        int probes = 1;
+        long current;
+        while ((current = keys[pos]) != 0) {
+            if (current == key) {
+                stats.record(probes);
+                values[pos] = value;
+                return;
+            }
+            pos = (pos + 1) & mask;
+            probes++;
+        }
+        stats.record(probes);
+        keys[pos] = key;
+        values[pos] = value;
+        if (++size >= maxFill) {
+            rehash(keys.length << 1);
+        }
+    }
+
+    /**
+     * @return whether {@code key} had a mapping
+     */
+    public boolean remove(long key) {
+        if (key == 0) {
+            stats.record(1);
+            if (!containsZero) return false;
+            containsZero = false;
+            size--;
+            return true;
+        }
+        int pos = (int) HashCommon.mix(key) & mask;
+        int probes = 1;
+        long current;
+        while ((current = keys[pos]) != 0) {
+            if (current == key) {
+                stats.record(probes);
+                shiftKeys(pos);
+                size--;
+                return true;
+            }
+            pos = (pos + 1) & mask;
+            probes++;
+        }
+        stats.record(probes);
+        return false;
+    }
+
+    public void clear() {
+        if (size == 0) return;
+        Arrays.fill(keys, 0L);
+        containsZero = false;
+        size = 0;
+    }
+
+    public int capacity() {
+        return keys.length;
+    }
+
+    public ProbeStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Closes the gap left at {@code pos} by moving later entries of its probe run back, so lookups
+     * never stop early at the freed slot.
+     */
+    private void shiftKeys(int pos) {
+        while (true) {
+            int last = pos;
+            pos = (pos + 1) & mask;
+            long current;
+            while (true) {
+                if ((current = keys[pos]) == 0) {
+                    keys[last] = 0;
+                    return;
+                }
+                int slot = (int) HashCommon.mix(current) & mask;
+                // Move the entry back unless its home slot lies cyclically in (last, pos]
+                if (last <= pos ? last >= slot || slot > pos : last >= slot && slot > pos) break;
+                pos = (pos + 1) & mask;
+            }
+            keys[last] = current;
+            values[last] = values[pos];
+        }
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        double[] oldValues = values;
+        long[] freshKeys = new long[newCapacity];
+        double[] freshValues = new double[newCapacity];
+        int newMask = newCapacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key == 0) continue;
+            int pos = (int) HashCommon.mix(key) & newMask;
+            while (freshKeys[pos] != 0) {
+                pos = (pos + 1) & newMask;
+            }
+            freshKeys[pos] = key;
+            freshValues[pos] = oldValues[i];
+        }
+        this.keys = freshKeys;
+        this.values = freshValues;
+        this.mask = newMask;
+        this.maxFill = HashCommon.maxFill(newCapacity, LOAD_FACTOR);
+        stats.rehashes++;
+    }
+
+    @Override
+    public String toString() {
+        return "LongDoubleHashMap{size=" + size + ", capacity=" + keys.length + ", " + stats + "}";
+    }
+}
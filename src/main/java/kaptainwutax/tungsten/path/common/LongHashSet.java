@@ -0,0 +1,135 @@
+package kaptainwutax.tungsten.path.common;
+
+import java.util.Arrays;
+
+import it.unimi.dsi.fastutil.HashCommon;
+
+/**
+ * An open-addressing set of primitive longs with linear probing.
+ * Used for closed sets keyed by {@code BlockPos.asLong} or {@code closedSetHashCode},
+ * so membership checks never box a {@link Long}.
+ * <p>
+ * Every lookup records how many slots it had to inspect, see {@link #getStats()}.
+ * Not thread safe.
+ */
+public final class LongHashSet {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    /** 0 marks an empty slot, the key 0 itself is tracked by {@link #containsZero} */
+    private long[] keys;
+    private boolean containsZero;
+    private int mask;
+    private int size;
+    private int maxFill;
+
+    private final ProbeStats stats = new ProbeStats();
+
+    public LongHashSet() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public LongHashSet(int expected) {
+        int capacity = HashCommon.arraySize(Math.max(expected, 2), LOAD_FACTOR);
+        this.keys = new long[capacity];
+        this.mask = capacity - 1;
+        this.maxFill = HashCommon.maxFill(capacity, LOAD_FACTOR);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(long key) {
+        if (key == 0) {
+            stats.record(1);
+            return containsZero;
+        }
+        int pos = (int) HashCommon.mix(key) & mask;
+        int probes = 1;
+        long current;
+        while ((current = keys[pos]) != 0) {
+            if (current == key) {
+                stats.record(probes);
+                return true;
+            }
+            pos = (pos + 1) & mask;
+            probes++;
+        }
+        stats.record(probes);
+        return false;
+    }
+
+    /**
+     * @return {@code true} if the key was not present before
+     */
+    public boolean add(long key) {
+        if (key == 0) {
+            stats.record(1);
+            if (containsZero) return false;
+            containsZero = true;
+            size++;
+            return true;
+        }
+        int pos = (int) HashCommon.mix(key) & mask;
+        int probes = 1;
+        long current;
+        while ((current = keys[pos]) != 0) {
+            if (current == key) {
+                stats.record(probes);
+                return false;
+            }
+            pos = (pos + 1) & mask;
+            probes++;
+        }
+        stats.record(probes);
+        keys[pos] = key;
+        if (++size >= maxFill) {
+            rehash(keys.length << 1);
+        }
+        return true;
+    }
+
+    public void clear() {
+        if (size == 0) return;
+        Arrays.fill(keys, 0L);
+        containsZero = false;
+        size = 0;
+    }
+
+    public int capacity() {
+        return keys.length;
+    }
+
+    public ProbeStats getStats() {
+        return stats;
+    }
+
+    private void rehash(int newCapacity) {
+        long[] old = keys;
+        long[] fresh = new long[newCapacity];
+        int newMask = newCapacity - 1;
+        for (long key : old) {
+            if (key == 0) continue;
+            int pos = (int) HashCommon.mix(key) & newMask;
+            while (fresh[pos] != 0) {
+                pos = (pos + 1) & newMask;
+            }
+            fresh[pos] = key;
+        }
+        this.keys = fresh;
+        this.mask = newMask;
+        this.maxFill = HashCommon.maxFill(newCapacity, LOAD_FACTOR);
+        stats.rehashes++;
+    }
+
+    @Override
+    public String toString() {
+        return "LongHashSet{size=" + size + ", capacity=" + keys.length + ", " + stats + "}";
+    }
+}
@@ -0,0 +1,47 @@
+package kaptainwutax.tungsten.path.common;
+
+/**
+ * Probe counters shared by the primitive open-addressing collections.
+ * A probe is one inspected slot, so a lookup that hits its home bucket costs 1.
+ */
+public final class ProbeStats {
+
+    long lookups;
+    long probes;
+    int maxProbe;
+    int rehashes;
+
+    void record(int probeCount) {
+        lookups++;
+        probes += probeCount;
+        if (probeCount > maxProbe) {
+            maxProbe = probeCount;
+        }
+    }
+
+    public long getLookups() {
+        return lookups;
+    }
+
+    public long getProbes() {
+        return probes;
+    }
+
+    public int getMaxProbe() {
+        return maxProbe;
+    }
+
+    public int getRehashes() {
+        return rehashes;
+    }
+
+    public double getAverageProbe() {
+        return lookups == 0 ? 0 : (double) probes / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("lookups=%d, avgProbe=%.2f, maxProbe=%d, rehashes=%d",
+                lookups, getAverageProbe(), maxProbe, rehashes);
+    }
+}
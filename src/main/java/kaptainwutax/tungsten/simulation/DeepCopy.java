@@ -134,6 +134,35 @@ public final class DeepCopy {
 		return deepCopyObject(source, simClass, seen);
 	}
 
+	/**
+	 * Deep-copy a single field value with the same sharing rules as {@link #copyToSimulated}.
+	 * Callers copying several fields of one object pass the same identity map so aliasing between
+	 * fields is preserved.
+	 */
+	public Object copyValue(Object value, IdentityHashMap<Object, Object> seen) {
+		return deepCopyValue(value, seen);
+	}
+
+	/**
+	 * Whether every value stored in a field of the given declared type is shared by reference,
+	 * so the field can be copied without looking at the runtime type.
+	 */
+	public boolean isAlwaysShared(Class<?> declaredType) {
+		if (declaredType.isPrimitive() || declaredType.isEnum() || declaredType.isRecord()) {
+			return true;
+		}
+		if (immutableTypes.contains(declaredType.getName()) || isSharedType(declaredType)) {
+			return true;
+		}
+		return Modifier.isFinal(declaredType.getModifiers())
+			&& (declaredType == String.class || declaredType == Boolean.class || declaredType == Character.class
+				|| declaredType == java.util.Optional.class || Number.class.isAssignableFrom(declaredType));
+	}
+
+	static Unsafe unsafe() {
+		return UNSAFE;
+	}
+
 	/**
 	 * Deep-copy an object, allocating it as targetClass (used for hierarchy
 	 * remapping). For non-hierarchy objects, targetClass == source.getClass().
@@ -35,7 +35,14 @@ public class SimulatedBlockCollisions extends AbstractIterator<VoxelShape> {
     }
 
     public SimulatedBlockCollisions(CollisionView world, SimulatedPlayer player, Box box, boolean forEntity) {
-        this.context = new SimulatedShapeContext(player);
+        this(world, new SimulatedShapeContext(player), box, forEntity);
+    }
+
+    /**
+     * Collects against an explicit shape context, for callers without a simulated player.
+     */
+    public SimulatedBlockCollisions(CollisionView world, ShapeContext context, Box box, boolean forEntity) {
+        this.context = context;
         this.pos = new BlockPos.Mutable();
         this.boxShape = VoxelShapes.cuboid(box);
         this.world = world;
@@ -0,0 +1,81 @@
+package kaptainwutax.tungsten.simulation;
+
+import net.minecraft.entity.effect.StatusEffect;
+import net.minecraft.entity.player.PlayerAbilities;
+import net.minecraft.registry.entry.RegistryEntry;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.Vec3d;
+
+/**
+ * Direct accessors implemented by the generated simulated player class.
+ * <p>
+ * {@code SimClassGenerator} adds this interface to the flattened class and emits a
+ * bridge for every method, so {@link SimulatedPlayerFactory.SimulatedPlayerHandle}
+ * can call into the simulation with plain interface calls instead of reflection.
+ * Bridges are resolved by name:
+ * <ul>
+ *     <li>{@code sim$name} invokes the hierarchy method {@code name} with the same descriptor</li>
+ *     <li>{@code sim$field$name} reads the hierarchy field {@code name}</li>
+ *     <li>{@code sim$setField$name} writes the hierarchy field {@code name}</li>
+ * </ul>
+ * Generation fails if a member cannot be resolved, so anything optional stays reflective.
+ */
+public interface SimulatedEntityAccessor {
+
+	/** Runs one movement tick, preferring {@code movementTick} over {@code tickMovement} like the reflective path. */
+	void sim$tickMovement();
+
+	Vec3d sim$getPos();
+
+	Vec3d sim$getVelocity();
+
+	boolean sim$isOnGround();
+
+	boolean sim$isTouchingWater();
+
+	boolean sim$isSubmergedInWater();
+
+	boolean sim$isInLava();
+
+	boolean sim$isSprinting();
+
+	boolean sim$isSwimming();
+
+	Box sim$getBoundingBox();
+
+	float sim$getStepHeight();
+
+	float sim$getStandingEyeHeight();
+
+	float sim$getYaw();
+
+	float sim$getPitch();
+
+	boolean sim$hasStatusEffect(RegistryEntry<StatusEffect> effect);
+
+	boolean sim$isUsingItem();
+
+	PlayerAbilities sim$getAbilities();
+
+	void sim$setYaw(float yaw);
+
+	void sim$setPitch(float pitch);
+
+	void sim$setField$lastYaw(float yaw);
+
+	void sim$setField$lastPitch(float pitch);
+
+	boolean sim$field$horizontalCollision();
+
+	boolean sim$field$verticalCollision();
+
+	boolean sim$field$collidedSoftly();
+
+	double sim$field$fallDistance();
+
+	Object sim$field$queuedCollisionChecks();
+
+	Object sim$field$currentlyCheckedCollisions();
+
+	Object sim$field$collidedBlockPositions();
+}
@@ -1,7 +1,17 @@
 package kaptainwutax.tungsten.simulation;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import kaptainwutax.tungsten.Debug;
 import kaptainwutax.tungsten.TungstenMod;
+import kaptainwutax.tungsten.constants.pathfinding.PathfindingConstants;
+import kaptainwutax.tungsten.constants.physics.GravityConstants;
+import kaptainwutax.tungsten.constants.physics.MovementConstants;
 import kaptainwutax.tungsten.helpers.render.RenderHelper;
+import kaptainwutax.tungsten.metrics.Counter;
+import kaptainwutax.tungsten.metrics.Metrics;
 import kaptainwutax.tungsten.path.Node;
 import kaptainwutax.tungsten.path.PathInput;
 import kaptainwutax.tungsten.render.Color;
@@ -13,9 +23,11 @@ import net.minecraft.block.TrapdoorBlock;
 import net.minecraft.client.network.ClientPlayerEntity;
 import net.minecraft.entity.EntityDimensions;
 import net.minecraft.registry.tag.BlockTags;
+import net.minecraft.util.PlayerInput;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Box;
 import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Vec2f;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.util.shape.VoxelShape;
 import net.minecraft.world.WorldView;
@@ -27,6 +39,9 @@ public class SimulatedPlayer {
     private static final ThreadLocal<BlockPos.Mutable> threadLocalBlockPos =
             ThreadLocal.withInitial(BlockPos.Mutable::new);
 
+    /** Set once the airborne fast path missed the full ticks, keeps it off until the next search */
+    private static final AtomicBoolean FAST_PATH_FALLBACK = new AtomicBoolean();
+
     private final SimulatedPlayerFactory.SimulatedPlayerHandle handle;
     public final SimulatedInput input = new SimulatedInput();
 
@@ -51,6 +66,12 @@ public class SimulatedPlayer {
     public boolean fallFlying;
     public boolean jumping;
 
+    /** Input of the next tick */
+    private PathInput appliedInput;
+    // Inputs of the airborne ticks advanced in closed form but not yet run on the handle, oldest first
+    private volatile List<PathInput> deferredTicks;
+    private WorldView deferredWorld;
+
     public SimulatedPlayer(ClientPlayerEntity player) {
         this.handle = SimulatedPlayerFactory.createFrom(player);
         SimulatedPlayerFactory.attachInput(this.handle, this.input);
@@ -62,6 +83,7 @@ public class SimulatedPlayer {
     }
 
     public SimulatedPlayer(SimulatedPlayer parent, PathInput input) {
+        parent.catchUp();
         this.handle = SimulatedPlayerFactory.copyFrom(parent.handle);
         SimulatedPlayerFactory.attachInput(this.handle, this.input);
         this.input.playerInput = parent.input.playerInput;
@@ -71,10 +93,41 @@ public class SimulatedPlayer {
     }
 
     public SimulatedPlayer tick(WorldView world) {
+        if (this.tryAirborneTick(world)) {
+            Metrics.count(Counter.FAST_PATH_TICKS);
+            return this;
+        }
+        this.catchUp();
+        this.runTick(world);
+        return this;
+    }
+
+    private void runTick(WorldView world) {
+        Metrics.count(Counter.SIMULATED_TICKS);
         this.handle.tickMovement();
         this.handle.clearCollisionAccumulation();
         this.syncFromHandle();
-        return this;
+    }
+
+    /**
+     * Same as copying {@code parent} with {@code input} and ticking it {@code ticks} times, for states
+     * that were simulated before. The result is taken from the {@link TickMemo} when {@code owner}
+     * was already re-simulated against {@code world}.
+     *
+     * @param owner identifies the state, normally the node it belongs to
+     */
+    public static SimulatedPlayer resimulate(Object owner, SimulatedPlayer parent, PathInput input, int ticks, WorldView world) {
+        SimulatedPlayer next = new SimulatedPlayer(parent, input);
+        if (TickMemo.replay(owner, world, next.handle, next.input)) {
+            next.syncFromHandle();
+            return next;
+        }
+        for (int i = 0; i < ticks; i++) {
+            next.tick(world);
+        }
+        next.catchUp();
+        TickMemo.record(owner, world, next.handle, next.input);
+        return next;
     }
 
     public SimulatedPlayer tick(WorldView world, PathInput input) {
@@ -83,11 +136,182 @@ public class SimulatedPlayer {
     }
 
     public void applyInput(PathInput input) {
+        this.appliedInput = input;
+        this.yaw = input.yaw();
+        this.pitch = input.pitch();
+        // A handle that is behind gets the input once its deferred ticks have run
+        if (this.deferredTicks == null) {
+            this.applyToHandle(input);
+        }
+    }
+
+    private void applyToHandle(PathInput input) {
         this.input.setInput(input);
         this.handle.setYaw(input.yaw());
         this.handle.setPitch(input.pitch());
-        this.yaw = input.yaw();
-        this.pitch = input.pitch();
+    }
+
+    /**
+     * Advances the mirrored state by one tick in closed form when the player is airborne with
+     * nothing but air in reach of the swept box, so the tick is only gravity, drag and the input
+     * acceleration. The handle is left behind until {@link #catchUp} replays the tick.
+     *
+     * @return false when the tick has to run on the handle
+     */
+    private boolean tryAirborneTick(WorldView world) {
+        PathInput input = this.appliedInput;
+        if (!TungstenMod.airborneFastPath || FAST_PATH_FALLBACK.get() || input == null || this.box == null) return false;
+        if (this.onGround || this.touchingWater || this.isSubmergedInWater || this.swimming || this.fallFlying) return false;
+
+        List<PathInput> pending = this.deferredTicks;
+        if (pending != null ? world != this.deferredWorld : this.handle.isInLava()) return false;
+
+        // Skip key changes that change more than the velocity: poses, elytra and sprint toggles
+        PlayerInput previous = this.input.playerInput;
+        boolean previousForward = pending != null ? pending.getLast().forward() : previous.forward();
+        boolean previousJump = pending != null ? pending.getLast().jump() : previous.jump();
+        boolean previousSneak = pending != null ? pending.getLast().sneak() : previous.sneak();
+        boolean forward = input.forward() && !input.back();
+        if (input.sneak() || previousSneak || (input.jump() && !previousJump)) return false;
+        if (this.sprinting ? !forward : (input.sprint() && forward) || (input.forward() && !previousForward)) return false;
+        if (!this.handle.hasPlainAirPhysics()) return false;
+
+        double velX = this.velX;
+        double velY = Math.abs(this.velY) < MovementConstants.Air.MIN_VERTICAL_SPEED ? 0.0 : this.velY;
+        double velZ = this.velZ;
+        if (velX * velX + velZ * velZ < MovementConstants.Air.MIN_HORIZONTAL_SPEED_SQUARED) {
+            velX = 0.0;
+            velZ = 0.0;
+        }
+        Vec3d acceleration = airAcceleration(input, this.sprinting);
+        double moveX = velX + acceleration.x;
+        double moveY = velY + acceleration.y;
+        double moveZ = velZ + acceleration.z;
+
+        Box region = this.box.stretch(moveX, moveY, moveZ).expand(PathfindingConstants.AirborneFastPath.NEIGHBOURHOOD_MARGIN);
+        if (!isOpenAir(world, region)) return false;
+
+        if (pending == null) {
+            pending = new ArrayList<>();
+            this.deferredWorld = world;
+            this.deferredTicks = pending;
+        }
+        pending.add(input);
+
+        this.posX += moveX;
+        this.posY += moveY;
+        this.posZ += moveZ;
+        this.blockX = MathHelper.floor(this.posX);
+        this.blockY = MathHelper.floor(this.posY);
+        this.blockZ = MathHelper.floor(this.posZ);
+        this.box = this.box.offset(moveX, moveY, moveZ);
+        if (moveY < 0.0) {
+            this.fallDistance -= moveY;
+        }
+        this.velX = moveX * (double) MovementConstants.Air.HORIZONTAL_DRAG;
+        this.velY = (moveY - GravityConstants.Gravity.STANDARD_GRAVITY) * (double) MovementConstants.Air.VERTICAL_DRAG;
+        this.velZ = moveZ * (double) MovementConstants.Air.HORIZONTAL_DRAG;
+        this.horizontalCollision = false;
+        this.verticalCollision = false;
+        this.collidedSoftly = false;
+        return true;
+    }
+
+    /**
+     * Velocity the movement keys add in one airborne tick, the same steps as the client player's
+     * input scaling followed by {@code Entity.movementInputToVelocity}.
+     */
+    private static Vec3d airAcceleration(PathInput input, boolean sprinting) {
+        float strafe = input.left() == input.right() ? 0.0F : input.left() ? 1.0F : -1.0F;
+        float forward = input.forward() == input.back() ? 0.0F : input.forward() ? 1.0F : -1.0F;
+        Vec2f movement = new Vec2f(strafe, forward).normalize();
+        if (movement.lengthSquared() == 0.0F) return Vec3d.ZERO;
+
+        // Input scaling, then the diagonal correction
+        movement = movement.multiply(MovementConstants.Speed.MOVEMENT_INPUT_MULTIPLIER);
+        float length = movement.length();
+        Vec2f direction = movement.multiply(1.0F / length);
+        float ratio = Math.abs(direction.y) > Math.abs(direction.x)
+                ? Math.abs(direction.x) / Math.abs(direction.y)
+                : Math.abs(direction.y) / Math.abs(direction.x);
+        movement = direction.multiply(Math.min(length * MathHelper.sqrt(1.0F + MathHelper.square(ratio)), 1.0F));
+
+        Vec3d local = new Vec3d(movement.x, 0.0, movement.y);
+        double lengthSquared = local.lengthSquared();
+        if (lengthSquared < 1.0E-7) return Vec3d.ZERO;
+        float speed = sprinting ? MovementConstants.Air.SPRINT_STRAFE_SPEED : MovementConstants.Air.STRAFE_SPEED_BASE;
+        Vec3d scaled = (lengthSquared > 1.0 ? local.normalize() : local).multiply(speed);
+        float sin = MathHelper.sin(input.yaw() * MathHelper.RADIANS_PER_DEGREE);
+        float cos = MathHelper.cos(input.yaw() * MathHelper.RADIANS_PER_DEGREE);
+        return new Vec3d(scaled.x * cos - scaled.z * sin, scaled.y, scaled.z * cos + scaled.x * sin);
+    }
+
+    /**
+     * Whether every block of {@code region} is air in a loaded chunk inside the world border.
+     */
+    private static boolean isOpenAir(WorldView world, Box region) {
+        if (!world.getWorldBorder().contains(region.minX, region.minZ) || !world.getWorldBorder().contains(region.maxX, region.maxZ)) {
+            return false;
+        }
+        int minX = MathHelper.floor(region.minX), maxX = MathHelper.floor(region.maxX);
+        int minY = MathHelper.floor(region.minY), maxY = MathHelper.floor(region.maxY);
+        int minZ = MathHelper.floor(region.minZ), maxZ = MathHelper.floor(region.maxZ);
+        for (int chunkX = minX >> 4; chunkX <= maxX >> 4; chunkX++) {
+            for (int chunkZ = minZ >> 4; chunkZ <= maxZ >> 4; chunkZ++) {
+                if (!world.isChunkLoaded(chunkX, chunkZ)) return false;
+            }
+        }
+
+        BlockPos.Mutable mutable = threadLocalBlockPos.get();
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    if (!world.getBlockState(mutable.set(x, y, z)).isAir()) return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Lets the airborne fast path run again after a mismatch, called when a search starts.
+     */
+    public static void resetFastPathFallback() {
+        FAST_PATH_FALLBACK.set(false);
+    }
+
+    /**
+     * Runs the ticks {@link #tryAirborneTick} deferred on the handle, then checks that the closed
+     * form landed on the same state. A mismatch makes the fast path fall back to full ticks for the
+     * rest of the search, see {@link #resetFastPathFallback}.
+     * Call this before the state is relied on exactly, like for the nodes of a path to execute.
+     */
+    public void catchUp() {
+        if (this.deferredTicks == null) return;
+        synchronized (this) {
+            List<PathInput> pending = this.deferredTicks;
+            if (pending == null) return;
+
+            double predictedX = this.posX, predictedY = this.posY, predictedZ = this.posZ;
+            double predictedVelX = this.velX, predictedVelY = this.velY, predictedVelZ = this.velZ;
+            for (PathInput input : pending) {
+                this.applyToHandle(input);
+                this.runTick(this.deferredWorld);
+            }
+            this.applyToHandle(this.appliedInput);
+
+            double error = Math.max(Math.max(Math.abs(predictedX - this.posX), Math.abs(predictedY - this.posY)), Math.abs(predictedZ - this.posZ));
+            error = Math.max(error, Math.max(Math.max(Math.abs(predictedVelX - this.velX), Math.abs(predictedVelY - this.velY)), Math.abs(predictedVelZ - this.velZ)));
+            if (error > PathfindingConstants.AirborneFastPath.FIDELITY_TOLERANCE || this.onGround || this.horizontalCollision) {
+                Metrics.count(Counter.FAST_PATH_MISMATCHES);
+                if (FAST_PATH_FALLBACK.compareAndSet(false, true)) {
+                    Debug.logWarning("Airborne fast path was off by %.3g after %d ticks, using full ticks for this search", error, pending.size());
+                }
+            }
+            // Published last, readers that skip the lock on null must see the finished handle
+            this.deferredWorld = null;
+            this.deferredTicks = null;
+        }
     }
 
     public Vec3d getPos() {
@@ -121,11 +345,28 @@ public class SimulatedPlayer {
     }
 
     public boolean isInLava() {
+        // Deferred ticks only happen in open air, away from any lava
+        if (this.deferredTicks != null) return false;
         return this.handle.isInLava();
     }
 
+    /**
+     * Hands the simulated entity back to the factory pool. Only call this on players that
+     * are being discarded; the player must not be ticked or queried afterwards.
+     */
+    public void release() {
+        SimulatedPlayerFactory.release(this.handle);
+    }
+
     public void compare(ClientPlayerEntity player, boolean executor) {
-        if (this.posX != player.getX() || this.posY != player.getY() || this.posZ != player.getZ()) {
+        compare(this.posX, this.posY, this.posZ, this.velX, this.velY, this.velZ, player);
+    }
+
+    /**
+     * Flags a divergence between a simulated state and the real player while a path is executing.
+     */
+    public static void compare(double posX, double posY, double posZ, double velX, double velY, double velZ, ClientPlayerEntity player) {
+        if (posX != player.getX() || posY != player.getY() || posZ != player.getZ()) {
             if (TungstenMod.EXECUTOR.isRunning()) {
                 Node node = TungstenMod.EXECUTOR.getCurrentNode();
                 if (node != null) {
@@ -135,7 +376,7 @@ public class SimulatedPlayer {
             }
         }
 
-        if (this.velX != player.getVelocity().x || this.velY != player.getVelocity().y || this.velZ != player.getVelocity().z) {
+        if (velX != player.getVelocity().x || velY != player.getVelocity().y || velZ != player.getVelocity().z) {
             if (TungstenMod.EXECUTOR.isRunning()) {
                 Node node = TungstenMod.EXECUTOR.getCurrentNode();
                 if (node != null) {
@@ -4,9 +4,14 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import kaptainwutax.tungsten.Debug;
 import net.minecraft.client.input.Input;
 import net.minecraft.client.network.ClientPlayerEntity;
 import net.minecraft.entity.EntityDimensions;
+import net.minecraft.entity.effect.StatusEffects;
+import net.minecraft.entity.player.PlayerAbilities;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Box;
 import net.minecraft.util.math.MathHelper;
@@ -19,6 +24,12 @@ public final class SimulatedPlayerFactory {
 	private static volatile SimulatedPlayerAccess cachedAccess;
 	private static volatile DeepCopy cachedCopier;
 	private static volatile Field cachedChangeListenerField;
+	private static volatile SimulatedStateCodec cachedCodec;
+	private static volatile boolean codecUnavailable;
+	// Recycled simulated instances, refilled by release() and drained by copyFrom()
+	private static final int INSTANCE_POOL_CAPACITY = 256;
+	private static final ConcurrentLinkedQueue<Object> INSTANCE_POOL = new ConcurrentLinkedQueue<>();
+	private static final AtomicInteger INSTANCE_POOL_SIZE = new AtomicInteger();
 
 	private SimulatedPlayerFactory() {
 	}
@@ -43,8 +54,15 @@ public final class SimulatedPlayerFactory {
 	public static SimulatedPlayerHandle copyFrom(SimulatedPlayerHandle source) {
 		SimMetadata data = loadMetadata();
 		try {
-			DeepCopy copier = getCopier(data);
-			Object instance = copier.copyToSimulated(source.getRaw(), source.getRaw().getClass());
+			Object raw = source.getRaw();
+			SimulatedStateCodec codec = getCodec(data, raw.getClass());
+			Object instance;
+			if (codec != null) {
+				instance = acquireInstance(codec);
+				codec.copy(raw, instance);
+			} else {
+				instance = getCopier(data).copyToSimulated(raw, raw.getClass());
+			}
 			setChangeListener(instance);
 			return new SimulatedPlayerHandle(instance, source.access);
 		} catch (Exception ex) {
@@ -52,6 +70,56 @@ public final class SimulatedPlayerFactory {
 		}
 	}
 
+	/**
+	 * Returns a simulated instance to the pool once nothing references the handle anymore.
+	 * The handle must not be ticked or read after this call.
+	 */
+	public static void release(SimulatedPlayerHandle handle) {
+		SimulatedStateCodec codec = cachedCodec;
+		if (handle == null || codec == null || handle.getRaw().getClass() != codec.getSimClass()) {
+			return;
+		}
+		if (INSTANCE_POOL_SIZE.incrementAndGet() > INSTANCE_POOL_CAPACITY) {
+			INSTANCE_POOL_SIZE.decrementAndGet();
+			return;
+		}
+		INSTANCE_POOL.offer(handle.getRaw());
+	}
+
+	private static Object acquireInstance(SimulatedStateCodec codec) throws InstantiationException {
+		Object pooled = INSTANCE_POOL.poll();
+		if (pooled != null) {
+			INSTANCE_POOL_SIZE.decrementAndGet();
+			return pooled;
+		}
+		return codec.allocate();
+	}
+
+	private static SimulatedStateCodec getCodec(SimMetadata data, Class<?> simClass) {
+		if (cachedCodec == null && !codecUnavailable) {
+			synchronized (SimulatedPlayerFactory.class) {
+				if (cachedCodec == null && !codecUnavailable) {
+					try {
+						cachedCodec = new SimulatedStateCodec(data, getCopier(data), simClass);
+					} catch (RuntimeException ex) {
+						codecUnavailable = true;
+						Debug.logWarning("Falling back to deep copy for simulated players: " + ex.getMessage());
+					}
+				}
+			}
+		}
+		SimulatedStateCodec codec = cachedCodec;
+		return codec != null && codec.getSimClass() == simClass ? codec : null;
+	}
+
+	/**
+	 * @return the codec of the pooled simulated class if {@code handle} is one of its instances, else {@code null}
+	 */
+	static SimulatedStateCodec codecOf(SimulatedPlayerHandle handle) {
+		SimulatedStateCodec codec = cachedCodec;
+		return codec != null && handle.getRaw().getClass() == codec.getSimClass() ? codec : null;
+	}
+
 	private static DeepCopy getCopier(SimMetadata data) {
 		if (cachedCopier == null) {
 			synchronized (SimulatedPlayerFactory.class) {
@@ -129,10 +197,13 @@ public final class SimulatedPlayerFactory {
 	public static final class SimulatedPlayerHandle {
 		private final Object instance;
 		final SimulatedPlayerAccess access;
+		// Generated bridges, null when the simulated class predates SimulatedEntityAccessor
+		private final SimulatedEntityAccessor direct;
 
 		SimulatedPlayerHandle(Object instance, SimulatedPlayerAccess access) {
 			this.instance = instance;
 			this.access = access;
+			this.direct = instance instanceof SimulatedEntityAccessor accessor ? accessor : null;
 		}
 
 		public Object getRaw() {
@@ -140,6 +211,10 @@ public final class SimulatedPlayerFactory {
 		}
 
 		public void tickMovement() {
+			if (direct != null) {
+				direct.sim$tickMovement();
+				return;
+			}
 			Method method = access.movementTick != null ? access.movementTick : access.tickMovement;
 			if (method == null) {
 				throw new IllegalStateException("Movement method not found");
@@ -152,10 +227,16 @@ public final class SimulatedPlayerFactory {
 		}
 
 		public Vec3d getPos() {
+			if (direct != null) {
+				return direct.sim$getPos();
+			}
 			return invoke(access.getPos, Vec3d.ZERO);
 		}
 
 		public Vec3d getVelocity() {
+			if (direct != null) {
+				return direct.sim$getVelocity();
+			}
 			return invoke(access.getVelocity, Vec3d.ZERO);
 		}
 
@@ -165,26 +246,44 @@ public final class SimulatedPlayerFactory {
 		}
 
 		public boolean isOnGround() {
+			if (direct != null) {
+				return direct.sim$isOnGround();
+			}
 			return invokeBoolean(access.isOnGround, false);
 		}
 
 		public boolean isTouchingWater() {
+			if (direct != null) {
+				return direct.sim$isTouchingWater();
+			}
 			return invokeBoolean(access.isTouchingWater, false);
 		}
 
 		public boolean isSubmergedInWater() {
+			if (direct != null) {
+				return direct.sim$isSubmergedInWater();
+			}
 			return invokeBoolean(access.isSubmergedInWater, false);
 		}
 
 		public boolean isInLava() {
+			if (direct != null) {
+				return direct.sim$isInLava();
+			}
 			return invokeBoolean(access.isInLava, false);
 		}
 
 		public boolean isSprinting() {
+			if (direct != null) {
+				return direct.sim$isSprinting();
+			}
 			return invokeBoolean(access.isSprinting, false);
 		}
 
 		public boolean isSwimming() {
+			if (direct != null) {
+				return direct.sim$isSwimming();
+			}
 			return invokeBoolean(access.isSwimming, false);
 		}
 
@@ -192,19 +291,45 @@ public final class SimulatedPlayerFactory {
 			return invokeBoolean(access.isFallFlying, false);
 		}
 
+		/**
+		 * Whether the simulated player's own abilities, item use and effects leave airborne
+		 * movement to gravity and drag alone. Always false without the direct accessors.
+		 */
+		public boolean hasPlainAirPhysics() {
+			if (direct == null) return false;
+			PlayerAbilities abilities = direct.sim$getAbilities();
+			return abilities != null
+					&& !abilities.allowFlying
+					&& !direct.sim$isUsingItem()
+					&& !direct.sim$hasStatusEffect(StatusEffects.LEVITATION)
+					&& !direct.sim$hasStatusEffect(StatusEffects.SLOW_FALLING);
+		}
+
 		public Box getBoundingBox() {
+			if (direct != null) {
+				return direct.sim$getBoundingBox();
+			}
 			return invoke(access.getBoundingBox, null);
 		}
 
 		public float getStepHeight() {
+			if (direct != null) {
+				return direct.sim$getStepHeight();
+			}
 			return invokeFloat(access.getStepHeight, 0.6f);
 		}
 
 		public float getStandingEyeHeight() {
+			if (direct != null) {
+				return direct.sim$getStandingEyeHeight();
+			}
 			return invokeFloat(access.getStandingEyeHeight, 1.62f);
 		}
 
 		public float getYaw() {
+			if (direct != null) {
+				return direct.sim$getYaw();
+			}
 			if (access.getYaw != null) {
 				return invokeFloat(access.getYaw, 0f);
 			}
@@ -215,6 +340,9 @@ public final class SimulatedPlayerFactory {
 		}
 
 		public float getPitch() {
+			if (direct != null) {
+				return direct.sim$getPitch();
+			}
 			if (access.getPitch != null) {
 				return invokeFloat(access.getPitch, 0f);
 			}
@@ -225,28 +353,50 @@ public final class SimulatedPlayerFactory {
 		}
 
 		public void setYaw(float yaw) {
+			if (direct != null) {
+				direct.sim$setYaw(yaw);
+				direct.sim$setField$lastYaw(yaw);
+				return;
+			}
 			invokeSetter(access.setYaw, access.yawField, yaw);
 			writeFloatField(access.lastYawField, yaw);
 		}
 
 		public void setPitch(float pitch) {
+			if (direct != null) {
+				direct.sim$setPitch(pitch);
+				direct.sim$setField$lastPitch(pitch);
+				return;
+			}
 			invokeSetter(access.setPitch, access.pitchField, pitch);
 			writeFloatField(access.lastPitchField, pitch);
 		}
 
 		public boolean getHorizontalCollision() {
+			if (direct != null) {
+				return direct.sim$field$horizontalCollision();
+			}
 			return readBooleanField(access.horizontalCollisionField, false);
 		}
 
 		public boolean getVerticalCollision() {
+			if (direct != null) {
+				return direct.sim$field$verticalCollision();
+			}
 			return readBooleanField(access.verticalCollisionField, false);
 		}
 
 		public boolean getCollidedSoftly() {
+			if (direct != null) {
+				return direct.sim$field$collidedSoftly();
+			}
 			return readBooleanField(access.collidedSoftlyField, false);
 		}
 
 		public double getFallDistance() {
+			if (direct != null) {
+				return direct.sim$field$fallDistance();
+			}
 			return readDoubleField(access.fallDistanceField, 0.0);
 		}
 
@@ -262,6 +412,12 @@ public final class SimulatedPlayerFactory {
 		 * prevents O(N²) deep-copy cost over N simulation steps.
 		 */
 		public void clearCollisionAccumulation() {
+			if (direct != null) {
+				clearCollection(direct.sim$field$queuedCollisionChecks());
+				clearCollection(direct.sim$field$currentlyCheckedCollisions());
+				clearCollection(direct.sim$field$collidedBlockPositions());
+				return;
+			}
 			clearCollectionField(access.queuedCollisionChecksField);
 			clearCollectionField(access.currentlyCheckedCollisionsField);
 			clearCollectionField(access.collidedBlockPositionsField);
@@ -270,16 +426,19 @@ public final class SimulatedPlayerFactory {
 		private void clearCollectionField(Field field) {
 			if (field == null) return;
 			try {
-				Object obj = field.get(instance);
-				if (obj instanceof java.util.Collection<?> c) {
-					c.clear();
-				} else if (obj instanceof it.unimi.dsi.fastutil.longs.LongSet s) {
-					s.clear();
-				}
+				clearCollection(field.get(instance));
 			} catch (ReflectiveOperationException ignored) {
 			}
 		}
 
+		private static void clearCollection(Object obj) {
+			if (obj instanceof java.util.Collection<?> c) {
+				c.clear();
+			} else if (obj instanceof it.unimi.dsi.fastutil.longs.LongSet s) {
+				s.clear();
+			}
+		}
+
 		private <T> T invoke(Method method, T fallback) {
 			if (method == null) {
 				return fallback;
@@ -0,0 +1,237 @@
+package kaptainwutax.tungsten.simulation;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import sun.misc.Unsafe;
+
+/**
+ * Flat save/restore of the movement state of a simulated player.
+ * <p>
+ * The field layout is computed once from {@link SimMetadata#whitelistedFields}, the same
+ * whitelist {@code FieldDependencyAnalyzer} produces for the generator, so exactly the fields
+ * the generated class can read are carried over. Non-whitelisted fields are never read by the
+ * generated code, which is what makes it safe to restore into a recycled instance.
+ * <p>
+ * Primitive fields are moved by offset (into a {@code long[]} for snapshots). Reference fields
+ * whose declared type is always shared are copied as plain references; the remaining mutable
+ * holders go through {@link DeepCopy#copyValue} with one identity map per copy.
+ */
+public final class SimulatedStateCodec {
+	private static final Unsafe UNSAFE = DeepCopy.unsafe();
+
+	private static final byte KIND_BOOLEAN = 0;
+	private static final byte KIND_BYTE = 1;
+	private static final byte KIND_SHORT = 2;
+	private static final byte KIND_CHAR = 3;
+	private static final byte KIND_INT = 4;
+	private static final byte KIND_LONG = 5;
+	private static final byte KIND_FLOAT = 6;
+	private static final byte KIND_DOUBLE = 7;
+
+	/** Stands in for the captured entity inside a snapshot, remapped to the target on restore. */
+	private static final Object SELF = new Object();
+
+	private final Class<?> simClass;
+	private final DeepCopy copier;
+	private final long[] primitiveOffsets;
+	private final byte[] primitiveKinds;
+	private final long[] referenceOffsets;
+	private final boolean[] referenceShared;
+
+	/**
+	 * Compact copy of one simulated player's movement state.
+	 */
+	public static final class Snapshot {
+		final long[] primitives;
+		final Object[] references;
+
+		private Snapshot(long[] primitives, Object[] references) {
+			this.primitives = primitives;
+			this.references = references;
+		}
+	}
+
+	public SimulatedStateCodec(SimMetadata metadata, DeepCopy copier, Class<?> simClass) {
+		Objects.requireNonNull(metadata, "metadata");
+		this.copier = Objects.requireNonNull(copier, "copier");
+		this.simClass = Objects.requireNonNull(simClass, "simClass");
+
+		List<Field> primitives = new ArrayList<>();
+		List<Field> references = new ArrayList<>();
+		for (Class<?> current = simClass; current != null && current != Object.class; current = current.getSuperclass()) {
+			Set<String> allowed = metadata.whitelistedFields.get(current.getName());
+			if (allowed == null) {
+				continue;
+			}
+			for (Field field : current.getDeclaredFields()) {
+				if (Modifier.isStatic(field.getModifiers()) || !allowed.contains(field.getName())) {
+					continue;
+				}
+				(field.getType().isPrimitive() ? primitives : references).add(field);
+			}
+		}
+
+		this.primitiveOffsets = new long[primitives.size()];
+		this.primitiveKinds = new byte[primitives.size()];
+		for (int i = 0; i < primitives.size(); i++) {
+			Field field = primitives.get(i);
+			this.primitiveOffsets[i] = UNSAFE.objectFieldOffset(field);
+			this.primitiveKinds[i] = kindOf(field.getType());
+		}
+
+		this.referenceOffsets = new long[references.size()];
+		this.referenceShared = new boolean[references.size()];
+		for (int i = 0; i < references.size(); i++) {
+			Field field = references.get(i);
+			this.referenceOffsets[i] = UNSAFE.objectFieldOffset(field);
+			this.referenceShared[i] = copier.isAlwaysShared(field.getType());
+		}
+	}
+
+	public Class<?> getSimClass() {
+		return simClass;
+	}
+
+	public int getPrimitiveFieldCount() {
+		return primitiveOffsets.length;
+	}
+
+	public int getReferenceFieldCount() {
+		return referenceOffsets.length;
+	}
+
+	/**
+	 * Allocates a blank simulated instance without running any constructor.
+	 */
+	public Object allocate() throws InstantiationException {
+		return UNSAFE.allocateInstance(simClass);
+	}
+
+	/**
+	 * Copies the movement state of {@code source} straight into {@code target}.
+	 */
+	public void copy(Object source, Object target) {
+		for (int i = 0; i < primitiveOffsets.length; i++) {
+			copyPrimitive(source, target, primitiveOffsets[i], primitiveKinds[i]);
+		}
+
+		IdentityHashMap<Object, Object> seen = null;
+		for (int i = 0; i < referenceOffsets.length; i++) {
+			Object value = UNSAFE.getObject(source, referenceOffsets[i]);
+			if (value != null && !referenceShared[i]) {
+				if (seen == null) {
+					seen = new IdentityHashMap<>(32);
+					seen.put(source, target);
+				}
+				value = copier.copyValue(value, seen);
+			}
+			UNSAFE.putObject(target, referenceOffsets[i], value);
+		}
+	}
+
+	/**
+	 * Saves the movement state of {@code source} into a detached snapshot.
+	 */
+	public Snapshot capture(Object source) {
+		long[] primitives = capturePrimitives(source);
+
+		Object[] references = new Object[referenceOffsets.length];
+		IdentityHashMap<Object, Object> seen = null;
+		for (int i = 0; i < referenceOffsets.length; i++) {
+			Object value = UNSAFE.getObject(source, referenceOffsets[i]);
+			if (value != null && !referenceShared[i]) {
+				if (seen == null) {
+					seen = new IdentityHashMap<>(32);
+					seen.put(source, SELF);
+				}
+				value = copier.copyValue(value, seen);
+			}
+			references[i] = value;
+		}
+		return new Snapshot(primitives, references);
+	}
+
+	/**
+	 * Reads only the primitive movement state of {@code source}, in field layout order. Two
+	 * instances with equal arrays differ at most in their reference fields.
+	 */
+	public long[] capturePrimitives(Object source) {
+		long[] primitives = new long[primitiveOffsets.length];
+		for (int i = 0; i < primitiveOffsets.length; i++) {
+			primitives[i] = readPrimitive(source, primitiveOffsets[i], primitiveKinds[i]);
+		}
+		return primitives;
+	}
+
+	/**
+	 * Restores a snapshot into {@code target}. The snapshot stays valid and can be restored again.
+	 */
+	public void restore(Snapshot snapshot, Object target) {
+		for (int i = 0; i < primitiveOffsets.length; i++) {
+			writePrimitive(target, primitiveOffsets[i], primitiveKinds[i], snapshot.primitives[i]);
+		}
+
+		IdentityHashMap<Object, Object> seen = null;
+		for (int i = 0; i < referenceOffsets.length; i++) {
+			Object value = snapshot.references[i];
+			if (value != null && !referenceShared[i]) {
+				if (seen == null) {
+					seen = new IdentityHashMap<>(32);
+					seen.put(SELF, target);
+				}
+				value = copier.copyValue(value, seen);
+			}
+			UNSAFE.putObject(target, referenceOffsets[i], value);
+		}
+	}
+
+	private static byte kindOf(Class<?> type) {
+		if (type == boolean.class) return KIND_BOOLEAN;
+		if (type == byte.class) return KIND_BYTE;
+		if (type == short.class) return KIND_SHORT;
+		if (type == char.class) return KIND_CHAR;
+		if (type == int.class) return KIND_INT;
+		if (type == long.class) return KIND_LONG;
+		if (type == float.class) return KIND_FLOAT;
+		if (type == double.class) return KIND_DOUBLE;
+		throw new IllegalArgumentException("Not a primitive type: " + type);
+	}
+
+	private static void copyPrimitive(Object source, Object target, long offset, byte kind) {
+		switch (kind) {
+			case KIND_BOOLEAN -> UNSAFE.putBoolean(target, offset, UNSAFE.getBoolean(source, offset));
+			case KIND_BYTE -> UNSAFE.putByte(target, offset, UNSAFE.getByte(source, offset));
+			case KIND_SHORT -> UNSAFE.putShort(target, offset, UNSAFE.getShort(source, offset));
+			case KIND_CHAR -> UNSAFE.putChar(target, offset, UNSAFE.getChar(source, offset));
+			case KIND_INT, KIND_FLOAT -> UNSAFE.putInt(target, offset, UNSAFE.getInt(source, offset));
+			default -> UNSAFE.putLong(target, offset, UNSAFE.getLong(source, offset));
+		}
+	}
+
+	private static long readPrimitive(Object source, long offset, byte kind) {
+		return switch (kind) {
+			case KIND_BOOLEAN -> UNSAFE.getBoolean(source, offset) ? 1L : 0L;
+			case KIND_BYTE -> UNSAFE.getByte(source, offset);
+			case KIND_SHORT -> UNSAFE.getShort(source, offset);
+			case KIND_CHAR -> UNSAFE.getChar(source, offset);
+			case KIND_INT, KIND_FLOAT -> UNSAFE.getInt(source, offset);
+			default -> UNSAFE.getLong(source, offset);
+		};
+	}
+
+	private static void writePrimitive(Object target, long offset, byte kind, long bits) {
+		switch (kind) {
+			case KIND_BOOLEAN -> UNSAFE.putBoolean(target, offset, bits != 0L);
+			case KIND_BYTE -> UNSAFE.putByte(target, offset, (byte) bits);
+			case KIND_SHORT -> UNSAFE.putShort(target, offset, (short) bits);
+			case KIND_CHAR -> UNSAFE.putChar(target, offset, (char) bits);
+			case KIND_INT, KIND_FLOAT -> UNSAFE.putInt(target, offset, (int) bits);
+			default -> UNSAFE.putLong(target, offset, bits);
+		}
+	}
+}
@@ -0,0 +1,143 @@
+package kaptainwutax.tungsten.simulation;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import kaptainwutax.tungsten.TungstenMod;
+import kaptainwutax.tungsten.constants.pathfinding.PathfindingConstants;
+import kaptainwutax.tungsten.metrics.Counter;
+import kaptainwutax.tungsten.metrics.Metrics;
+import net.minecraft.util.PlayerInput;
+import net.minecraft.util.math.Vec2f;
+import net.minecraft.world.WorldView;
+
+/**
+ * Bounded memo of re-simulated states, used while {@link TungstenMod#tickMemo} is on.
+ * <p>
+ * Only states that are simulated a second time go through here, like rebuilding a compacted node.
+ * An entry is keyed by the identity of its owner, the node whose input produced the state, and of
+ * the world it was simulated against. The simulation is deterministic, so the owner and the world
+ * fix every field the codec captures and a hit restores exactly the state the ticks would produce.
+ * First simulations pay nothing for the memo.
+ * <p>
+ * Owners and worlds are only weakly referenced. Entries are evicted with the CLOCK policy over a
+ * fixed ring of slots, and dropped as a whole when a search or a world starts.
+ */
+public final class TickMemo {
+
+	private static final Map<Key, Entry> ENTRIES = new ConcurrentHashMap<>();
+	// Ring the clock hand sweeps, guarded by itself
+	private static final Entry[] SLOTS = new Entry[PathfindingConstants.TickMemo.CAPACITY];
+	private static int hand;
+
+	private TickMemo() {
+	}
+
+	/**
+	 * Puts {@code handle} and {@code input} in the state recorded for {@code owner} in {@code world}.
+	 *
+	 * @return whether the state was known, if not the caller has to simulate it
+	 */
+	static boolean replay(Object owner, WorldView world, SimulatedPlayerFactory.SimulatedPlayerHandle handle, SimulatedInput input) {
+		SimulatedStateCodec codec = SimulatedPlayerFactory.codecOf(handle);
+		if (!TungstenMod.tickMemo || codec == null) return false;
+		Entry entry = ENTRIES.get(new Key(owner, world));
+		if (entry == null) {
+			Metrics.count(Counter.MEMO_MISSES);
+			return false;
+		}
+
+		entry.referenced = true;
+		codec.restore(entry.result, handle.getRaw());
+		input.playerInput = entry.playerInput;
+		input.setMovementVector(entry.movement);
+		Metrics.count(Counter.MEMO_HITS);
+		return true;
+	}
+
+	/**
+	 * Remembers the state {@code handle} and {@code input} are in after simulating {@code owner} in {@code world}.
+	 */
+	static void record(Object owner, WorldView world, SimulatedPlayerFactory.SimulatedPlayerHandle handle, SimulatedInput input) {
+		SimulatedStateCodec codec = SimulatedPlayerFactory.codecOf(handle);
+		if (!TungstenMod.tickMemo || codec == null) return;
+		Key key = new Key(owner, world);
+		if (ENTRIES.containsKey(key)) return;
+		Entry entry = new Entry(key, codec.capture(handle.getRaw()), input.playerInput, input.getMovementInput());
+
+		synchronized (SLOTS) {
+			if (ENTRIES.putIfAbsent(key, entry) != null) return;
+			while (SLOTS[hand] != null && SLOTS[hand].referenced && SLOTS[hand].key.isLive()) {
+				SLOTS[hand].referenced = false;
+				hand = (hand + 1) % SLOTS.length;
+			}
+			if (SLOTS[hand] != null) {
+				ENTRIES.remove(SLOTS[hand].key);
+			}
+			SLOTS[hand] = entry;
+			hand = (hand + 1) % SLOTS.length;
+		}
+	}
+
+	/**
+	 * Drops every entry, called when a search or a world starts.
+	 */
+	public static void clear() {
+		synchronized (SLOTS) {
+			ENTRIES.clear();
+			Arrays.fill(SLOTS, null);
+			hand = 0;
+		}
+	}
+
+	/**
+	 * Identity of an owner and a world. Lookups and stored keys compare equal while both referents are alive.
+	 */
+	private static final class Key {
+		private final WeakReference<Object> owner;
+		private final WeakReference<WorldView> world;
+		private final int hash;
+
+		private Key(Object owner, WorldView world) {
+			this.owner = new WeakReference<>(owner);
+			this.world = new WeakReference<>(world);
+			this.hash = 31 * System.identityHashCode(owner) + System.identityHashCode(world);
+		}
+
+		boolean isLive() {
+			return this.owner.get() != null && this.world.get() != null;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (!(o instanceof Key other)) return false;
+			Object owner = this.owner.get();
+			WorldView world = this.world.get();
+			return this.hash == other.hash && owner != null && world != null
+					&& owner == other.owner.get() && world == other.world.get();
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hash;
+		}
+	}
+
+	private static final class Entry {
+		final Key key;
+		final SimulatedStateCodec.Snapshot result;
+		final PlayerInput playerInput;
+		final Vec2f movement;
+		volatile boolean referenced;
+
+		Entry(Key key, SimulatedStateCodec.Snapshot result, PlayerInput playerInput, Vec2f movement) {
+			this.key = key;
+			this.result = result;
+			this.playerInput = playerInput;
+			this.movement = movement;
+		}
+	}
+}
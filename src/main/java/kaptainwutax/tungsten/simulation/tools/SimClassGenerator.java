@@ -60,6 +60,16 @@ public final class SimClassGenerator {
 	private static final String ENTITY_INTERNAL = "net/minecraft/entity/Entity";
 	private static final String LIVING_ENTITY_INTERNAL = "net/minecraft/entity/LivingEntity";
 
+	// Accessor interface implemented by the generated class, see SimulatedEntityAccessor for the naming rules
+	private static final String ACCESSOR_INTERNAL = "kaptainwutax/tungsten/simulation/SimulatedEntityAccessor";
+	private static final String ACCESSOR_METHOD_PREFIX = "sim$";
+	private static final String ACCESSOR_FIELD_GETTER_PREFIX = "sim$field$";
+	private static final String ACCESSOR_FIELD_SETTER_PREFIX = "sim$setField$";
+	// Accessor targets that may exist under several names, tried in order
+	private static final Map<String, List<String>> ACCESSOR_METHOD_ALIASES = Map.of(
+		"tickMovement", List.of("movementTick", "tickMovement")
+	);
+
 	private SimClassGenerator() {
 	}
 
@@ -249,6 +259,9 @@ public final class SimClassGenerator {
 		// within the flattened class to target the correct renamed methods.
 		rewriteMethodCalls(simNode, hierarchy, superCallMap, simInternal, parentMap, classNodes, methodOrigin);
 
+		// Emit direct accessors last so the call rewriting above leaves them untouched
+		addAccessorBridges(simNode, simInternal, classNodes);
+
 		ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS) {
 			@Override
 			protected String getCommonSuperClass(String type1, String type2) {
@@ -288,6 +301,86 @@ public final class SimClassGenerator {
 		metadata.save(parsed.metadataPath);
 	}
 
+	/**
+	 * Implement {@code SimulatedEntityAccessor} on the flattened class.
+	 * Each interface method becomes a one-instruction bridge (invokevirtual, getfield or putfield)
+	 * so the handle can reach the simulation without reflection or boxing.
+	 */
+	private static void addAccessorBridges(ClassNode simNode, String simInternal, Map<String, ClassNode> classNodes) throws IOException {
+		ClassNode accessor = new ClassNode();
+		new ClassReader(readClassBytes(ACCESSOR_INTERNAL, null)).accept(accessor, 0);
+		simNode.interfaces.add(ACCESSOR_INTERNAL);
+
+		for (MethodNode template : accessor.methods) {
+			if ((template.access & Opcodes.ACC_ABSTRACT) == 0) {
+				continue;
+			}
+			Type[] argumentTypes = Type.getArgumentTypes(template.desc);
+			Type returnType = Type.getReturnType(template.desc);
+			MethodNode bridge = new MethodNode(Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL, template.name, template.desc, null, null);
+			InsnList insns = bridge.instructions;
+			insns.add(new VarInsnNode(Opcodes.ALOAD, 0));
+
+			if (template.name.startsWith(ACCESSOR_FIELD_SETTER_PREFIX)) {
+				FieldNode field = findAccessorField(classNodes, template.name.substring(ACCESSOR_FIELD_SETTER_PREFIX.length()));
+				if (argumentTypes.length != 1 || returnType != Type.VOID_TYPE || !field.desc.equals(argumentTypes[0].getDescriptor())) {
+					throw new IllegalStateException("Accessor " + template.name + template.desc + " does not match field " + field.name + ":" + field.desc);
+				}
+				insns.add(new VarInsnNode(argumentTypes[0].getOpcode(Opcodes.ILOAD), 1));
+				insns.add(new FieldInsnNode(Opcodes.PUTFIELD, simInternal, field.name, field.desc));
+			} else if (template.name.startsWith(ACCESSOR_FIELD_GETTER_PREFIX)) {
+				FieldNode field = findAccessorField(classNodes, template.name.substring(ACCESSOR_FIELD_GETTER_PREFIX.length()));
+				Type fieldType = Type.getType(field.desc);
+				boolean referenceReturn = returnType.getSort() == Type.OBJECT || returnType.getSort() == Type.ARRAY;
+				boolean referenceField = fieldType.getSort() == Type.OBJECT || fieldType.getSort() == Type.ARRAY;
+				if (argumentTypes.length != 0 || (referenceReturn ? !referenceField : !returnType.equals(fieldType))) {
+					throw new IllegalStateException("Accessor " + template.name + template.desc + " does not match field " + field.name + ":" + field.desc);
+				}
+				insns.add(new FieldInsnNode(Opcodes.GETFIELD, simInternal, field.name, field.desc));
+			} else if (template.name.startsWith(ACCESSOR_METHOD_PREFIX)) {
+				String target = findAccessorMethod(classNodes, template.name.substring(ACCESSOR_METHOD_PREFIX.length()), template.desc);
+				int local = 1;
+				for (Type argumentType : argumentTypes) {
+					insns.add(new VarInsnNode(argumentType.getOpcode(Opcodes.ILOAD), local));
+					local += argumentType.getSize();
+				}
+				insns.add(new MethodInsnNode(Opcodes.INVOKEVIRTUAL, simInternal, target, template.desc, false));
+			} else {
+				throw new IllegalStateException("Accessor method without sim$ prefix: " + template.name);
+			}
+
+			insns.add(new InsnNode(returnType.getOpcode(Opcodes.IRETURN)));
+			simNode.methods.add(bridge);
+		}
+	}
+
+	private static String findAccessorMethod(Map<String, ClassNode> classNodes, String name, String desc) {
+		for (String candidate : ACCESSOR_METHOD_ALIASES.getOrDefault(name, List.of(name))) {
+			for (ClassNode node : classNodes.values()) {
+				for (MethodNode method : node.methods) {
+					if ((method.access & Opcodes.ACC_STATIC) == 0 && method.name.equals(candidate) && method.desc.equals(desc)) {
+						return candidate;
+					}
+				}
+			}
+		}
+		throw new IllegalStateException("Accessor target method not found in hierarchy: " + name + desc);
+	}
+
+	private static FieldNode findAccessorField(Map<String, ClassNode> classNodes, String name) {
+		for (ClassNode node : classNodes.values()) {
+			for (FieldNode field : node.fields) {
+				if ((field.access & Opcodes.ACC_STATIC) == 0 && field.name.equals(name)) {
+					if ((field.access & Opcodes.ACC_PRIVATE) != 0) {
+						throw new IllegalStateException("Accessor target field is private, add it to the access widener: " + node.name + "." + name);
+					}
+					return field;
+				}
+			}
+		}
+		throw new IllegalStateException("Accessor target field not found in hierarchy: " + name);
+	}
+
 	/**
 	 * Rewrite method calls within the flattened class:
 	 * - invokespecial to hierarchy classes: distinguish super calls vs private method calls
@@ -0,0 +1,65 @@
+package kaptainwutax.tungsten.world;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import net.minecraft.util.math.BlockPos;
+
+/**
+ * Fans out block updates received from the server to anything caching world-derived state.
+ * <p>
+ * Notifications arrive on the client thread, from the block update and chunk delta packet
+ * handlers and from chunk loads and unloads. Listeners must be cheap and thread safe, typically they only
+ * queue the change for the thread that owns the cached state.
+ */
+public class BlockChangeNotifier {
+
+    public interface Listener {
+
+        /**
+         * A single block changed.
+         */
+        void onBlockChanged(int x, int y, int z);
+
+        /**
+         * A whole chunk column was (re)loaded, every block in it may have changed.
+         */
+        void onChunkLoaded(int chunkX, int chunkZ);
+
+        /**
+         * A chunk column was unloaded, its blocks can no longer be read.
+         */
+        default void onChunkUnloaded(int chunkX, int chunkZ) {
+        }
+    }
+
+    private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    public void addListener(Listener listener) {
+        listeners.addIfAbsent(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    public void blockChanged(BlockPos pos) {
+        int x = pos.getX();
+        int y = pos.getY();
+        int z = pos.getZ();
+        for (Listener listener : listeners) {
+            listener.onBlockChanged(x, y, z);
+        }
+    }
+
+    public void chunkLoaded(int chunkX, int chunkZ) {
+        for (Listener listener : listeners) {
+            listener.onChunkLoaded(chunkX, chunkZ);
+        }
+    }
+
+    public void chunkUnloaded(int chunkX, int chunkZ) {
+        for (Listener listener : listeners) {
+            listener.onChunkUnloaded(chunkX, chunkZ);
+        }
+    }
+}
@@ -1,20 +1,209 @@
 package kaptainwutax.tungsten.world;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import kaptainwutax.tungsten.helpers.BlockStateChecker;
+import kaptainwutax.tungsten.helpers.MovementHelper;
+import kaptainwutax.tungsten.path.blockSpaceSearchAssist.Ternary;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.block.LadderBlock;
+import net.minecraft.block.LeavesBlock;
+import net.minecraft.block.SlabBlock;
+import net.minecraft.block.StairsBlock;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.EmptyBlockView;
+import net.minecraft.world.chunk.ChunkSection;
+
+/**
+ * Immutable palette-compressed copy of one 16x16x16 chunk section.
+ * <p>
+ * Every block is an index into the section's palette of block states. The indices are packed into
+ * longs with a power-of-two word size (0, 1, 2, 4, 8 or 16 bits), so no entry spans two longs and a
+ * lookup is a shift and a mask. A section holding a single state stores no words at all. Each
+ * palette entry also has a flag byte with the block properties the searches check most often.
+ * <p>
+ * Writes return a new section, so a {@link VoxelWorld} snapshot holding the old one never sees them.
+ * A write that keeps the word size only copies the packed words and patches one of them.
+ */
 public class VoxelChunk2 {
 
-    protected int[] data;
+    /** {@link MovementHelper#canWalkOnBlockState} is {@code YES} */
+    public static final byte WALKABLE = 1;
+    /** Blocks the state-only part of {@link MovementHelper#isObscured}: full cubes, slabs, stairs, leaves and lava */
+    public static final byte OBSCURING = 1 << 1;
+    /** {@link BlockStateChecker#isAnyWater} */
+    public static final byte WATER = 1 << 2;
+    public static final byte LADDER = 1 << 3;
+    public static final byte SLAB = 1 << 4;
+
+    private static final int SIZE = 16 * 16 * 16;
+
+    public static final VoxelChunk2 EMPTY = of(new BlockState[] {Blocks.AIR.getDefaultState()}, new int[SIZE]);
+
+    private final BlockState[] palette;
+    private final byte[] flags;
+    /** log2 of the word size, -1 for a single state section */
+    private final int wordShift;
+    /** log2 of the number of words in one long */
+    private final int wordsPerLongShift;
+    private final int wordMask;
+    private final long[] data;
+
+    private VoxelChunk2(BlockState[] palette, byte[] flags, long[] data) {
+        this.palette = palette;
+        this.flags = flags;
+
+        int wordSize = wordSizeFor(palette.length);
+        this.wordShift = wordSize == 0 ? -1 : Integer.numberOfTrailingZeros(wordSize);
+        this.wordsPerLongShift = wordSize == 0 ? 0 : 6 - this.wordShift;
+        this.wordMask = (1 << wordSize) - 1;
+        this.data = data;
+    }
+
+    private static VoxelChunk2 of(BlockState[] palette, int[] ids) {
+        byte[] flags = new byte[palette.length];
+        for (int i = 0; i < palette.length; i++) {
+            flags[i] = computeFlags(palette[i]);
+        }
+        return pack(palette, flags, ids);
+    }
+
+    private static VoxelChunk2 pack(BlockState[] palette, byte[] flags, int[] ids) {
+        int wordSize = wordSizeFor(palette.length);
+        if (wordSize == 0) return new VoxelChunk2(palette, flags, new long[0]);
+
+        int wordShift = Integer.numberOfTrailingZeros(wordSize);
+        int wordsPerLongShift = 6 - wordShift;
+        int inLongMask = (1 << wordsPerLongShift) - 1;
+        long[] data = new long[SIZE >>> wordsPerLongShift];
+        for (int i = 0; i < SIZE; i++) {
+            data[i >>> wordsPerLongShift] |= (long) ids[i] << ((i & inLongMask) << wordShift);
+        }
+        return new VoxelChunk2(palette, flags, data);
+    }
+
+    /**
+     * Copies the block states of a live section. Must be called on the thread that owns the section.
+     */
+    public static VoxelChunk2 copyOf(ChunkSection section) {
+        if (section.isEmpty()) return EMPTY;
+        Reference2IntOpenHashMap<BlockState> known = new Reference2IntOpenHashMap<>();
+        known.defaultReturnValue(-1);
+        List<BlockState> palette = new ArrayList<>();
+        int[] ids = new int[SIZE];
+
+        for (int y = 0; y < 16; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    BlockState state = section.getBlockState(x, y, z);
+                    int id = known.getInt(state);
+                    if (id < 0) {
+                        id = palette.size();
+                        palette.add(state);
+                        known.put(state, id);
+                    }
+                    ids[index(x, y, z)] = id;
+                }
+            }
+        }
+        return of(palette.toArray(new BlockState[0]), ids);
+    }
+
+    public BlockState getBlockState(int x, int y, int z) {
+        return this.palette[this.getId(index(x, y, z))];
+    }
+
+    /**
+     * @return the flag byte of the block, a combination of {@link #WALKABLE}, {@link #OBSCURING},
+     *         {@link #WATER}, {@link #LADDER} and {@link #SLAB}
+     */
+    public byte getFlags(int x, int y, int z) {
+        return this.flags[this.getId(index(x, y, z))];
+    }
+
+    /**
+     * @return a copy of this section with one block replaced, or this section if the block is unchanged
+     */
+    public VoxelChunk2 with(int x, int y, int z, BlockState state) {
+        int index = index(x, y, z);
+        if (this.palette[this.getId(index)] == state) return this;
+
+        // The palette only grows, states that disappear keep their entry until the chunk is reloaded
+        BlockState[] palette = this.palette;
+        byte[] flags = this.flags;
+        int id = indexOf(palette, state);
+        if (id < 0) {
+            id = palette.length;
+            palette = Arrays.copyOf(palette, id + 1);
+            palette[id] = state;
+            flags = Arrays.copyOf(flags, id + 1);
+            flags[id] = computeFlags(state);
+
+            if (wordSizeFor(palette.length) != wordSizeFor(this.palette.length)) {
+                int[] ids = new int[SIZE];
+                for (int i = 0; i < SIZE; i++) {
+                    ids[i] = this.getId(i);
+                }
+                ids[index] = id;
+                return pack(palette, flags, ids);
+            }
+        }
+
+        long[] data = this.data.clone();
+        int shift = (index & ((1 << this.wordsPerLongShift) - 1)) << this.wordShift;
+        data[index >>> this.wordsPerLongShift] &= ~((long) this.wordMask << shift);
+        data[index >>> this.wordsPerLongShift] |= (long) id << shift;
+        return new VoxelChunk2(palette, flags, data);
+    }
+
+    /**
+     * @return approximate heap size of this section in bytes, for logging
+     */
+    public int getMemoryUsage() {
+        return 48 + this.palette.length * 5 + this.data.length * 8;
+    }
+
+    private int getId(int index) {
+        if (this.wordShift < 0) return 0;
+        long word = this.data[index >>> this.wordsPerLongShift];
+        return (int) (word >>> ((index & ((1 << this.wordsPerLongShift) - 1)) << this.wordShift)) & this.wordMask;
+    }
+
+    private static int indexOf(BlockState[] palette, BlockState state) {
+        for (int i = 0; i < palette.length; i++) {
+            if (palette[i] == state) return i;
+        }
+        return -1;
+    }
+
+    private static int index(int x, int y, int z) {
+        return (y & 15) << 8 | (z & 15) << 4 | x & 15;
+    }
 
-    public void setId(int index, int id) {
-        int wordSize = this.data[0] & 15;
-        int bits = 4 + (wordSize << 15) + 16 + (id * 16);
+    private static int wordSizeFor(int paletteSize) {
+        if (paletteSize <= 1) return 0;
+        int bits = 32 - Integer.numberOfLeadingZeros(paletteSize - 1);
+        // Round up to a power of two so a word never crosses a long boundary
+        return Math.max(1, Integer.highestOneBit(bits - 1) << 1);
     }
 
-    public int getId(int index) {
-        int wordSize = this.data[0] & 15;
-        int bits = 4 + wordSize * index; int a = bits >>> 5; int b = bits & 31;
-        int id = (this.data[a] >>> b) & ((1 << wordSize) - 1);
-        bits = 4 + (wordSize << 15) + 16 + (id * 16); a = bits >>> 5; b = bits & 31;
-        return (this.data[a] >>> b) & 65535;
+    private static byte computeFlags(BlockState state) {
+        Block block = state.getBlock();
+        byte flags = 0;
+        if (MovementHelper.canWalkOnBlockState(state) == Ternary.YES) flags |= WALKABLE;
+        if (block == Blocks.LAVA || block instanceof LeavesBlock || block instanceof StairsBlock || block instanceof SlabBlock
+                || state.isFullCube(EmptyBlockView.INSTANCE, BlockPos.ORIGIN)) {
+            flags |= OBSCURING;
+        }
+        if (BlockStateChecker.isAnyWater(state)) flags |= WATER;
+        if (block instanceof LadderBlock) flags |= LADDER;
+        if (block instanceof SlabBlock) flags |= SLAB;
+        return flags;
     }
 
 }
@@ -1,12 +1,16 @@
 package kaptainwutax.tungsten.world;
 
 import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
 
 import org.jetbrains.annotations.Nullable;
 
-import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import kaptainwutax.tungsten.TungstenMod;
 import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
 import net.minecraft.block.entity.BlockEntity;
 import net.minecraft.entity.Entity;
 import net.minecraft.fluid.FluidState;
@@ -15,59 +19,260 @@ import net.minecraft.registry.entry.RegistryEntry;
 import net.minecraft.resource.featuretoggle.FeatureSet;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Box;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.util.math.Direction;
 import net.minecraft.util.shape.VoxelShape;
+import net.minecraft.world.BlockView;
 import net.minecraft.world.Heightmap;
 import net.minecraft.world.WorldView;
 import net.minecraft.world.biome.Biome;
 import net.minecraft.world.biome.source.BiomeAccess;
 import net.minecraft.world.border.WorldBorder;
 import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.ChunkSection;
 import net.minecraft.world.chunk.ChunkStatus;
 import net.minecraft.world.chunk.light.LightingProvider;
 import net.minecraft.world.dimension.DimensionType;
 
-public class VoxelWorld implements WorldView {
+/**
+ * Copy-on-write snapshot of the client world's blocks, grouped by chunk column.
+ * <p>
+ * The live instance is filled on the client thread from chunk packets and block updates. Changes are
+ * queued and published once per client tick by {@link #flush()}, which copies the column map, copies
+ * the section array of each column a change writes to, applies the queued changes and swaps the new
+ * map in. Untouched columns are shared between versions. A published map or column is never modified
+ * again, so reads are lock-free and never see a half-applied update.
+ * <p>
+ * Searches call {@link #pin()} to keep reading one version for their whole run. Fluid states are
+ * derived from the block state, which is where vanilla stores them. Heightmaps, entities, biomes
+ * and lighting are still read from the parent world.
+ */
+public class VoxelWorld implements WorldView, BlockChangeNotifier.Listener {
+
+    /**
+     * One published version of the world.
+     */
+    private record Snapshot(Long2ObjectOpenHashMap<VoxelChunk2[]> columns, long version) {}
+
+    /**
+     * The columns of the version {@link #flush()} is building. A column is still shared with the
+     * previous version until a change edits it, then its section array is copied once per flush.
+     */
+    private static final class Columns {
+        private final Long2ObjectOpenHashMap<VoxelChunk2[]> columns;
+        private final LongOpenHashSet copied = new LongOpenHashSet();
+
+        private Columns(Long2ObjectOpenHashMap<VoxelChunk2[]> previous) {
+            this.columns = new Long2ObjectOpenHashMap<>(previous);
+        }
+
+        void put(long column, VoxelChunk2[] sections) {
+            this.columns.put(column, sections);
+            this.copied.add(column);
+        }
+
+        void remove(long column) {
+            this.columns.remove(column);
+            this.copied.remove(column);
+        }
+
+        /**
+         * @return the sections of {@code column} owned by the new version, or {@code null} if it is not loaded
+         */
+        VoxelChunk2[] edit(long column) {
+            VoxelChunk2[] sections = this.columns.get(column);
+            if (sections == null || this.copied.contains(column)) return sections;
+            sections = sections.clone();
+            this.put(column, sections);
+            return sections;
+        }
+    }
 
     public final WorldView parent;
-    private final Long2ObjectMap<VoxelChunk> chunks = new Long2ObjectOpenHashMap<>();
+    private volatile Snapshot snapshot;
+    private final boolean pinned;
+    private final int bottomSection;
+    /** Edits to apply to the next version, filled on the client thread */
+    private final ConcurrentLinkedQueue<Consumer<Columns>> pending = new ConcurrentLinkedQueue<>();
 
     public VoxelWorld(WorldView parent) {
+        this(parent, new Snapshot(new Long2ObjectOpenHashMap<>(), 0L), false);
+    }
+
+    private VoxelWorld(WorldView parent, Snapshot snapshot, boolean pinned) {
         this.parent = parent;
-        this.chunks.defaultReturnValue(VoxelChunk.EMPTY);
+        this.snapshot = snapshot;
+        this.pinned = pinned;
+        this.bottomSection = parent.getBottomSectionCoord();
+    }
+
+    /**
+     * @return a view fixed at the current version, later flushes do not change what it returns
+     */
+    public VoxelWorld pin() {
+        return new VoxelWorld(this.parent, this.snapshot, true);
+    }
+
+    public long getVersion() {
+        return this.snapshot.version();
+    }
+
+    /**
+     * @return the client world {@code world} reads, itself or the parent of a snapshot, or {@code null}
+     *         for any other world
+     */
+    public static WorldView clientWorldOf(WorldView world) {
+        WorldView client = TungstenMod.mc.world;
+        if (client == null) return null;
+        if (world == client) return client;
+        return world instanceof VoxelWorld voxels && voxels.parent == client ? client : null;
+    }
+
+    /**
+     * Whether {@code world} shows every block change received so far. Versions are bumped when a
+     * change arrives, a pinned snapshot from before it still shows the old blocks.
+     * Worlds that cannot be identified are never up to date.
+     */
+    public static boolean isUpToDate(WorldView world) {
+        if (world == TungstenMod.mc.world) return world != null;
+        if (!(world instanceof VoxelWorld pinned)) return false;
+        VoxelWorld live = TungstenMod.WORLD;
+        return live != null && live.parent == pinned.parent
+                && live.getVersion() == pinned.getVersion() && !live.hasPendingChanges();
+    }
+
+    /**
+     * Copies every section of a freshly received chunk. Called on the client thread while the chunk
+     * is being loaded, before it is reachable through the parent world.
+     */
+    public void loadChunk(Chunk chunk) {
+        if (this.pinned) return;
+        long column = chunk.getPos().toLong();
+        ChunkSection[] sectionArray = chunk.getSectionArray();
+        VoxelChunk2[] copies = new VoxelChunk2[sectionArray.length];
+        for (int i = 0; i < sectionArray.length; i++) {
+            copies[i] = VoxelChunk2.copyOf(sectionArray[i]);
+        }
+        this.pending.add(columns -> columns.put(column, copies));
+    }
+
+    /**
+     * Copies every chunk the parent already holds within {@code radius} chunks of the center,
+     * for a snapshot started after they were received.
+     */
+    public void loadChunks(int centerX, int centerZ, int radius) {
+        if (this.pinned) return;
+        for (int chunkX = centerX - radius; chunkX <= centerX + radius; chunkX++) {
+            for (int chunkZ = centerZ - radius; chunkZ <= centerZ + radius; chunkZ++) {
+                Chunk chunk = this.parent.getChunk(chunkX, chunkZ, ChunkStatus.FULL, false);
+                if (chunk != null) this.loadChunk(chunk);
+            }
+        }
+    }
+
+    public void unloadChunk(int chunkX, int chunkZ) {
+        if (this.pinned) return;
+        long column = ChunkPos.toLong(chunkX, chunkZ);
+        this.pending.add(columns -> columns.remove(column));
+    }
+
+    @Override
+    public void onBlockChanged(int x, int y, int z) {
+        if (this.pinned) return;
+        // Called after the parent applied the update, so it already holds the new state
+        BlockState state = this.parent.getBlockState(new BlockPos(x, y, z));
+        long column = ChunkPos.toLong(x >> 4, z >> 4);
+        int index = (y >> 4) - this.bottomSection;
+        this.pending.add(columns -> {
+            VoxelChunk2[] sections = columns.edit(column);
+            if (sections != null && index >= 0 && index < sections.length) {
+                sections[index] = sections[index].with(x, y, z, state);
+            }
+        });
+    }
+
+    @Override
+    public void onChunkLoaded(int chunkX, int chunkZ) {
+        // Chunk packets are copied by loadChunk, the chunk is not in the parent yet at this point
+    }
+
+    /**
+     * @return whether changes were received that the next {@link #flush()} has yet to publish
+     */
+    public boolean hasPendingChanges() {
+        return !this.pending.isEmpty();
+    }
+
+    /**
+     * Publishes all queued changes as a new version. Called once per client tick.
+     */
+    public void flush() {
+        if (this.pinned || this.pending.isEmpty()) return;
+        Snapshot current = this.snapshot;
+        Columns columns = new Columns(current.columns());
+        Consumer<Columns> change;
+        while ((change = this.pending.poll()) != null) {
+            change.accept(columns);
+        }
+        this.snapshot = new Snapshot(columns.columns, current.version() + 1);
     }
 
     @Override
     public boolean isChunkLoaded(int chunkX, int chunkZ) {
-        return true;
+        return this.snapshot.columns().containsKey(ChunkPos.toLong(chunkX, chunkZ));
     }
 
     @Override
     public BlockState getBlockState(BlockPos pos) {
-        int x = pos.getX();
-        int y = pos.getY() - this.getBottomY();
-        int z = pos.getZ();
-        long id = 0L;
-        return this.chunks.get(id).getBlockState(x, y, z);
+        return this.getBlockState(pos.getX(), pos.getY(), pos.getZ());
+    }
+
+    public BlockState getBlockState(int x, int y, int z) {
+        VoxelChunk2 section = this.getSection(x, y, z);
+        // Same as the client world for unloaded chunks and positions outside the build limit
+        if (section == null) return Blocks.VOID_AIR.getDefaultState();
+        return section.getBlockState(x, y, z);
+    }
+
+    /**
+     * @return the {@link VoxelChunk2} flag byte of the block, 0 in unloaded chunks
+     */
+    public byte getFlags(int x, int y, int z) {
+        VoxelChunk2 section = this.getSection(x, y, z);
+        return section == null ? 0 : section.getFlags(x, y, z);
+    }
+
+    @Nullable
+    private VoxelChunk2 getSection(int x, int y, int z) {
+        VoxelChunk2[] sections = this.snapshot.columns().get(ChunkPos.toLong(x >> 4, z >> 4));
+        if (sections == null) return null;
+        int index = (y >> 4) - this.bottomSection;
+        return index >= 0 && index < sections.length ? sections[index] : null;
+    }
+
+    /**
+     * @return approximate heap size of the section copies in bytes
+     */
+    public long getMemoryUsage() {
+        long bytes = 0;
+        for (VoxelChunk2[] sections : this.snapshot.columns().values()) {
+            for (VoxelChunk2 section : sections) {
+                // The empty section is shared by every chunk
+                if (section != VoxelChunk2.EMPTY) bytes += section.getMemoryUsage();
+            }
+        }
+        return bytes;
     }
 
     @Override
     public FluidState getFluidState(BlockPos pos) {
-        int x = pos.getX();
-        int y = pos.getY() - this.getBottomY();
-        int z = pos.getZ();
-        long id = 0L;
-        return this.chunks.get(id).getFluidState(x, y, z);
+        return this.getBlockState(pos).getFluidState();
     }
 
-    public void setBlockAndFluidState(BlockPos pos, BlockState block, FluidState fluid) {
-        int x = pos.getX();
-        int y = pos.getY() - this.getBottomY();
-        int z = pos.getZ();
-        long id = 0L;
-        VoxelChunk chunk = this.chunks.computeIfAbsent(id, i -> new VoxelChunk());
-        chunk.setBlockState(x, y, z, block);
-        chunk.setFluidState(x, y, z, fluid);
+    @Override
+    public BlockView getChunkAsView(int chunkX, int chunkZ) {
+        // Collision iteration reads blocks through the chunk view, keep it on the snapshot
+        return this;
     }
 
     @Override
@@ -139,16 +344,14 @@ public class VoxelWorld implements WorldView {
         return this.parent.getBlockEntity(pos);
     }
 
-	@Override
-	public DynamicRegistryManager getRegistryManager() {
-		// TODO Auto-generated method stub
-		return null;
-	}
+    @Override
+    public DynamicRegistryManager getRegistryManager() {
+        return this.parent.getRegistryManager();
+    }
 
-	@Override
-	public FeatureSet getEnabledFeatures() {
-		// TODO Auto-generated method stub
-		return null;
-	}
+    @Override
+    public FeatureSet getEnabledFeatures() {
+        return this.parent.getEnabledFeatures();
+    }
 
 }